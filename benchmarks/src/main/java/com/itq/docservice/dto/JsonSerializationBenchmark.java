@@ -0,0 +1,90 @@
+package com.itq.docservice.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.itq.docservice.entity.DocumentAction;
+import com.itq.docservice.entity.DocumentStatus;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON writing of the read endpoints' bodies with an ObjectMapper configured like Spring Boot's:
+ * one document (GET /{id}), and a page of {@code pageSize} documents (GET /search, GET ?ids=).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonSerializationBenchmark {
+
+    @Param({"20", "200"})
+    private int pageSize;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private DocumentResponse document;
+    private DocumentResponse documentWithHistory;
+    private Page<DocumentResponse> page;
+
+    @Setup
+    public void setUp() {
+        document = document(1);
+        documentWithHistory = document(2);
+        List<HistoryEntryResponse> history = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            HistoryEntryResponse h = new HistoryEntryResponse();
+            h.setId((long) i);
+            h.setPerformedBy("submit-worker");
+            h.setAction(DocumentAction.SUBMIT);
+            h.setPerformedAt(documentWithHistory.getCreatedAt().plusMinutes(i));
+            history.add(h);
+        }
+        documentWithHistory.setHistory(history);
+
+        List<DocumentResponse> content = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            content.add(document(1_000_000L + i));
+        }
+        page = new PageImpl<>(content, PageRequest.of(0, pageSize), 1_000_000);
+    }
+
+    private static DocumentResponse document(long id) {
+        OffsetDateTime createdAt = OffsetDateTime.parse("2024-07-01T10:00:00Z");
+        DocumentResponse d = new DocumentResponse();
+        d.setId(id);
+        d.setNumber("DOC-20240701-" + id);
+        d.setAuthor("author-" + id % 1000);
+        d.setTitle("Quarterly report on contract approvals #" + id);
+        d.setStatus(DocumentStatus.SUBMITTED);
+        d.setCreatedAt(createdAt);
+        d.setUpdatedAt(createdAt.plusHours(1));
+        d.setHistory(List.of());
+        return d;
+    }
+
+    @Benchmark
+    public byte[] documentResponse() throws Exception {
+        return objectMapper.writeValueAsBytes(document);
+    }
+
+    @Benchmark
+    public byte[] documentResponseWithHistory() throws Exception {
+        return objectMapper.writeValueAsBytes(documentWithHistory);
+    }
+
+    @Benchmark
+    public byte[] page() throws Exception {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,45 @@
+package com.itq.docservice.repository;
+
+import com.itq.docservice.dto.DocumentSearchRequest;
+import com.itq.docservice.entity.Document;
+import com.itq.docservice.entity.DocumentStatus;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.OffsetDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Composition of the search {@link Specification} per request, without and with every filter set.
+ * Only the composition is measured; translating it into SQL happens inside Hibernate.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DocumentSpecificationBenchmark {
+
+    private final DocumentSearchRequest empty = new DocumentSearchRequest();
+    private final DocumentSearchRequest allFilters = new DocumentSearchRequest();
+
+    @Setup
+    public void setUp() {
+        allFilters.setStatus(DocumentStatus.APPROVED);
+        allFilters.setAuthor("Author-42");
+        allFilters.setFrom(OffsetDateTime.parse("2024-07-01T00:00:00Z"));
+        allFilters.setTo(OffsetDateTime.parse("2024-07-31T23:59:59Z"));
+        allFilters.setQ("contract");
+    }
+
+    @Benchmark
+    public Specification<Document> noFilters() {
+        return DocumentSpecification.matching(empty);
+    }
+
+    @Benchmark
+    public Specification<Document> allFilters() {
+        return DocumentSpecification.matching(allFilters);
+    }
+}
@@ -0,0 +1,90 @@
+package com.itq.docservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.itq.docservice.dto.BatchStatusRequest;
+import com.itq.docservice.dto.BatchStatusResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response side of POST /submit and /approve for {@code size} ids: {@link DocumentService#batchSubmit} and
+ * {@link DocumentService#batchApprove} themselves (result list, per-transition timers, batch metrics and JFR
+ * event) with the per-document transaction replaced by a fixed outcome, and writing the result as JSON.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BatchStatusResultBenchmark {
+
+    @Param({"50", "1000"})
+    private int size;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private DocumentService documentService;
+    private BatchStatusRequest request;
+    private List<BatchStatusResult> results;
+
+    @Setup
+    public void setUp() {
+        // Only the transaction service and the metrics are used by the batch status paths
+        documentService = new DocumentService(null, null, null, null, new FixedOutcomeTransactions(), null, null,
+                new DocumentMetrics(new SimpleMeterRegistry(), null));
+        request = new BatchStatusRequest();
+        request.setIds(new ArrayList<>(size));
+        for (long id = 1; id <= size; id++) {
+            request.getIds().add(1_000_000L + id);
+        }
+        request.setInitiator("bench");
+        results = documentService.batchSubmit(request);
+    }
+
+    @Benchmark
+    public List<BatchStatusResult> batchSubmit() {
+        return documentService.batchSubmit(request);
+    }
+
+    @Benchmark
+    public List<BatchStatusResult> batchApprove() {
+        return documentService.batchApprove(request);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return objectMapper.writeValueAsBytes(results);
+    }
+
+    /** Skips the database: every tenth document is in the wrong status, the rest succeed. */
+    static final class FixedOutcomeTransactions extends DocumentTransactionService {
+
+        FixedOutcomeTransactions() {
+            super(null, null, null, null, null, null, null, null);
+        }
+
+        @Override
+        public BatchStatusResult submitOne(Long id, String initiator, String comment) {
+            return id % 10 == 0
+                    ? new BatchStatusResult(id, BatchStatusResult.ResultCode.CONFLICT,
+                    "Document is in status APPROVED, expected DRAFT")
+                    : new BatchStatusResult(id, BatchStatusResult.ResultCode.SUCCESS, "Submitted");
+        }
+
+        @Override
+        public BatchStatusResult approveOne(Long id, String initiator, String comment) {
+            return id % 10 == 0
+                    ? new BatchStatusResult(id, BatchStatusResult.ResultCode.CONFLICT,
+                    "Document is in status DRAFT, expected SUBMITTED")
+                    : new BatchStatusResult(id, BatchStatusResult.ResultCode.SUCCESS, "Approved");
+        }
+    }
+}
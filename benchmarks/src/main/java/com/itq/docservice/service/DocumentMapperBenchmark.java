@@ -0,0 +1,63 @@
+package com.itq.docservice.service;
+
+import com.itq.docservice.dto.DocumentResponse;
+import com.itq.docservice.entity.Document;
+import com.itq.docservice.entity.DocumentAction;
+import com.itq.docservice.entity.DocumentHistory;
+import com.itq.docservice.entity.DocumentStatus;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.OffsetDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity-to-DTO mapping of one document, with and without {@code historySize} history entries
+ * (already loaded, so no lazy initialisation is measured).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DocumentMapperBenchmark {
+
+    @Param({"3", "50"})
+    private int historySize;
+
+    private final DocumentMapper mapper = new DocumentMapper();
+    private Document document;
+
+    @Setup
+    public void setUp() {
+        OffsetDateTime createdAt = OffsetDateTime.parse("2024-07-01T10:00:00Z");
+        document = new Document();
+        document.setId(1_000_000L);
+        document.setNumber("DOC-20240701-1000000");
+        document.setAuthor("author-42");
+        document.setTitle("Quarterly report on contract approvals");
+        document.setStatus(DocumentStatus.APPROVED);
+        document.setCreatedAt(createdAt);
+        document.setUpdatedAt(createdAt.plusHours(1));
+        for (int i = 0; i < historySize; i++) {
+            DocumentHistory h = new DocumentHistory();
+            h.setId((long) i);
+            h.setDocument(document);
+            h.setPerformedBy("submit-worker");
+            h.setAction(i == historySize - 1 ? DocumentAction.APPROVE : DocumentAction.SUBMIT);
+            h.setPerformedAt(createdAt.plusMinutes(i));
+            h.setComment(i % 2 == 0 ? null : "revision " + i);
+            document.getHistory().add(h);
+        }
+    }
+
+    @Benchmark
+    public DocumentResponse withoutHistory() {
+        return mapper.toResponse(document, false);
+    }
+
+    @Benchmark
+    public DocumentResponse withHistory() {
+        return mapper.toResponse(document, true);
+    }
+}
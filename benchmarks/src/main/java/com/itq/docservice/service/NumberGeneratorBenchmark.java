@@ -0,0 +1,65 @@
+package com.itq.docservice.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Number generation cost per call, block allocator vs the previous format-on-every-call generator.
+ * The sequence is simulated in memory: one {@code nextval} per {@link NumberGenerator#BLOCK_SIZE} numbers is a
+ * DB round trip in production, amortised to noise here. Run with {@code -prof gc} to compare allocation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NumberGeneratorBenchmark {
+
+    private static final DateTimeFormatter FMT = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private NumberGenerator generator;
+    private AtomicLong legacyCounter;
+
+    @Setup
+    public void setUp() {
+        AtomicLong sequence = new AtomicLong(1);
+        generator = new NumberGenerator(() -> sequence.getAndAdd(NumberGenerator.BLOCK_SIZE), Clock.systemDefaultZone());
+        legacyCounter = new AtomicLong(System.currentTimeMillis());
+    }
+
+    @Benchmark
+    public String blockAllocator() {
+        return generator.generate();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String blockAllocator_4threads() {
+        return generator.generate();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(100)
+    public List<String> blockAllocator_reserve100() {
+        return generator.generate(100);
+    }
+
+    /** The generator before hi/lo: formats today's date on every call. */
+    @Benchmark
+    public String legacy() {
+        return "DOC-" + LocalDate.now().format(FMT) + "-" + legacyCounter.incrementAndGet();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String legacy_4threads() {
+        return "DOC-" + LocalDate.now().format(FMT) + "-" + legacyCounter.incrementAndGet();
+    }
+}
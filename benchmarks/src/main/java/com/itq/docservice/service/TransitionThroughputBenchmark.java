@@ -0,0 +1,252 @@
+package com.itq.docservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.itq.docservice.DocServiceApplication;
+import com.itq.docservice.dto.BatchStatusRequest;
+import com.itq.docservice.dto.BatchStatusResult;
+import com.itq.docservice.dto.CreateDocumentRequest;
+import com.itq.docservice.entity.Document;
+import com.itq.docservice.entity.DocumentStatus;
+import com.itq.docservice.repository.DocumentRepository;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.PageRequest;
+
+import java.io.File;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Throughput of the status transitions against a real PostgreSQL: {@code batchSubmit} / {@code batchApprove}
+ * (batch size 1 is a single {@code submitOne} / {@code approveOne}) and the worker loop (oldest batch by
+ * status, then the batch call) run by several competing workers. Every combination of
+ * {@code bench.batch-sizes} × {@code bench.threads} × {@code bench.hot-ratios} gets fresh DRAFT documents;
+ * the hot ratio is the share of them written by one author on one day, i.e. funnelled into the same
+ * document_stats counter key (spread only by {@code app.stats.stripes}).
+ * <p>
+ * Not a JMH benchmark: each configuration needs its own data set and one warm Spring context, and the
+ * interesting figures are per-call latency percentiles under concurrency. Run it with {@code -Pdb-bench}
+ * against a dedicated database; any service property ({@code spring.datasource.*}, {@code app.stats.stripes},
+ * ...) can be passed as {@code --name=value}. Results are logged and written as JSON to {@code bench.result}.
+ */
+public class TransitionThroughputBenchmark {
+
+    private static final double[] PERCENTILES = {50, 90, 99};
+    private static final int CREATE_CHUNK = 500;
+
+    public enum Scenario { SUBMIT, APPROVE, WORKER_SUBMIT, WORKER_APPROVE }
+
+    /**
+     * @param documentsPerSecond documents moved to the target status per second
+     * @param latencyMs          per batch call (one worker iteration for the worker scenarios)
+     */
+    public record Outcome(Scenario scenario, int batchSize, int threads, double hotRatio, long documents,
+                          long succeeded, long conflicts, long durationMs, double documentsPerSecond,
+                          Map<String, Double> latencyMs) {
+    }
+
+    private final DocumentService documentService;
+    private final DocumentTransactionService txService;
+    private final DocumentRepository documentRepository;
+    private final int documents;
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    private int dataSet;
+
+    TransitionThroughputBenchmark(ConfigurableApplicationContext context, int documents) {
+        this.documentService = context.getBean(DocumentService.class);
+        this.txService = context.getBean(DocumentTransactionService.class);
+        this.documentRepository = context.getBean(DocumentRepository.class);
+        this.documents = documents;
+    }
+
+    public static void main(String[] args) throws Exception {
+        // System properties, so that they win over application.yml but not over explicit -D / --args
+        System.getProperties().putIfAbsent("app.workers.submit.enabled", "false");
+        System.getProperties().putIfAbsent("app.workers.approve.enabled", "false");
+        // Per-document INFO lines would dominate the measurement and the console
+        System.getProperties().putIfAbsent("logging.level.com.itq", "WARN");
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(DocServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                .run(args);
+        try {
+            Environment env = context.getEnvironment();
+            TransitionThroughputBenchmark bench = new TransitionThroughputBenchmark(context,
+                    env.getProperty("bench.documents", Integer.class, 2000));
+            bench.warmUp();
+            List<Outcome> outcomes = new ArrayList<>();
+            for (int batchSize : ints(env.getProperty("bench.batch-sizes", "1,10,50"))) {
+                for (int threads : ints(env.getProperty("bench.threads", "1,4,16"))) {
+                    for (double hotRatio : doubles(env.getProperty("bench.hot-ratios", "0,0.9"))) {
+                        outcomes.addAll(bench.run(batchSize, threads, hotRatio,
+                                env.getProperty("bench.workers", Boolean.class, true)));
+                    }
+                }
+            }
+            File result = new File(env.getProperty("bench.result", "target/transition-bench.json"));
+            if (result.getParentFile() != null) {
+                result.getParentFile().mkdirs();
+            }
+            context.getBean(ObjectMapper.class).copy().enable(SerializationFeature.INDENT_OUTPUT)
+                    .writeValue(result, outcomes);
+            System.out.println("Results written to " + result.getAbsolutePath());
+        } finally {
+            context.close();
+        }
+    }
+
+    /** Unreported pass, so that the first configuration does not pay for JIT and connection pool warm-up. */
+    void warmUp() throws InterruptedException {
+        List<Long> ids = createDrafts(0);
+        batched(Scenario.SUBMIT, ids, 10, 4, 0, documentService::batchSubmit);
+        batched(Scenario.APPROVE, ids, 10, 4, 0, documentService::batchApprove);
+    }
+
+    List<Outcome> run(int batchSize, int threads, double hotRatio, boolean workers) throws InterruptedException {
+        List<Outcome> outcomes = new ArrayList<>();
+        List<Long> ids = createDrafts(hotRatio);
+        outcomes.add(report(batched(Scenario.SUBMIT, ids, batchSize, threads, hotRatio, documentService::batchSubmit)));
+        outcomes.add(report(batched(Scenario.APPROVE, ids, batchSize, threads, hotRatio, documentService::batchApprove)));
+        if (workers) {
+            createDrafts(hotRatio);
+            outcomes.add(report(worker(Scenario.WORKER_SUBMIT, DocumentStatus.DRAFT, batchSize, threads, hotRatio,
+                    documentService::batchSubmit)));
+            outcomes.add(report(worker(Scenario.WORKER_APPROVE, DocumentStatus.SUBMITTED, batchSize, threads, hotRatio,
+                    documentService::batchApprove)));
+        }
+        return outcomes;
+    }
+
+    private List<Long> createDrafts(double hotRatio) {
+        int set = ++dataSet;
+        Random random = new Random(set);
+        List<Long> ids = new ArrayList<>(documents);
+        for (int from = 0; from < documents; from += CREATE_CHUNK) {
+            List<CreateDocumentRequest> chunk = new ArrayList<>();
+            for (int i = from; i < Math.min(from + CREATE_CHUNK, documents); i++) {
+                CreateDocumentRequest req = new CreateDocumentRequest();
+                req.setAuthor(random.nextDouble() < hotRatio ? "bench-hot" : "bench-" + runId + "-" + set + "-" + i);
+                req.setTitle("Transition benchmark document " + i);
+                chunk.add(req);
+            }
+            txService.createDrafts(chunk).stream().map(Document::getId).forEach(ids::add);
+        }
+        return ids;
+    }
+
+    /** Sends {@code ids} in batches of {@code batchSize} from {@code threads} threads. */
+    private Outcome batched(Scenario scenario, List<Long> ids, int batchSize, int threads, double hotRatio,
+                            Function<BatchStatusRequest, List<BatchStatusResult>> call) throws InterruptedException {
+        Queue<List<Long>> batches = new ConcurrentLinkedQueue<>();
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            batches.add(ids.subList(from, Math.min(from + batchSize, ids.size())));
+        }
+        return measure(scenario, batchSize, threads, hotRatio, () -> {
+            List<Long> batch = batches.poll();
+            return batch == null ? null : call.apply(request(batch, scenario));
+        });
+    }
+
+    /** Competing workers, each taking the oldest batch in {@code status} until {@code documents} are handled. */
+    private Outcome worker(Scenario scenario, DocumentStatus status, int batchSize, int threads, double hotRatio,
+                           Function<BatchStatusRequest, List<BatchStatusResult>> call) throws InterruptedException {
+        AtomicLong remaining = new AtomicLong(documents);
+        return measure(scenario, batchSize, threads, hotRatio, () -> {
+            if (remaining.get() <= 0) {
+                return null;
+            }
+            List<Long> batch = documentRepository.findBatchIdsByStatus(status, PageRequest.of(0, batchSize));
+            if (batch.isEmpty()) {
+                return null;
+            }
+            List<BatchStatusResult> results = call.apply(request(batch, scenario));
+            remaining.addAndGet(-results.stream().filter(r -> r.getResult() == BatchStatusResult.ResultCode.SUCCESS).count());
+            return results;
+        });
+    }
+
+    private Outcome measure(Scenario scenario, int batchSize, int threads, double hotRatio,
+                            Callable<List<BatchStatusResult>> step) throws InterruptedException {
+        Histogram latency = new ConcurrentHistogram(3);
+        AtomicLong succeeded = new AtomicLong();
+        AtomicLong conflicts = new AtomicLong();
+        AtomicLong handled = new AtomicLong();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>(threads);
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            futures.add(pool.submit(() -> {
+                while (true) {
+                    long callStart = System.nanoTime();
+                    List<BatchStatusResult> results = step.call();
+                    if (results == null) {
+                        return null;
+                    }
+                    latency.recordValue((System.nanoTime() - callStart) / 1000);
+                    handled.addAndGet(results.size());
+                    for (BatchStatusResult r : results) {
+                        if (r.getResult() == BatchStatusResult.ResultCode.SUCCESS) {
+                            succeeded.incrementAndGet();
+                        } else {
+                            conflicts.incrementAndGet();
+                        }
+                    }
+                }
+            }));
+        }
+        pool.shutdown();
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            pool.shutdownNow();
+            throw new IllegalStateException(scenario + " failed", e.getCause());
+        }
+        long elapsedNanos = System.nanoTime() - start;
+
+        Map<String, Double> latencyMs = new LinkedHashMap<>();
+        for (double p : PERCENTILES) {
+            latencyMs.put("p" + (long) p, round(latency.getValueAtPercentile(p) / 1000.0));
+        }
+        latencyMs.put("max", round(latency.getMaxValue() / 1000.0));
+        return new Outcome(scenario, batchSize, threads, hotRatio, handled.get(), succeeded.get(), conflicts.get(),
+                elapsedNanos / 1_000_000, round(succeeded.get() / (elapsedNanos / 1e9)), latencyMs);
+    }
+
+    private static BatchStatusRequest request(List<Long> ids, Scenario scenario) {
+        BatchStatusRequest req = new BatchStatusRequest();
+        req.setIds(new ArrayList<>(ids));
+        req.setInitiator("bench-" + scenario.name().toLowerCase(Locale.ROOT));
+        return req;
+    }
+
+    private static Outcome report(Outcome o) {
+        System.out.printf(Locale.ROOT, "%-14s batch=%-4d threads=%-3d hot=%.2f  %8.1f docs/s  ok=%d conflicts=%d"
+                        + "  call ms p50=%.2f p90=%.2f p99=%.2f max=%.2f%n",
+                o.scenario(), o.batchSize(), o.threads(), o.hotRatio(), o.documentsPerSecond(), o.succeeded(),
+                o.conflicts(), o.latencyMs().get("p50"), o.latencyMs().get("p90"), o.latencyMs().get("p99"),
+                o.latencyMs().get("max"));
+        return o;
+    }
+
+    private static List<Integer> ints(String csv) {
+        return Arrays.stream(csv.split(",")).map(String::trim).map(Integer::valueOf).toList();
+    }
+
+    private static List<Double> doubles(String csv) {
+        return Arrays.stream(csv.split(",")).map(String::trim).map(Double::valueOf).toList();
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+}
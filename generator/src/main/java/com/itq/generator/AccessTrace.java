@@ -0,0 +1,112 @@
+package com.itq.generator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Reader for the access trace the service records with {@code app.trace.enabled=true}
+ * (see the service's AccessTraceWriter for the segment layout). The format constants mirror the
+ * writer's; AccessTraceTest writes with the service's writer and fails if the two drift apart.
+ */
+public final class AccessTrace {
+
+    static final int MAGIC = 0x49545154; // "ITQT"
+    static final short VERSION = 1;
+    static final byte END = 0;
+    static final byte ENDPOINT = 1;
+    static final byte REQUEST = 2;
+    static final List<String> METHODS = List.of("GET", "POST", "PUT", "PATCH", "DELETE", "OTHER");
+    static final String FILE_PREFIX = "access-trace-";
+    static final String FILE_SUFFIX = ".bin";
+
+    private AccessTrace() {
+    }
+
+    /**
+     * One recorded request.
+     *
+     * @param endpoint handler pattern, e.g. {@code /api/documents/{id}}
+     * @param uri      path and query string as received
+     * @param items    ids or documents in the request body; -1 when the endpoint has no such body
+     */
+    public record Request(long epochMicros, int durationMicros, int status, String method, String endpoint,
+                          String uri, int items) {
+    }
+
+    /**
+     * Reads one segment file, or every segment in a directory, ordered by arrival time (records are
+     * written on completion, so a segment is only roughly ordered).
+     */
+    public static List<Request> read(Path path) throws IOException {
+        List<Path> segments;
+        if (Files.isDirectory(path)) {
+            try (Stream<Path> files = Files.list(path)) {
+                segments = files
+                        .filter(f -> f.getFileName().toString().startsWith(FILE_PREFIX)
+                                && f.getFileName().toString().endsWith(FILE_SUFFIX))
+                        .sorted()
+                        .toList();
+            }
+        } else {
+            segments = List.of(path);
+        }
+        List<Request> requests = new ArrayList<>();
+        for (Path segment : segments) {
+            readSegment(segment, requests);
+        }
+        requests.sort(Comparator.comparingLong(Request::epochMicros));
+        return requests;
+    }
+
+    private static void readSegment(Path segment, List<Request> out) throws IOException {
+        ByteBuffer in;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (in.remaining() < 8 || in.getInt() != MAGIC) {
+            throw new IOException(segment + " is not an access trace segment");
+        }
+        short version = in.getShort();
+        if (version != VERSION) {
+            throw new IOException(segment + ": unsupported trace version " + version);
+        }
+        in.getShort();
+        Map<Short, String> endpoints = new HashMap<>();
+        while (in.hasRemaining()) {
+            byte type = in.get();
+            if (type == END) {
+                break;
+            } else if (type == ENDPOINT) {
+                short id = in.getShort();
+                endpoints.put(id, string(in));
+            } else if (type == REQUEST) {
+                long epochMicros = in.getLong();
+                int durationMicros = in.getInt();
+                int status = in.getShort();
+                String method = METHODS.get(in.get());
+                String endpoint = endpoints.get(in.getShort());
+                int items = in.getInt();
+                out.add(new Request(epochMicros, durationMicros, status, method, endpoint, string(in), items));
+            } else {
+                throw new IOException(segment + ": corrupt record type " + type + " at " + (in.position() - 1));
+            }
+        }
+    }
+
+    private static String string(ByteBuffer in) {
+        byte[] bytes = new byte[in.getShort()];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,86 @@
+package com.itq.generator;
+
+import java.time.Duration;
+
+/**
+ * Intended send time of the i-th request, as an offset from the start of the run.
+ */
+public interface ArrivalSchedule {
+
+    /** Returned by {@link #offsetNanos(long)} once the schedule has no more arrivals. */
+    long END = -1;
+
+    /** @return the intended offset in nanoseconds, or {@link #END} */
+    long offsetNanos(long i);
+
+    /** Nominal gap between two arrivals at offset {@code offsetNanos}; 0 when unpaced. */
+    long intervalNanos(long offsetNanos);
+
+    /** Every request is due immediately; pacing comes only from the in-flight limit. */
+    static ArrivalSchedule unpaced() {
+        return new ArrivalSchedule() {
+            @Override
+            public long offsetNanos(long i) {
+                return 0;
+            }
+
+            @Override
+            public long intervalNanos(long offsetNanos) {
+                return 0;
+            }
+        };
+    }
+
+    /** {@code ratePerSecond} arrivals per second, unbounded in time. */
+    static ArrivalSchedule constant(double ratePerSecond) {
+        return ramp(ratePerSecond, ratePerSecond, null);
+    }
+
+    /**
+     * Arrival rate changing linearly from {@code fromRate} to {@code toRate} over {@code duration};
+     * ends after {@code duration} (a null duration only makes sense for a constant rate).
+     */
+    static ArrivalSchedule ramp(double fromRate, double toRate, Duration duration) {
+        if (fromRate <= 0 || toRate <= 0) {
+            throw new IllegalArgumentException("Rates must be positive");
+        }
+        double seconds = duration == null ? Double.POSITIVE_INFINITY : duration.toNanos() / 1e9;
+        double slope = duration == null ? 0 : (toRate - fromRate) / seconds;
+        return new ArrivalSchedule() {
+            @Override
+            public long offsetNanos(long i) {
+                // Solve fromRate * t + slope * t^2 / 2 = i for t
+                double t = slope == 0
+                        ? i / fromRate
+                        : (Math.sqrt(fromRate * fromRate + 2 * slope * i) - fromRate) / slope;
+                return t > seconds ? END : (long) (t * 1e9);
+            }
+
+            @Override
+            public long intervalNanos(long offsetNanos) {
+                return (long) (1e9 / (fromRate + slope * offsetNanos / 1e9));
+            }
+        };
+    }
+
+    /**
+     * Replays recorded arrival offsets (nanoseconds from the first request) compressed by {@code speed}:
+     * 1 keeps the original timing, 10 sends ten times faster; ends after the last offset.
+     */
+    static ArrivalSchedule recorded(long[] offsetsNanos, double speed) {
+        if (speed <= 0) {
+            throw new IllegalArgumentException("Replay speed must be positive");
+        }
+        return new ArrivalSchedule() {
+            @Override
+            public long offsetNanos(long i) {
+                return i < offsetsNanos.length ? (long) (offsetsNanos[(int) i] / speed) : END;
+            }
+
+            @Override
+            public long intervalNanos(long offsetNanos) {
+                return 0;
+            }
+        };
+    }
+}
@@ -0,0 +1,322 @@
+package com.itq.generator;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.*;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes documents, their history and approval registry rows straight into PostgreSQL with
+ * {@code COPY ... FROM STDIN}, bypassing the service. Work is split into chunks of
+ * {@code chunkSize} documents; each chunk is one transaction on its own connection, and chunks run
+ * on {@code threads} connections in parallel.
+ * <p>
+ * Chunk {@code k} draws from {@code new SplittableRandom(randomSeed + k)}, so the generated content
+ * does not depend on thread scheduling: the same settings produce the same rows (ids depend on where
+ * the documents id sequence currently is, or on the clock with {@code snowflakeNodeId}).
+ * document_stats / document_status_counts are incremented in the same transaction, so the service's
+ * counters stay exact.
+ */
+@Slf4j
+public class DatabaseSeeder {
+
+    private static final String[] TITLE_TERMS = {"report", "contract", "invoice", "memo", "order", "act"};
+    private static final int COPY_BUFFER = 1 << 20;
+    /**
+     * Counter stripes used by seeding connections: one per connection and above the service's
+     * app.stats.stripes range, so seeding never waits on (or deadlocks with) live counter updates.
+     */
+    private static final int STRIPE_BASE = 1000;
+
+    private final GeneratorProperties.Seed props;
+    private final String[] statuses;
+    private final int[] cumulativeWeights;
+    private final Instant end;
+    private final AtomicLong documentRows = new AtomicLong();
+    private final AtomicLong historyRows = new AtomicLong();
+    /** Null in serial mode */
+    private final SnowflakeIds snowflakeIds;
+
+    public DatabaseSeeder(GeneratorProperties.Seed props) {
+        this.props = props;
+        Map<String, Integer> mix = props.getStatuses().isEmpty()
+                ? Map.of("DRAFT", 10, "SUBMITTED", 10, "APPROVED", 80)
+                : props.getStatuses();
+        List<Map.Entry<String, Integer>> weighted = new TreeMap<>(mix).entrySet().stream()
+                .filter(e -> e.getValue() > 0)
+                .toList();
+        if (weighted.isEmpty()) {
+            throw new IllegalArgumentException("generator.seed.statuses needs at least one positive weight");
+        }
+        this.statuses = new String[weighted.size()];
+        this.cumulativeWeights = new int[weighted.size()];
+        int sum = 0;
+        for (int i = 0; i < weighted.size(); i++) {
+            statuses[i] = weighted.get(i).getKey();
+            sum += weighted.get(i).getValue();
+            cumulativeWeights[i] = sum;
+        }
+        this.end = props.getEndDate() == null
+                ? LocalDate.now(ZoneOffset.UTC).plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant()
+                : props.getEndDate().plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+        this.snowflakeIds = props.getSnowflakeNodeId() == null ? null : new SnowflakeIds(props.getSnowflakeNodeId());
+    }
+
+    public void run() throws Exception {
+        long documents = props.getDocuments();
+        int chunkSize = props.getChunkSize();
+        int chunks = (int) ((documents + chunkSize - 1) / chunkSize);
+        log.info("=== Seeding {} documents in {} chunks on {} connections (seed={}) ===",
+                documents, chunks, props.getThreads(), props.getRandomSeed());
+
+        long start = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(props.getThreads());
+        List<Connection> connections = new ArrayList<>(props.getThreads());
+        BlockingQueue<Integer> free = new ArrayBlockingQueue<>(props.getThreads());
+        try {
+            for (int i = 0; i < props.getThreads(); i++) {
+                Connection connection = DriverManager.getConnection(props.getJdbcUrl(), props.getUsername(),
+                        props.getPassword());
+                connection.setAutoCommit(false);
+                connections.add(connection);
+                free.add(i);
+            }
+            List<Future<?>> futures = new ArrayList<>(chunks);
+            for (int k = 0; k < chunks; k++) {
+                int chunk = k;
+                long first = (long) k * chunkSize;
+                int size = (int) Math.min(chunkSize, documents - first);
+                futures.add(pool.submit(() -> {
+                    int slot = free.take();
+                    Connection connection = connections.get(slot);
+                    try {
+                        seedChunk(connection, (short) (STRIPE_BASE + slot), chunk, first, size);
+                    } catch (Exception e) {
+                        connection.rollback();
+                        throw e;
+                    } finally {
+                        free.add(slot);
+                    }
+                    logProgress(start);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            Connection connection = connections.get(0);
+            connection.setAutoCommit(true);
+            try (Statement st = connection.createStatement()) {
+                st.execute("ANALYZE documents");
+                st.execute("ANALYZE document_history");
+                st.execute("ANALYZE approval_registry");
+            }
+        } finally {
+            pool.shutdownNow();
+            for (Connection connection : connections) {
+                connection.close();
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long rows = documentRows.get() + historyRows.get();
+        log.info("=== Seeding finished: documents={}, history={}, {}s, {} rows/s ===",
+                documentRows.get(), historyRows.get(), String.format("%.1f", seconds),
+                String.format("%.0f", rows / seconds));
+    }
+
+    private void seedChunk(Connection connection, short stripe, int chunk, long first, int size)
+            throws SQLException, IOException {
+        SplittableRandom random = new SplittableRandom(props.getRandomSeed() + chunk);
+        long[] ids = reserveIds(connection, size);
+        // (status, author, day) -> count
+        Map<String, Long> stats = new TreeMap<>();
+        Map<String, Long> statusTotals = new TreeMap<>();
+
+        PGConnection pg = connection.unwrap(PGConnection.class);
+        StringBuilder history = new StringBuilder();
+        StringBuilder registry = new StringBuilder();
+        try (Writer docs = copyWriter(pg, "COPY documents (id, number, author, title, status, created_at, updated_at)"
+                + " FROM STDIN")) {
+            for (int i = 0; i < size; i++) {
+                long id = ids[i];
+                String number = props.getNumberPrefix() + "-" + props.getRandomSeed() + "-" + (first + i + 1);
+                String author = "author-" + random.nextInt(props.getAuthors());
+                String status = pickStatus(random);
+                Instant createdAt = end.minusSeconds(1 + random.nextLong(props.getDays() * 86_400L));
+                Instant updatedAt = createdAt;
+                if (!"DRAFT".equals(status)) {
+                    // Synthetic history depth (extra-history): repeated SUBMITs never come out of the real lifecycle
+                    int revisions = between(random, props.getExtraHistory());
+                    for (int r = 0; r < revisions; r++) {
+                        updatedAt = updatedAt.plusSeconds(1 + random.nextInt(3600));
+                        historyRow(history, id, author, "SUBMIT", updatedAt, "revision " + (r + 1));
+                    }
+                    updatedAt = updatedAt.plusSeconds(1 + random.nextInt(3600));
+                    historyRow(history, id, "submit-worker", "SUBMIT", updatedAt, "");
+                    if ("APPROVED".equals(status)) {
+                        updatedAt = updatedAt.plusSeconds(1 + random.nextInt(86_400));
+                        historyRow(history, id, "approve-worker", "APPROVE", updatedAt, "");
+                        registry.append(id).append('\t').append(number).append("\tapprove-worker\t")
+                                .append(updatedAt).append('\n');
+                    }
+                }
+                docs.append(Long.toString(id)).append('\t').append(number).append('\t').append(author).append('\t')
+                        .append(title(random, first + i + 1)).append('\t').append(status).append('\t')
+                        .append(createdAt.toString()).append('\t').append(updatedAt.toString()).append('\n');
+
+                String day = createdAt.atOffset(ZoneOffset.UTC).toLocalDate().toString();
+                stats.merge(status + '\t' + author + '\t' + day, 1L, Long::sum);
+                statusTotals.merge(status, 1L, Long::sum);
+            }
+        }
+        long historyCount = copy(pg, "COPY document_history (document_id, performed_by, action, performed_at, comment)"
+                + " FROM STDIN", history);
+        copy(pg, "COPY approval_registry (document_id, document_number, approved_by, approved_at) FROM STDIN",
+                registry);
+        addStats(connection, stats, statusTotals, stripe);
+        connection.commit();
+
+        documentRows.addAndGet(size);
+        historyRows.addAndGet(historyCount);
+    }
+
+    private long[] reserveIds(Connection connection, int size) throws SQLException {
+        long[] ids = new long[size];
+        if (snowflakeIds != null) {
+            for (int i = 0; i < size; i++) {
+                ids[i] = snowflakeIds.next();
+            }
+            return ids;
+        }
+        try (PreparedStatement ps = connection.prepareStatement(
+                "SELECT nextval(pg_get_serial_sequence('documents', 'id')) FROM generate_series(1, ?)")) {
+            ps.setInt(1, size);
+            try (ResultSet rs = ps.executeQuery()) {
+                for (int i = 0; rs.next(); i++) {
+                    ids[i] = rs.getLong(1);
+                }
+            }
+        }
+        return ids;
+    }
+
+    private void addStats(Connection connection, Map<String, Long> stats, Map<String, Long> statusTotals,
+                          short stripe) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(
+                "INSERT INTO document_stats (status, author, day, stripe, doc_count) VALUES (?, ?, ?::date, ?, ?) "
+                        + "ON CONFLICT (status, author, day, stripe) DO UPDATE "
+                        + "SET doc_count = document_stats.doc_count + EXCLUDED.doc_count")) {
+            for (Map.Entry<String, Long> e : stats.entrySet()) {
+                String[] key = e.getKey().split("\t");
+                ps.setString(1, key[0]);
+                ps.setString(2, key[1]);
+                ps.setString(3, key[2]);
+                ps.setShort(4, stripe);
+                ps.setLong(5, e.getValue());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+        try (PreparedStatement ps = connection.prepareStatement(
+                "INSERT INTO document_status_counts (status, stripe, doc_count) VALUES (?, ?, ?) "
+                        + "ON CONFLICT (status, stripe) DO UPDATE "
+                        + "SET doc_count = document_status_counts.doc_count + EXCLUDED.doc_count")) {
+            for (Map.Entry<String, Long> e : statusTotals.entrySet()) {
+                ps.setString(1, e.getKey());
+                ps.setShort(2, stripe);
+                ps.setLong(3, e.getValue());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    private String pickStatus(SplittableRandom random) {
+        int r = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (r < cumulativeWeights[i]) {
+                return statuses[i];
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    private static String title(SplittableRandom random, long n) {
+        return "Seed " + TITLE_TERMS[random.nextInt(TITLE_TERMS.length)] + " #" + n;
+    }
+
+    private static void historyRow(StringBuilder out, long documentId, String performedBy, String action,
+                                   Instant performedAt, String comment) {
+        out.append(documentId).append('\t').append(performedBy).append('\t').append(action).append('\t')
+                .append(performedAt).append('\t').append(comment.isEmpty() ? "\\N" : comment).append('\n');
+    }
+
+    private static int between(SplittableRandom random, WorkloadProfile.Range range) {
+        return range.getMin() + random.nextInt(Math.max(range.getMax() - range.getMin(), 0) + 1);
+    }
+
+    private static Writer copyWriter(PGConnection pg, String sql) throws SQLException {
+        return new BufferedWriter(new OutputStreamWriter(new PGCopyOutputStream(pg, sql, COPY_BUFFER),
+                StandardCharsets.UTF_8), COPY_BUFFER);
+    }
+
+    private static long copy(PGConnection pg, String sql, CharSequence rows) throws SQLException, IOException {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        try (Writer out = copyWriter(pg, sql)) {
+            out.append(rows);
+        }
+        return rows.chars().filter(c -> c == '\n').count();
+    }
+
+    private void logProgress(long start) {
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long docs = documentRows.get();
+        log.info("Seeded {}/{} documents, {} history rows, {} rows/s", docs, props.getDocuments(),
+                historyRows.get(), String.format("%.0f", (docs + historyRows.get()) / seconds));
+    }
+
+    /**
+     * Same layout as the service's SnowflakeSequence (41 bits of ms since 2024-01-01, 10 bits of node id,
+     * 12 bits of sequence), so seeded rows sort and decode like ids the service assigns. Ids encode the
+     * seeding time, not the backdated created_at; they are unique because the node id is reserved for seeding.
+     */
+    static final class SnowflakeIds {
+
+        static final long EPOCH_MS = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+        static final int NODE_BITS = 10;
+        static final int SEQUENCE_BITS = 12;
+
+        private final long nodeBits;
+        /** (ms since epoch << SEQUENCE_BITS) | sequence of the last issued id */
+        private final AtomicLong last = new AtomicLong();
+
+        SnowflakeIds(int nodeId) {
+            if (nodeId < 0 || nodeId >= 1 << NODE_BITS) {
+                throw new IllegalArgumentException("generator.seed.snowflake-node-id must be within 0.."
+                        + ((1 << NODE_BITS) - 1) + ", got " + nodeId);
+            }
+            this.nodeBits = (long) nodeId << SEQUENCE_BITS;
+        }
+
+        long next() {
+            long now = (System.currentTimeMillis() - EPOCH_MS) << SEQUENCE_BITS;
+            long next = last.updateAndGet(prev -> Math.max(prev + 1, now));
+            return ((next >>> SEQUENCE_BITS) << (NODE_BITS + SEQUENCE_BITS)) | nodeBits
+                    | (next & ((1L << SEQUENCE_BITS) - 1));
+        }
+    }
+}
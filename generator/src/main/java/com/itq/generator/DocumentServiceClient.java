@@ -0,0 +1,67 @@
+package com.itq.generator;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Asynchronous calls to the document service over one shared {@link HttpClient}, which keeps
+ * HTTP/1.1 connections alive and reuses them across requests.
+ */
+@RequiredArgsConstructor
+public class DocumentServiceClient {
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final String serviceUrl;
+    private final Duration requestTimeout;
+
+    public CompletableFuture<HttpResponse<String>> createDocument(String author, String title) {
+        return post("/api/documents", Map.of("author", author, "title", title));
+    }
+
+    public CompletableFuture<HttpResponse<String>> post(String path, Object body) {
+        return send(request(path)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(toJson(body)))
+                .build());
+    }
+
+    public CompletableFuture<HttpResponse<String>> get(String path) {
+        return send(request(path).GET().build());
+    }
+
+    public JsonNode readBody(HttpResponse<String> response) {
+        try {
+            return objectMapper.readTree(response.body());
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private CompletableFuture<HttpResponse<String>> send(HttpRequest request) {
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(serviceUrl + path)).timeout(requestTimeout);
+    }
+
+    private String toJson(Object body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -1,20 +1,22 @@
 package com.itq.generator;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
+import org.HdrHistogram.Histogram;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
-import org.springframework.http.*;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
-import org.springframework.web.client.RestTemplate;
 
-import java.util.Map;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
 
 @Slf4j
 @SpringBootApplication
+@EnableConfigurationProperties(GeneratorProperties.class)
 public class GeneratorApplication {
 
     public static void main(String[] args) {
@@ -22,68 +24,146 @@ public class GeneratorApplication {
     }
 
     @Bean
-    public RestTemplate restTemplate(
-            @Value("${generator.connect-timeout-ms:5000}") int connectTimeout,
-            @Value("${generator.read-timeout-ms:10000}") int readTimeout) {
-        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
-        factory.setConnectTimeout(connectTimeout);
-        factory.setReadTimeout(readTimeout);
-        return new RestTemplate(factory);
+    public DocumentServiceClient documentServiceClient(ObjectMapper objectMapper, GeneratorProperties props) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(props.getConnectTimeoutMs()))
+                .build();
+        return new DocumentServiceClient(httpClient, objectMapper, props.getServiceUrl(),
+                Duration.ofMillis(props.getReadTimeoutMs()));
     }
 
     @Bean
-    public CommandLineRunner run(
-            RestTemplate restTemplate,
-            @Value("${generator.service-url}") String serviceUrl,
-            @Value("${generator.count}") int count,
-            @Value("${generator.initiator}") String initiator) {
+    public CommandLineRunner run(DocumentServiceClient client, GeneratorProperties props, ObjectMapper objectMapper) {
         return args -> {
-            log.info("=== Document Generator started: N={}, target={} ===", count, serviceUrl);
-
-            String url = serviceUrl + "/api/documents";
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-
-            AtomicInteger created = new AtomicInteger(0);
-            AtomicInteger failed = new AtomicInteger(0);
-            long overallStart = System.currentTimeMillis();
-
-            for (int i = 1; i <= count; i++) {
-                String title = "Generated Document #" + i;
-                Map<String, String> body = Map.of("author", initiator, "title", title);
-
-                long stepStart = System.currentTimeMillis();
-                try {
-                    ResponseEntity<Map> response = restTemplate.postForEntity(
-                            url,
-                            new HttpEntity<>(body, headers),
-                            Map.class);
-
-                    if (response.getStatusCode().is2xxSuccessful()) {
-                        int c = created.incrementAndGet();
-                        log.info("Created [{}/{}] id={} in {}ms",
-                                c, count, response.getBody().get("id"),
-                                System.currentTimeMillis() - stepStart);
-                    } else {
-                        failed.incrementAndGet();
-                        log.warn("Failed [{}/{}]: status={}", i, count, response.getStatusCode());
-                    }
-                } catch (Exception e) {
-                    failed.incrementAndGet();
-                    log.error("Error creating document {}/{}: {}", i, count, e.getMessage());
-                }
+            if (props.getSeed().isEnabled()) {
+                new DatabaseSeeder(props.getSeed()).run();
+                System.exit(0);
+            }
+
+            if (props.getMode() == GeneratorProperties.Mode.REPLAY) {
+                replay(client, props, objectMapper);
+                System.exit(0);
+            }
 
-                if (i % 10 == 0) {
-                    log.info("Progress: {}/{} created, {} failed",
-                            created.get(), count, failed.get());
+            boolean openLoop = props.getMode() == GeneratorProperties.Mode.OPEN;
+            long count;
+            int maxInFlight;
+            ArrivalSchedule schedule;
+            if (openLoop) {
+                GeneratorProperties.OpenLoop open = props.getOpenLoop();
+                if (props.getRate() <= 0) {
+                    throw new IllegalArgumentException("generator.rate must be positive in OPEN mode");
                 }
+                double rampTo = open.getRampToRate() > 0 ? open.getRampToRate() : props.getRate();
+                schedule = ArrivalSchedule.ramp(props.getRate(), rampTo, Duration.ofSeconds(open.getDurationS()));
+                count = Long.MAX_VALUE;
+                maxInFlight = open.getMaxInFlight();
+                log.info("=== Document Generator started: open loop, rate={}/s -> {}/s over {}s, target={} ===",
+                        props.getRate(), rampTo, open.getDurationS(), props.getServiceUrl());
+            } else {
+                schedule = props.getRate() > 0 ? ArrivalSchedule.constant(props.getRate()) : ArrivalSchedule.unpaced();
+                count = props.getCount();
+                maxInFlight = props.getConcurrency();
+                log.info("=== Document Generator started: N={}, target={}, concurrency={}, rate={} ===",
+                        count, props.getServiceUrl(), maxInFlight,
+                        props.getRate() > 0 ? props.getRate() + "/s" : "unlimited");
+            }
+
+            WorkloadProfile profile = props.activeProfile();
+            Workload workload = new Workload(client, profile, props.getInitiator());
+            if (profile.getPreloadIds() > 0) {
+                workload.preload();
             }
+            log.info("Workload profile '{}': {}", props.getProfile(), profile.getOperations());
 
-            long elapsed = System.currentTimeMillis() - overallStart;
-            log.info("=== Generator finished: created={}/{}, failed={}, total time={}ms ===",
-                    created.get(), count, failed.get(), elapsed);
+            GeneratorProperties.Pipeline pipelineProps = props.getPipeline();
+            PipelineTracker tracker = null;
+            if (pipelineProps.isEnabled()) {
+                tracker = new PipelineTracker(client, pipelineProps.getLookupBatchSize(),
+                        Duration.ofMillis(pipelineProps.getPollIntervalMs()),
+                        Duration.ofMillis(props.getReportIntervalMs()));
+                workload.onCreated(tracker);
+                tracker.start();
+            }
+
+            Instant startedAt = Instant.now();
+            LoadRunner runner = new LoadRunner(maxInFlight, Duration.ofMillis(props.getReportIntervalMs()));
+            LoadRunner.Result result = runner.run(count, schedule, openLoop, workload);
+
+            logResult(result);
+
+            PipelineTracker.Result pipeline = null;
+            if (tracker != null) {
+                log.info("Waiting up to {}s for created documents to be APPROVED...", pipelineProps.getTimeoutS());
+                pipeline = tracker.awaitApproved(Duration.ofSeconds(pipelineProps.getTimeoutS()));
+                log.info("=== Pipeline: approved={}/{}, pending={}, throughput={} docs/s ===",
+                        pipeline.approved(), pipeline.tracked(), pipeline.pending(),
+                        String.format("%.1f", pipeline.throughput()));
+                logStage("created->submitted", pipeline.toSubmitted());
+                logStage("submitted->approved", pipeline.toApproved());
+                logStage("created->approved", pipeline.total());
+            }
+
+            if (!props.getSummaryFile().isBlank()) {
+                Path file = Path.of(props.getSummaryFile());
+                LoadSummary.of(props, maxInFlight, startedAt, result, pipeline).write(file, objectMapper);
+                log.info("Summary written to {}", file.toAbsolutePath());
+            }
 
             System.exit(0);
         };
     }
+
+    private static void replay(DocumentServiceClient client, GeneratorProperties props, ObjectMapper objectMapper)
+            throws Exception {
+        GeneratorProperties.Replay replayProps = props.getReplay();
+        if (replayProps.getTrace().isBlank()) {
+            throw new IllegalArgumentException("generator.replay.trace must point to a trace file or directory");
+        }
+        TraceReplay replay = new TraceReplay(client, AccessTrace.read(Path.of(replayProps.getTrace())),
+                props.getInitiator());
+        boolean timed = replayProps.getSpeed() > 0;
+        ArrivalSchedule schedule = timed
+                ? ArrivalSchedule.recorded(replay.offsetsNanos(), replayProps.getSpeed())
+                : ArrivalSchedule.unpaced();
+        int maxInFlight = timed ? props.getOpenLoop().getMaxInFlight() : props.getConcurrency();
+        log.info("=== Replaying {} requests from {} at {}, target={} ===", replay.size(), replayProps.getTrace(),
+                timed ? replayProps.getSpeed() + "x" : "max speed, concurrency=" + maxInFlight,
+                props.getServiceUrl());
+
+        Instant startedAt = Instant.now();
+        LoadRunner runner = new LoadRunner(maxInFlight, Duration.ofMillis(props.getReportIntervalMs()));
+        LoadRunner.Result result = runner.run(replay.size(), schedule, timed, replay);
+        logResult(result);
+        replay.recordedLatency().forEach((endpoint, latency) -> logStage("recorded " + endpoint, latency));
+
+        if (!props.getSummaryFile().isBlank()) {
+            Path file = Path.of(props.getSummaryFile());
+            LoadSummary.of(props, maxInFlight, startedAt, result, null).write(file, objectMapper);
+            log.info("Summary written to {}", file.toAbsolutePath());
+        }
+    }
+
+    private static void logResult(LoadRunner.Result result) {
+        log.info("=== Generator finished: ok={}, failed={}, total time={}ms, throughput={} req/s ===",
+                result.succeeded(), result.failed(), result.elapsed().toMillis(),
+                String.format("%.1f", result.throughput()));
+        logLatency("all", result);
+        if (result.operations().size() > 1) {
+            result.operations().forEach(GeneratorApplication::logLatency);
+        }
+        result.failures().forEach((reason, n) -> log.warn("Failures: {} x{}", reason, n));
+    }
+
+    private static void logStage(String stage, Histogram latency) {
+        log.info("{}: ms {}", String.format("%-19s", stage), LoadSummary.percentiles(latency));
+    }
+
+    private static void logLatency(String operation, LoadRunner.Result result) {
+        Histogram latency = result.latency();
+        log.info("{}: {} req/s, ok={}, failed={}, latency ms {}",
+                String.format("%-8s", operation), String.format("%.1f", result.throughput()),
+                result.succeeded(), result.failed(), LoadSummary.percentiles(latency));
+    }
 }
@@ -0,0 +1,116 @@
+package com.itq.generator;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "generator")
+public class GeneratorProperties {
+
+    public enum Mode {
+        /** Next request only when one of {@code concurrency} slots frees up (optionally capped at {@code rate}). */
+        CLOSED,
+        /** Requests at a fixed or ramped arrival rate regardless of how fast the service answers. */
+        OPEN,
+        /** Requests of a recorded access trace ({@code generator.replay.trace}) at their original timing. */
+        REPLAY
+    }
+
+    private String serviceUrl;
+    private int count;
+    private String initiator;
+    private int connectTimeoutMs = 5000;
+    private int readTimeoutMs = 10000;
+
+    private Mode mode = Mode.CLOSED;
+    private int concurrency = 1;
+    private double rate;
+    private long reportIntervalMs = 5000;
+    /** JSON summary written at the end of the run; empty = none. */
+    private String summaryFile = "";
+
+    private OpenLoop openLoop = new OpenLoop();
+
+    private Pipeline pipeline = new Pipeline();
+    private Replay replay = new Replay();
+    private Seed seed = new Seed();
+
+    /** Name of the entry in {@link #profiles} to run. */
+    private String profile = "create";
+    private Map<String, WorkloadProfile> profiles = new LinkedHashMap<>();
+
+    public WorkloadProfile activeProfile() {
+        WorkloadProfile active = profiles.get(profile);
+        if (active == null) {
+            throw new IllegalArgumentException("Unknown workload profile '" + profile + "', known: " + profiles.keySet());
+        }
+        return active;
+    }
+
+    /** Follows the documents created by the run until APPROVED and reports stage latencies. */
+    @Data
+    public static class Pipeline {
+        private boolean enabled;
+        private long pollIntervalMs = 1000;
+        /** Ids per status lookup request. */
+        private int lookupBatchSize = 200;
+        /** How long to keep waiting for approvals after the last request was sent. */
+        private long timeoutS = 600;
+    }
+
+    @Data
+    public static class Replay {
+        /** Trace segment file, or the directory holding the service's segments. */
+        private String trace = "";
+        /** Multiple of the original request rate; 0 = as fast as {@code generator.concurrency} allows. */
+        private double speed = 1.0;
+    }
+
+    /** Writes documents straight into the database instead of calling the service. */
+    @Data
+    public static class Seed {
+        private boolean enabled;
+        private String jdbcUrl;
+        private String username;
+        private String password;
+        private long documents = 1_000_000;
+        /** Documents per COPY transaction. */
+        private int chunkSize = 50_000;
+        /** Parallel connections, one chunk each. */
+        private int threads = 4;
+        private long randomSeed = 42;
+        /** Relative weight of each status; empty = DRAFT 10, SUBMITTED 10, APPROVED 80. */
+        private Map<String, Integer> statuses = new LinkedHashMap<>();
+        private int authors = 1000;
+        /** created_at is spread uniformly over this many days up to and including {@link #endDate}. */
+        private int days = 365;
+        /** Last creation day; null = today (UTC). Fix it to make reruns produce identical timestamps. */
+        private LocalDate endDate;
+        /**
+         * Extra SUBMIT entries before the final transitions of non-DRAFT documents. Synthetic: the service's
+         * lifecycle writes each action at most once, so this only stresses history size, not realistic content.
+         */
+        private WorkloadProfile.Range extraHistory = new WorkloadProfile.Range(0, 0);
+        /** Numbers are {@code <prefix>-<randomSeed>-<n>}; change either to seed the same database again. */
+        private String numberPrefix = "SEED";
+        /**
+         * Null = ids from the documents BIGSERIAL. Set it when the service runs with app.ids.snowflake.enabled:
+         * ids are then issued in the service's snowflake layout under this node id, which must differ from the
+         * node id of every running service instance.
+         */
+        private Integer snowflakeNodeId;
+    }
+
+    @Data
+    public static class OpenLoop {
+        /** Rate reached at the end of the run; 0 = keep {@code generator.rate} constant. */
+        private double rampToRate;
+        private long durationS = 60;
+        /** Safety cap on outstanding requests; waiting for a slot still counts towards latency. */
+        private int maxInFlight = 1000;
+    }
+}
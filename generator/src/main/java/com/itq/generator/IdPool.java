@@ -0,0 +1,48 @@
+package com.itq.generator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Document ids known to the generator, picked with a Zipf-like skew: the id at rank {@code r}
+ * (insertion order, 1-based) is chosen with probability roughly proportional to {@code 1 / r^s}.
+ * Uses the continuous power-law inverse CDF, which is exact enough for load shaping and stays O(1)
+ * while the pool keeps growing.
+ */
+public class IdPool {
+
+    private final List<Long> ids = new ArrayList<>();
+    private final double exponent;
+
+    public IdPool(double exponent) {
+        this.exponent = exponent;
+    }
+
+    public synchronized void add(long id) {
+        ids.add(id);
+    }
+
+    public synchronized int size() {
+        return ids.size();
+    }
+
+    /** @return a skewed pick, or null while the pool is empty */
+    public synchronized Long pick(Random random) {
+        int n = ids.size();
+        return n == 0 ? null : ids.get(rank(n, random.nextDouble()));
+    }
+
+    int rank(int n, double u) {
+        double x;
+        if (exponent == 0) {
+            x = 1 + u * n;
+        } else if (exponent == 1) {
+            x = Math.pow(n + 1, u);
+        } else {
+            double a = 1 - exponent;
+            x = Math.pow((Math.pow(n + 1, a) - 1) * u + 1, 1 / a);
+        }
+        return Math.min((int) x - 1, n - 1);
+    }
+}
@@ -0,0 +1,191 @@
+package com.itq.generator;
+
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongFunction;
+
+/**
+ * Sends asynchronous requests at the times given by an {@link ArrivalSchedule}, with at most
+ * {@code maxInFlight} outstanding. A 2xx response counts as success, anything else (including
+ * timeouts and connection errors) as a failure keyed by its status or exception type.
+ * <p>
+ * Latency of every completed request goes into an HdrHistogram (microseconds), overall and per
+ * operation. In open-loop mode it is measured from the <em>intended</em> send time, so time spent
+ * waiting behind a slow service (or the in-flight limit) is counted instead of silently skipped; in
+ * closed-loop mode it is measured from the actual send and, when the schedule is paced, corrected for
+ * coordinated omission by back-filling the samples that a stalled request prevented. Throughput,
+ * failures and interval percentiles are logged every {@code reportInterval}.
+ */
+@Slf4j
+public class LoadRunner {
+
+    private final int maxInFlight;
+    private final Duration reportInterval;
+
+    private final Stats all = new Stats();
+    private final Map<String, Stats> byOperation = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private long lastReportNanos;
+
+    public LoadRunner(int maxInFlight, Duration reportInterval) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be at least 1");
+        }
+        this.maxInFlight = maxInFlight;
+        this.reportInterval = reportInterval;
+    }
+
+    /** One request issued by a workload, labelled with the operation it belongs to. */
+    public record Call(String operation, CompletableFuture<HttpResponse<String>> response) {
+    }
+
+    /**
+     * @param latency    all completed requests, in microseconds
+     * @param operations the same figures per operation (empty for per-operation results)
+     */
+    public record Result(long succeeded, long failed, Duration elapsed, Map<String, Long> failures,
+                         Histogram latency, Map<String, Result> operations) {
+
+        public double throughput() {
+            return (succeeded + failed) / Math.max(elapsed.toNanos() / 1e9, 1e-9);
+        }
+    }
+
+    /**
+     * @param count    upper bound on requests; the schedule may end earlier
+     * @param openLoop measure latency from the intended rather than the actual send time
+     */
+    public Result run(long count, ArrivalSchedule schedule, boolean openLoop, LongFunction<Call> workload)
+            throws InterruptedException {
+        Semaphore permits = new Semaphore(maxInFlight);
+        long start = System.nanoTime();
+        lastReportNanos = start;
+
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "load-reporter");
+            t.setDaemon(true);
+            return t;
+        });
+        long reportMs = reportInterval.toMillis();
+        reporter.scheduleAtFixedRate(this::reportInterval, reportMs, reportMs, TimeUnit.MILLISECONDS);
+        try {
+            for (long i = 0; i < count; i++) {
+                long offset = schedule.offsetNanos(i);
+                if (offset == ArrivalSchedule.END) {
+                    break;
+                }
+                long intended = start + offset;
+                long wait;
+                while ((wait = intended - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                permits.acquire();
+                inFlight.incrementAndGet();
+                long sent = System.nanoTime();
+                long origin = openLoop ? intended : sent;
+                long expectedInterval = openLoop ? 0 : schedule.intervalNanos(offset) / 1000;
+
+                Call call;
+                try {
+                    call = workload.apply(i);
+                } catch (RuntimeException e) {
+                    call = new Call("error", CompletableFuture.failedFuture(e));
+                }
+                Stats operation = byOperation.computeIfAbsent(call.operation(), k -> new Stats());
+                call.response().whenComplete((response, error) -> {
+                    long latencyMicros = (System.nanoTime() - origin) / 1000;
+                    String failure = failureReason(response, error);
+                    all.record(latencyMicros, expectedInterval, failure);
+                    operation.record(latencyMicros, expectedInterval, failure);
+                    inFlight.decrementAndGet();
+                    permits.release();
+                });
+            }
+            permits.acquire(maxInFlight);
+        } finally {
+            reporter.shutdownNow();
+        }
+        reportInterval();
+
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        synchronized (this) {
+            Map<String, Result> operations = new TreeMap<>();
+            byOperation.forEach((name, stats) -> operations.put(name, stats.result(elapsed, Map.of())));
+            return all.result(elapsed, operations);
+        }
+    }
+
+    private synchronized void reportInterval() {
+        long now = System.nanoTime();
+        double seconds = Math.max((now - lastReportNanos) / 1e9, 1e-9);
+        lastReportNanos = now;
+        byOperation.values().forEach(Stats::rollInterval);
+        Histogram interval = all.rollInterval();
+        long ok = all.intervalSucceeded.sumThenReset();
+        long failed = all.intervalFailed.sumThenReset();
+        log.info("Interval: {} req/s, ok={}, failed={}, in-flight={}, latency ms {}",
+                String.format("%.1f", (ok + failed) / seconds), ok, failed, inFlight.get(),
+                LoadSummary.percentiles(interval));
+    }
+
+    static String millis(long micros) {
+        return String.format("%.2f", micros / 1000.0);
+    }
+
+    private static String failureReason(HttpResponse<String> response, Throwable error) {
+        if (error != null) {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            return cause.getClass().getSimpleName();
+        }
+        return response.statusCode() / 100 == 2 ? null : "HTTP " + response.statusCode();
+    }
+
+    /** Counters and latency of one operation (or of all of them). */
+    private static class Stats {
+        final Recorder recorder = new Recorder(3);
+        final Histogram total = new Histogram(3);
+        final LongAdder succeeded = new LongAdder();
+        final LongAdder intervalSucceeded = new LongAdder();
+        final LongAdder intervalFailed = new LongAdder();
+        final Map<String, LongAdder> failures = new ConcurrentHashMap<>();
+        Histogram interval;
+
+        void record(long latencyMicros, long expectedIntervalMicros, String failure) {
+            if (expectedIntervalMicros > 0) {
+                recorder.recordValueWithExpectedInterval(latencyMicros, expectedIntervalMicros);
+            } else {
+                recorder.recordValue(latencyMicros);
+            }
+            if (failure == null) {
+                succeeded.increment();
+                intervalSucceeded.increment();
+            } else {
+                failures.computeIfAbsent(failure, k -> new LongAdder()).increment();
+                intervalFailed.increment();
+            }
+        }
+
+        Histogram rollInterval() {
+            interval = recorder.getIntervalHistogram(interval);
+            total.add(interval);
+            return interval;
+        }
+
+        Result result(Duration elapsed, Map<String, Result> operations) {
+            Map<String, Long> failureCounts = new TreeMap<>();
+            failures.forEach((reason, n) -> failureCounts.put(reason, n.sum()));
+            long failed = failureCounts.values().stream().mapToLong(Long::longValue).sum();
+            return new Result(succeeded.sum(), failed, elapsed, failureCounts, total.copy(), operations);
+        }
+    }
+}
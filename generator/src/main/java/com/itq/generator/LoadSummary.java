@@ -0,0 +1,88 @@
+package com.itq.generator;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Machine-readable outcome of one run, written as JSON with a stable key order so that summaries
+ * of two builds can be diffed directly.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record LoadSummary(String mode, String profile, Instant startedAt, double targetRate, double rampToRate,
+                          int maxInFlight, long requests, long succeeded, long failed, long durationMs,
+                          double throughput, Map<String, Double> latencyMs, Map<String, Long> failures,
+                          Map<String, Operation> operations, Pipeline pipeline) {
+
+    public record Operation(long requests, long failed, double throughput, Map<String, Double> latencyMs) {
+    }
+
+    /** Stage latencies of documents created by the run, from their server-side timestamps. */
+    public record Pipeline(long tracked, long approved, long pending, double throughput,
+                           Map<String, Double> createdToSubmittedMs, Map<String, Double> submittedToApprovedMs,
+                           Map<String, Double> createdToApprovedMs) {
+    }
+
+    static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    public static LoadSummary of(GeneratorProperties props, int maxInFlight, Instant startedAt,
+                                 LoadRunner.Result result, PipelineTracker.Result pipeline) {
+        Map<String, Operation> operations = new LinkedHashMap<>();
+        result.operations().forEach((name, op) -> operations.put(name, new Operation(
+                op.succeeded() + op.failed(), op.failed(), round(op.throughput()), latencyMs(op.latency()))));
+        String profile = props.getMode() == GeneratorProperties.Mode.REPLAY ? null : props.getProfile();
+        return new LoadSummary(props.getMode().name(), profile, startedAt, props.getRate(),
+                props.getOpenLoop().getRampToRate(), maxInFlight,
+                result.succeeded() + result.failed(), result.succeeded(), result.failed(),
+                result.elapsed().toMillis(), round(result.throughput()),
+                latencyMs(result.latency()), result.failures(), operations,
+                pipeline == null ? null : new Pipeline(pipeline.tracked(), pipeline.approved(), pipeline.pending(),
+                        round(pipeline.throughput()), latencyMs(pipeline.toSubmitted()),
+                        latencyMs(pipeline.toApproved()), latencyMs(pipeline.total())));
+    }
+
+    static Map<String, Double> latencyMs(Histogram histogram) {
+        Map<String, Double> latency = new LinkedHashMap<>();
+        for (double p : PERCENTILES) {
+            latency.put(key(p), round(histogram.getValueAtPercentile(p) / 1000.0));
+        }
+        latency.put("max", round(histogram.getMaxValue() / 1000.0));
+        latency.put("mean", round(histogram.getMean() / 1000.0));
+        return latency;
+    }
+
+    /** The same percentiles as {@link #latencyMs} for log lines: {@code p50=1.20 p90=... max=...} in ms. */
+    static String percentiles(Histogram histogram) {
+        StringBuilder line = new StringBuilder();
+        for (double p : PERCENTILES) {
+            line.append(key(p)).append('=').append(LoadRunner.millis(histogram.getValueAtPercentile(p))).append(' ');
+        }
+        return line.append("max=").append(LoadRunner.millis(histogram.getMaxValue())).toString();
+    }
+
+    private static String key(double p) {
+        return "p" + (p == Math.rint(p) ? String.valueOf((long) p) : String.valueOf(p));
+    }
+
+    public void write(Path file, ObjectMapper objectMapper) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        objectMapper.copy()
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .writeValue(file.toFile(), this);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+}
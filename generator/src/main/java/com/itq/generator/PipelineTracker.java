@@ -0,0 +1,182 @@
+package com.itq.generator;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
+import java.util.stream.Collectors;
+
+/**
+ * Follows documents created by a run through SubmitWorker and ApproveWorker until they are APPROVED.
+ * Pending ids are looked up in batches ({@code GET /api/documents?ids=...&includeHistory=true}) every
+ * {@code pollInterval}; stage times are taken from the server's own {@code createdAt} and history
+ * {@code performedAt} timestamps, so the poll interval does not blur the measured latencies.
+ */
+@Slf4j
+public class PipelineTracker implements LongConsumer {
+
+    private final DocumentServiceClient client;
+    private final int lookupBatchSize;
+    private final Duration pollInterval;
+    private final Duration reportInterval;
+
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+    /** Pending ids whose created → SUBMIT stage is already recorded */
+    private final Set<Long> submitted = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "pipeline-poller");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Guarded by this
+    private final Histogram toSubmitted = new Histogram(3);
+    private final Histogram toApproved = new Histogram(3);
+    private final Histogram total = new Histogram(3);
+    private long tracked;
+    private long approved;
+    private OffsetDateTime firstApprovedAt;
+    private OffsetDateTime lastApprovedAt;
+    private long lastReportNanos = System.nanoTime();
+
+    public PipelineTracker(DocumentServiceClient client, int lookupBatchSize, Duration pollInterval,
+                           Duration reportInterval) {
+        this.client = client;
+        this.lookupBatchSize = lookupBatchSize;
+        this.pollInterval = pollInterval;
+        this.reportInterval = reportInterval;
+    }
+
+    /**
+     * Stage latencies in microseconds: created → SUBMIT, SUBMIT → APPROVE, created → APPROVE. Each stage is
+     * recorded when it completes, so {@code toSubmitted} also covers documents still SUBMITTED at the end.
+     *
+     * @param throughput approvals per second between the first and the last observed approval
+     */
+    public record Result(long tracked, long approved, long pending, Histogram toSubmitted, Histogram toApproved,
+                         Histogram total, double throughput) {
+    }
+
+    /** Starts tracking a newly created document. */
+    @Override
+    public void accept(long id) {
+        pending.add(id);
+        synchronized (this) {
+            tracked++;
+        }
+    }
+
+    public void start() {
+        poller.scheduleWithFixedDelay(this::pollSafely, pollInterval.toMillis(), pollInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    /** Waits until every tracked document is APPROVED or {@code timeout} passes, then stops polling. */
+    public Result awaitApproved(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (!pending.isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(pollInterval.toMillis());
+        }
+        poller.shutdownNow();
+        poller.awaitTermination(pollInterval.toMillis() + 10_000, TimeUnit.MILLISECONDS);
+        if (!pending.isEmpty()) {
+            log.warn("Pipeline: {} documents not APPROVED within {}s", pending.size(), timeout.toSeconds());
+        }
+        synchronized (this) {
+            double seconds = approved > 1
+                    ? Duration.between(firstApprovedAt, lastApprovedAt).toNanos() / 1e9
+                    : 0;
+            return new Result(tracked, approved, pending.size(), toSubmitted.copy(), toApproved.copy(),
+                    total.copy(), seconds > 0 ? approved / seconds : 0);
+        }
+    }
+
+    private void pollSafely() {
+        try {
+            poll();
+        } catch (RuntimeException e) {
+            log.warn("Pipeline poll failed: {}", e.getMessage());
+        }
+    }
+
+    private void poll() {
+        List<Long> snapshot = new ArrayList<>(pending);
+        for (int from = 0; from < snapshot.size(); from += lookupBatchSize) {
+            List<Long> batch = snapshot.subList(from, Math.min(from + lookupBatchSize, snapshot.size()));
+            HttpResponse<String> response = client.get("/api/documents?includeHistory=true&size=" + batch.size()
+                    + "&ids=" + batch.stream().map(String::valueOf).collect(Collectors.joining(","))).join();
+            if (response.statusCode() != 200) {
+                log.warn("Pipeline lookup failed: HTTP {}", response.statusCode());
+                continue;
+            }
+            for (JsonNode doc : client.readBody(response).path("content")) {
+                record(doc);
+            }
+        }
+        reportProgress();
+    }
+
+    private synchronized void record(JsonNode doc) {
+        String status = doc.path("status").asText();
+        if (!"SUBMITTED".equals(status) && !"APPROVED".equals(status)) {
+            return;
+        }
+        long id = doc.path("id").asLong();
+        OffsetDateTime createdAt = OffsetDateTime.parse(doc.path("createdAt").asText());
+        OffsetDateTime submittedAt = null;
+        OffsetDateTime approvedAt = null;
+        for (JsonNode entry : doc.path("history")) {
+            OffsetDateTime at = OffsetDateTime.parse(entry.path("performedAt").asText());
+            switch (entry.path("action").asText()) {
+                case "SUBMIT" -> submittedAt = at;
+                case "APPROVE" -> approvedAt = at;
+                default -> { }
+            }
+        }
+        if (submittedAt == null) {
+            return;
+        }
+        if (submitted.add(id)) {
+            toSubmitted.recordValue(micros(createdAt, submittedAt));
+        }
+        if (approvedAt == null) {
+            return;
+        }
+        toApproved.recordValue(micros(submittedAt, approvedAt));
+        total.recordValue(micros(createdAt, approvedAt));
+        approved++;
+        pending.remove(id);
+        submitted.remove(id);
+        if (firstApprovedAt == null || approvedAt.isBefore(firstApprovedAt)) {
+            firstApprovedAt = approvedAt;
+        }
+        if (lastApprovedAt == null || approvedAt.isAfter(lastApprovedAt)) {
+            lastApprovedAt = approvedAt;
+        }
+    }
+
+    private synchronized void reportProgress() {
+        long now = System.nanoTime();
+        if (now - lastReportNanos < reportInterval.toNanos()) {
+            return;
+        }
+        lastReportNanos = now;
+        log.info("Pipeline: tracked={}, approved={}, pending={}, created->approved ms {}",
+                tracked, approved, pending.size(), LoadSummary.percentiles(total));
+    }
+
+    private static long micros(OffsetDateTime from, OffsetDateTime to) {
+        return Math.max(0, Duration.between(from, to).toNanos() / 1000);
+    }
+}
@@ -0,0 +1,148 @@
+package com.itq.generator;
+
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.LongFunction;
+
+/**
+ * Re-issues the requests of an {@link AccessTrace}. GETs are sent exactly as recorded. Bodies are
+ * not part of a trace, so POSTs are rebuilt: creates get a generated document, batch creates get
+ * {@code items} of them, and submit/approve get {@code items} ids of documents the replay itself
+ * created (or submitted) earlier. Requests that cannot be rebuilt (bulk uploads, other methods)
+ * are left out. Every call is labelled {@code METHOD pattern}, so latency is reported per endpoint.
+ * <p>
+ * Recorded ids only resolve if the target database holds the same documents (restored dump or
+ * seed); otherwise lookups come back 404 and show up as failures of their endpoint.
+ */
+@Slf4j
+public class TraceReplay implements LongFunction<LoadRunner.Call> {
+
+    private static final String CREATE = "/api/documents";
+    private static final String BATCH_CREATE = "/api/documents/batch";
+    private static final String SUBMIT = "/api/documents/submit";
+    private static final String APPROVE = "/api/documents/approve";
+    private static final Set<String> REPLAYABLE_POSTS = Set.of(CREATE, BATCH_CREATE, SUBMIT, APPROVE);
+
+    private final DocumentServiceClient client;
+    private final String initiator;
+    private final List<AccessTrace.Request> requests;
+    private final Queue<Long> drafts = new ConcurrentLinkedQueue<>();
+    private final Queue<Long> submitted = new ConcurrentLinkedQueue<>();
+
+    public TraceReplay(DocumentServiceClient client, List<AccessTrace.Request> trace, String initiator) {
+        this.client = client;
+        this.initiator = initiator;
+        this.requests = new ArrayList<>(trace.size());
+        Map<String, Integer> skipped = new TreeMap<>();
+        for (AccessTrace.Request request : trace) {
+            if ("GET".equals(request.method())
+                    || "POST".equals(request.method()) && REPLAYABLE_POSTS.contains(request.endpoint())) {
+                requests.add(request);
+            } else {
+                skipped.merge(label(request), 1, Integer::sum);
+            }
+        }
+        skipped.forEach((endpoint, n) -> log.warn("Replay: skipping {} x{} (cannot be rebuilt without a body)",
+                endpoint, n));
+    }
+
+    public int size() {
+        return requests.size();
+    }
+
+    /** Offsets of the requests from the first one, in nanoseconds at original speed. */
+    public long[] offsetsNanos() {
+        long[] offsets = new long[requests.size()];
+        long first = requests.isEmpty() ? 0 : requests.get(0).epochMicros();
+        for (int i = 0; i < offsets.length; i++) {
+            offsets[i] = (requests.get(i).epochMicros() - first) * 1000;
+        }
+        return offsets;
+    }
+
+    /** Server-side durations as recorded in the trace, in microseconds, per endpoint. */
+    public Map<String, Histogram> recordedLatency() {
+        Map<String, Histogram> latency = new TreeMap<>();
+        for (AccessTrace.Request request : requests) {
+            latency.computeIfAbsent(label(request), k -> new Histogram(3)).recordValue(request.durationMicros());
+        }
+        return latency;
+    }
+
+    @Override
+    public LoadRunner.Call apply(long i) {
+        AccessTrace.Request request = requests.get((int) i);
+        return new LoadRunner.Call(label(request), switch (request.method()) {
+            case "GET" -> client.get(request.uri());
+            default -> switch (request.endpoint()) {
+                case CREATE -> create(i);
+                case BATCH_CREATE -> batchCreate(i, Math.max(request.items(), 1));
+                case SUBMIT -> changeStatus(SUBMIT, drafts, submitted, Math.max(request.items(), 1));
+                default -> changeStatus(APPROVE, submitted, null, Math.max(request.items(), 1));
+            };
+        });
+    }
+
+    private CompletableFuture<HttpResponse<String>> create(long i) {
+        return client.createDocument(initiator, "Replayed Document #" + (i + 1))
+                .thenApply(response -> {
+                    if (response.statusCode() / 100 == 2) {
+                        drafts.add(client.readBody(response).path("id").asLong());
+                    }
+                    return response;
+                });
+    }
+
+    private CompletableFuture<HttpResponse<String>> batchCreate(long i, int items) {
+        List<Map<String, String>> documents = new ArrayList<>(items);
+        for (int n = 0; n < items; n++) {
+            documents.add(Map.of("author", initiator, "title", "Replayed Document #" + (i + 1) + "." + (n + 1)));
+        }
+        return client.post(BATCH_CREATE, Map.of("documents", documents))
+                .thenApply(response -> {
+                    if (response.statusCode() / 100 == 2) {
+                        client.readBody(response).forEach(result -> {
+                            if (result.hasNonNull("document")) {
+                                drafts.add(result.path("document").path("id").asLong());
+                            }
+                        });
+                    }
+                    return response;
+                });
+    }
+
+    /** Takes the oldest {@code items} ids from {@code source}; an empty batch is sent (and rejected) if none. */
+    private CompletableFuture<HttpResponse<String>> changeStatus(String path, Queue<Long> source, Queue<Long> target,
+                                                                 int items) {
+        List<Long> batch = new ArrayList<>(items);
+        Long id;
+        while (batch.size() < items && (id = source.poll()) != null) {
+            batch.add(id);
+        }
+        return client.post(path, Map.of("ids", batch, "initiator", initiator))
+                .thenApply(response -> {
+                    if (target != null && response.statusCode() / 100 == 2) {
+                        client.readBody(response).forEach(result -> {
+                            if ("SUCCESS".equals(result.path("result").asText())) {
+                                target.add(result.path("id").asLong());
+                            }
+                        });
+                    }
+                    return response;
+                });
+    }
+
+    private static String label(AccessTrace.Request request) {
+        return request.method() + " " + request.endpoint();
+    }
+}
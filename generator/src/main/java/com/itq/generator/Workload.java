@@ -0,0 +1,209 @@
+package com.itq.generator;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.itq.generator.WorkloadProfile.Operation;
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.URLEncoder;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongConsumer;
+import java.util.function.LongFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Turns a {@link WorkloadProfile} into a stream of calls: picks an operation by weight, fills in its
+ * parameters and learns document ids from the responses. Ids created by the run feed SUBMIT, ids it
+ * submitted feed APPROVE, and every known id feeds the Zipf-skewed reads.
+ */
+@Slf4j
+public class Workload implements LongFunction<LoadRunner.Call> {
+
+    private static final String[] STATUSES = {"DRAFT", "SUBMITTED", "APPROVED"};
+
+    private final DocumentServiceClient client;
+    private final WorkloadProfile profile;
+    private final String initiator;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private final IdPool ids;
+    private final Queue<Long> drafts = new ConcurrentLinkedQueue<>();
+    private final Queue<Long> submitted = new ConcurrentLinkedQueue<>();
+    private LongConsumer createdListener = id -> { };
+
+    public Workload(DocumentServiceClient client, WorkloadProfile profile, String initiator) {
+        this.client = client;
+        this.profile = profile;
+        this.initiator = initiator;
+        this.ids = new IdPool(profile.getZipfExponent());
+
+        Map<Operation, Integer> mix = profile.getOperations().isEmpty()
+                ? Map.of(Operation.CREATE, 1)
+                : profile.getOperations();
+        List<Map.Entry<Operation, Integer>> weighted = mix.entrySet().stream()
+                .filter(e -> e.getValue() > 0)
+                .toList();
+        if (weighted.isEmpty()) {
+            throw new IllegalArgumentException("Workload profile has no operation with a positive weight");
+        }
+        this.operations = new Operation[weighted.size()];
+        this.cumulativeWeights = new int[weighted.size()];
+        int sum = 0;
+        for (int i = 0; i < weighted.size(); i++) {
+            operations[i] = weighted.get(i).getKey();
+            sum += weighted.get(i).getValue();
+            cumulativeWeights[i] = sum;
+        }
+    }
+
+    /** Called with the id of every document this workload creates. */
+    public void onCreated(LongConsumer listener) {
+        this.createdListener = listener;
+    }
+
+    /** Pages through the newest documents until {@code preloadIds} ids are known (or none are left). */
+    public void preload() {
+        int wanted = profile.getPreloadIds();
+        int pageSize = Math.min(wanted, 1000);
+        for (int page = 0; ids.size() < wanted; page++) {
+            HttpResponse<String> response = client
+                    .get("/api/documents/search?size=" + pageSize + "&page=" + page + "&sort=createdAt,desc")
+                    .join();
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Preload failed: HTTP " + response.statusCode());
+            }
+            JsonNode content = client.readBody(response).path("content");
+            content.forEach(doc -> ids.add(doc.path("id").asLong()));
+            if (content.size() < pageSize) {
+                break;
+            }
+        }
+        log.info("Preloaded {} document ids", ids.size());
+    }
+
+    @Override
+    public LoadRunner.Call apply(long i) {
+        Random random = ThreadLocalRandom.current();
+        Operation operation = pickOperation(random);
+        // Reads need a known id; until one exists, create instead
+        if (operation != Operation.CREATE && operation != Operation.SEARCH && operation != Operation.STATS
+                && ids.size() == 0) {
+            operation = Operation.CREATE;
+        }
+        return new LoadRunner.Call(operation.name(), switch (operation) {
+            case CREATE -> create(i, random);
+            case GET -> client.get("/api/documents/" + ids.pick(random));
+            case HISTORY -> client.get("/api/documents/" + ids.pick(random) + "/history");
+            case LIST -> client.get("/api/documents?ids=" + join(pickIds(random, profile.getListSize())));
+            case SEARCH -> client.get("/api/documents/search?" + searchQuery(random));
+            case SUBMIT -> changeStatus("/api/documents/submit", drafts, submitted, random);
+            case APPROVE -> changeStatus("/api/documents/approve", submitted, null, random);
+            case STATS -> client.get("/api/documents/stats?groupBy=STATUS");
+        });
+    }
+
+    private Operation pickOperation(Random random) {
+        int r = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (r < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    private CompletableFuture<HttpResponse<String>> create(long i, Random random) {
+        return client.createDocument(author(random), "Generated Document #" + (i + 1))
+                .thenApply(response -> {
+                    if (response.statusCode() / 100 == 2) {
+                        long id = client.readBody(response).path("id").asLong();
+                        ids.add(id);
+                        drafts.add(id);
+                        createdListener.accept(id);
+                    }
+                    return response;
+                });
+    }
+
+    /** Takes the oldest ids from {@code source}; falls back to skewed picks when the run has none yet. */
+    private CompletableFuture<HttpResponse<String>> changeStatus(
+            String path, Queue<Long> source, Queue<Long> target, Random random) {
+        int size = between(random, profile.getBatchSize());
+        List<Long> batch = new ArrayList<>(size);
+        Long id;
+        while (batch.size() < size && (id = source.poll()) != null) {
+            batch.add(id);
+        }
+        if (batch.isEmpty()) {
+            batch.addAll(pickIds(random, profile.getBatchSize()));
+        }
+        return client.post(path, Map.of("ids", batch, "initiator", initiator))
+                .thenApply(response -> {
+                    if (target != null && response.statusCode() / 100 == 2) {
+                        client.readBody(response).forEach(result -> {
+                            if ("SUCCESS".equals(result.path("result").asText())) {
+                                target.add(result.path("id").asLong());
+                            }
+                        });
+                    }
+                    return response;
+                });
+    }
+
+    private String searchQuery(Random random) {
+        WorkloadProfile.Search search = profile.getSearch();
+        StringJoiner query = new StringJoiner("&");
+        query.add("size=" + search.getPageSize());
+        if (random.nextDouble() < search.getStatus()) {
+            query.add("status=" + STATUSES[random.nextInt(STATUSES.length)]);
+        }
+        if (random.nextDouble() < search.getAuthor()) {
+            query.add("author=" + encode(author(random)));
+        }
+        if (random.nextDouble() < search.getDateRange()) {
+            OffsetDateTime to = OffsetDateTime.now(ZoneOffset.UTC);
+            query.add("from=" + encode(to.minusDays(search.getDateRangeDays()).toString()));
+            query.add("to=" + encode(to.toString()));
+        }
+        if (random.nextDouble() < search.getText() && !search.getTextTerms().isEmpty()) {
+            query.add("q=" + encode(search.getTextTerms().get(random.nextInt(search.getTextTerms().size()))));
+        } else {
+            query.add("sort=createdAt,desc");
+        }
+        return query.toString();
+    }
+
+    private List<Long> pickIds(Random random, WorkloadProfile.Range range) {
+        int size = between(random, range);
+        Set<Long> picked = new LinkedHashSet<>();
+        for (int attempt = 0; picked.size() < size && attempt < size * 4; attempt++) {
+            Long id = ids.pick(random);
+            if (id != null) {
+                picked.add(id);
+            }
+        }
+        return new ArrayList<>(picked);
+    }
+
+    private String author(Random random) {
+        return profile.getAuthors() > 0 ? "author-" + random.nextInt(profile.getAuthors()) : initiator;
+    }
+
+    private static int between(Random random, WorkloadProfile.Range range) {
+        return range.getMin() + random.nextInt(Math.max(range.getMax() - range.getMin(), 0) + 1);
+    }
+
+    private static String join(List<Long> values) {
+        return values.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
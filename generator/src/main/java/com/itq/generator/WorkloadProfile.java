@@ -0,0 +1,76 @@
+package com.itq.generator;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Declarative mix of API calls, bound from {@code generator.profiles.<name>}.
+ */
+@Data
+public class WorkloadProfile {
+
+    public enum Operation {
+        /** POST /api/documents */
+        CREATE,
+        /** GET /api/documents/{id} */
+        GET,
+        /** GET /api/documents/{id}/history */
+        HISTORY,
+        /** GET /api/documents?ids=... */
+        LIST,
+        /** GET /api/documents/search */
+        SEARCH,
+        /** POST /api/documents/submit, oldest documents created by this run first */
+        SUBMIT,
+        /** POST /api/documents/approve, oldest documents submitted by this run first */
+        APPROVE,
+        /** GET /api/documents/stats */
+        STATS
+    }
+
+    /** Relative weight of each operation; operations left out are never issued. Empty = CREATE only. */
+    private Map<Operation, Integer> operations = new EnumMap<>(Operation.class);
+
+    /** Distinct authors used for creates and author filters ("author-0".."author-N-1"); 0 = generator.initiator. */
+    private int authors;
+
+    /** Existing document ids fetched before the run, so reads have keys to hit from the start. */
+    private int preloadIds;
+
+    /** Skew of id choice for GET/HISTORY/LIST: rank r is picked with probability ~ 1/r^s; 0 = uniform. */
+    private double zipfExponent = 1.0;
+
+    private Range batchSize = new Range(1, 50);
+    private Range listSize = new Range(1, 20);
+    private Search search = new Search();
+
+    @Data
+    public static class Range {
+        private int min;
+        private int max;
+
+        public Range() {
+        }
+
+        public Range(int min, int max) {
+            this.min = min;
+            this.max = max;
+        }
+    }
+
+    /** Each filter is added independently with the given probability. */
+    @Data
+    public static class Search {
+        private double status = 0.5;
+        private double author = 0.3;
+        private double dateRange = 0.2;
+        private int dateRangeDays = 30;
+        private double text = 0.1;
+        private List<String> textTerms = new ArrayList<>(List.of("report", "contract", "invoice"));
+        private int pageSize = 20;
+    }
+}
@@ -0,0 +1,103 @@
+package com.itq.generator;
+
+import com.itq.docservice.trace.AccessTraceWriter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AccessTraceTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void formatConstants_matchTheServiceWriter() {
+        assertThat(AccessTrace.MAGIC).isEqualTo(AccessTraceWriter.MAGIC);
+        assertThat(AccessTrace.VERSION).isEqualTo(AccessTraceWriter.VERSION);
+        assertThat(AccessTrace.END).isEqualTo(AccessTraceWriter.END);
+        assertThat(AccessTrace.ENDPOINT).isEqualTo(AccessTraceWriter.ENDPOINT);
+        assertThat(AccessTrace.REQUEST).isEqualTo(AccessTraceWriter.REQUEST);
+        assertThat(AccessTrace.METHODS).isEqualTo(AccessTraceWriter.METHODS);
+        assertThat(AccessTrace.FILE_PREFIX).isEqualTo(AccessTraceWriter.FILE_PREFIX);
+        assertThat(AccessTrace.FILE_SUFFIX).isEqualTo(AccessTraceWriter.FILE_SUFFIX);
+    }
+
+    @Test
+    void readsBackWhatTheServiceWrote() throws IOException {
+        List<AccessTrace.Request> written = List.of(
+                new AccessTrace.Request(1_700_000_000_000_002L, 1_500, 200, "GET", "/api/documents/{id}",
+                        "/api/documents/7?includeHistory=true", -1),
+                // Completed before the GET above although it arrived later: the reader restores arrival order
+                new AccessTrace.Request(1_700_000_000_000_001L, 48_000, 200, "POST", "/api/documents/submit",
+                        "/api/documents/submit", 25),
+                new AccessTrace.Request(1_700_000_000_000_003L, 900, 404, "GET", "/api/documents/{id}",
+                        "/api/documents/8", -1),
+                new AccessTrace.Request(1_700_000_000_000_004L, 2_000, 500, "DELETE", "unmatched",
+                        "/api/documents/search?author=Ёлкин", -1));
+
+        try (AccessTraceWriter writer = new AccessTraceWriter(dir, 4096, 4)) {
+            written.forEach(r -> writer.append(r.epochMicros(), r.durationMicros(), r.status(), r.method(),
+                    r.endpoint(), r.uri(), r.items()));
+        }
+
+        assertThat(AccessTrace.read(dir))
+                .containsExactlyElementsOf(written.stream()
+                        .sorted(Comparator.comparingLong(AccessTrace.Request::epochMicros))
+                        .toList());
+    }
+
+    @Test
+    void unknownMethod_isReadAsOther() throws IOException {
+        try (AccessTraceWriter writer = new AccessTraceWriter(dir, 4096, 1)) {
+            writer.append(1, 10, 200, "HEAD", "/api/documents/{id}", "/api/documents/1", -1);
+        }
+
+        assertThat(AccessTrace.read(dir)).singleElement()
+                .extracting(AccessTrace.Request::method).isEqualTo("OTHER");
+    }
+
+    @Test
+    void readsEverySegmentAfterRotation_eachWithItsOwnEndpointTable() throws IOException {
+        List<AccessTrace.Request> written = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            written.add(new AccessTrace.Request(1_000 + i, i, 200, i % 2 == 0 ? "GET" : "POST",
+                    i % 2 == 0 ? "/api/documents/{id}" : "/api/documents/approve",
+                    i % 2 == 0 ? "/api/documents/" + i : "/api/documents/approve", i % 2 == 0 ? -1 : i));
+        }
+        try (AccessTraceWriter writer = new AccessTraceWriter(dir, 4096, 100)) {
+            written.forEach(r -> writer.append(r.epochMicros(), r.durationMicros(), r.status(), r.method(),
+                    r.endpoint(), r.uri(), r.items()));
+            assertThat(writer.dropped()).isZero();
+        }
+
+        assertThat(segments()).hasSizeGreaterThan(1);
+        assertThat(AccessTrace.read(dir)).containsExactlyElementsOf(written);
+        // A single retained segment is self-contained
+        assertThat(AccessTrace.read(segments().get(segments().size() - 1))).isNotEmpty()
+                .allSatisfy(r -> assertThat(r.endpoint()).isNotNull());
+    }
+
+    @Test
+    void rejectsFilesThatAreNotTraces() throws IOException {
+        Path file = Files.writeString(dir.resolve("access-trace-0.bin"), "not a trace");
+
+        assertThatThrownBy(() -> AccessTrace.read(file)).isInstanceOf(IOException.class)
+                .hasMessageContaining("not an access trace segment");
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.sorted().toList();
+        }
+    }
+}
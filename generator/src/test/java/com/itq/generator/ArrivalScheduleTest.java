@@ -0,0 +1,81 @@
+package com.itq.generator;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class ArrivalScheduleTest {
+
+    // ── constant ──────────────────────────────────────────────────────────────
+
+    @Test
+    void constant_spacesArrivalsEvenlyWithoutEnd() {
+        ArrivalSchedule schedule = ArrivalSchedule.constant(100);
+
+        assertThat(schedule.offsetNanos(0)).isZero();
+        assertThat(schedule.offsetNanos(1)).isEqualTo(10_000_000);
+        assertThat(schedule.offsetNanos(1_000_000)).isEqualTo(10_000_000_000_000L);
+        assertThat(schedule.intervalNanos(0)).isEqualTo(10_000_000);
+    }
+
+    // ── ramp ──────────────────────────────────────────────────────────────────
+
+    @Test
+    void ramp_up_sendsTheIntegralOfTheRateAndThenEnds() {
+        // 10 -> 30 req/s over 10 s: 10 * 10 + (30 - 10) * 10 / 2 = 200 arrivals
+        ArrivalSchedule schedule = ArrivalSchedule.ramp(10, 30, Duration.ofSeconds(10));
+
+        assertThat(schedule.offsetNanos(0)).isZero();
+        assertThat(schedule.offsetNanos(200)).isEqualTo(10_000_000_000L);
+        assertThat(schedule.offsetNanos(201)).isEqualTo(ArrivalSchedule.END);
+        // Half of the arrivals need more than half of the time while the rate is still low
+        assertThat(schedule.offsetNanos(100) / 1e9).isCloseTo((Math.sqrt(500) - 10) / 2, within(1e-6));
+    }
+
+    @Test
+    void ramp_down_isTheMirrorImage() {
+        ArrivalSchedule schedule = ArrivalSchedule.ramp(30, 10, Duration.ofSeconds(10));
+
+        assertThat(schedule.offsetNanos(200)).isEqualTo(10_000_000_000L);
+        assertThat(schedule.offsetNanos(201)).isEqualTo(ArrivalSchedule.END);
+        assertThat(schedule.offsetNanos(100)).isLessThan(5_000_000_000L);
+    }
+
+    @Test
+    void ramp_offsetsIncreaseAndIntervalFollowsTheRate() {
+        ArrivalSchedule schedule = ArrivalSchedule.ramp(10, 30, Duration.ofSeconds(10));
+
+        long previous = -1;
+        for (int i = 0; i <= 200; i++) {
+            long offset = schedule.offsetNanos(i);
+            assertThat(offset).isGreaterThan(previous);
+            previous = offset;
+        }
+        assertThat(schedule.intervalNanos(0)).isEqualTo(100_000_000);
+        assertThat(schedule.intervalNanos(5_000_000_000L)).isEqualTo(50_000_000);
+        assertThat(schedule.intervalNanos(10_000_000_000L)).isEqualTo(33_333_333);
+    }
+
+    @Test
+    void ramp_rejectsNonPositiveRates() {
+        assertThatThrownBy(() -> ArrivalSchedule.ramp(0, 10, Duration.ofSeconds(1)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ArrivalSchedule.ramp(10, -1, Duration.ofSeconds(1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // ── unpaced ───────────────────────────────────────────────────────────────
+
+    @Test
+    void unpaced_makesEveryRequestDueImmediately() {
+        ArrivalSchedule schedule = ArrivalSchedule.unpaced();
+
+        assertThat(schedule.offsetNanos(0)).isZero();
+        assertThat(schedule.offsetNanos(1_000)).isZero();
+        assertThat(schedule.intervalNanos(1_000)).isZero();
+    }
+}
@@ -0,0 +1,85 @@
+package com.itq.generator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class IdPoolTest {
+
+    private static final int SAMPLES = 100_000;
+
+    @Test
+    void pick_returnsNullWhileEmptyAndOnlyKnownIds() {
+        IdPool pool = new IdPool(1.0);
+        Random random = new Random(42);
+
+        assertThat(pool.pick(random)).isNull();
+
+        pool.add(7L);
+        pool.add(9L);
+        for (int i = 0; i < 100; i++) {
+            assertThat(pool.pick(random)).isIn(7L, 9L);
+        }
+        assertThat(pool.size()).isEqualTo(2);
+    }
+
+    @Test
+    void rank_staysWithinThePoolForEveryExponent() {
+        for (double exponent : new double[] {0, 0.5, 1, 1.2, 2}) {
+            IdPool pool = new IdPool(exponent);
+            for (int n : new int[] {1, 2, 10, 1000}) {
+                assertThat(pool.rank(n, 0.0)).isZero();
+                assertThat(pool.rank(n, Math.nextDown(1.0))).isEqualTo(n - 1);
+                for (int i = 0; i < 1000; i++) {
+                    assertThat(pool.rank(n, i / 1000.0)).isBetween(0, n - 1);
+                }
+            }
+        }
+    }
+
+    @Test
+    void exponentZero_isUniform() {
+        int[] counts = histogram(new IdPool(0), 10);
+
+        for (int count : counts) {
+            assertThat(count).isEqualTo(SAMPLES / 10);
+        }
+    }
+
+    @Test
+    void exponentOne_followsThePowerLaw() {
+        int n = 1000;
+        int[] counts = histogram(new IdPool(1.0), n);
+
+        // Continuous inverse CDF: P(rank r) = ln((r + 1) / r) / ln(n + 1), 1-based
+        for (int r = 1; r <= 10; r++) {
+            double expected = Math.log((r + 1.0) / r) / Math.log(n + 1);
+            assertThat(counts[r - 1] / (double) SAMPLES).isCloseTo(expected, within(0.001));
+        }
+        for (int r = 1; r < 10; r++) {
+            assertThat(counts[r - 1]).isGreaterThan(counts[r]);
+        }
+    }
+
+    @Test
+    void higherExponent_concentratesOnTheHead() {
+        int n = 1000;
+        int[] mild = histogram(new IdPool(0.5), n);
+        int[] steep = histogram(new IdPool(2.0), n);
+
+        assertThat(steep[0]).isGreaterThan(SAMPLES / 2);
+        assertThat(steep[0]).isGreaterThan(mild[0] * 10);
+    }
+
+    /** Ranks for evenly spaced u in [0, 1), so the counts are deterministic. */
+    private static int[] histogram(IdPool pool, int n) {
+        int[] counts = new int[n];
+        for (int i = 0; i < SAMPLES; i++) {
+            counts[pool.rank(n, (i + 0.5) / SAMPLES)]++;
+        }
+        return counts;
+    }
+}
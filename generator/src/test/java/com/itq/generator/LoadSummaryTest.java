@@ -0,0 +1,36 @@
+package com.itq.generator;
+
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoadSummaryTest {
+
+    @Test
+    void logLineAndJson_reportTheSamePercentiles() {
+        Locale previous = Locale.getDefault();
+        Locale.setDefault(Locale.ROOT);
+        try {
+            Histogram histogram = new Histogram(3);
+            for (int micros = 1; micros <= 10_000; micros++) {
+                histogram.recordValue(micros);
+            }
+
+            Map<String, Double> json = LoadSummary.latencyMs(histogram);
+            String expected = json.entrySet().stream()
+                    .filter(e -> !e.getKey().equals("mean"))
+                    .map(e -> e.getKey() + "=" + String.format("%.2f", e.getValue()))
+                    .collect(Collectors.joining(" "));
+
+            assertThat(json).containsOnlyKeys("p50", "p90", "p99", "p99.9", "max", "mean");
+            assertThat(LoadSummary.percentiles(histogram)).isEqualTo(expected);
+        } finally {
+            Locale.setDefault(previous);
+        }
+    }
+}
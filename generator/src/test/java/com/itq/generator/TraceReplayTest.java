@@ -0,0 +1,64 @@
+package com.itq.generator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class TraceReplayTest {
+
+    private final DocumentServiceClient client = mock(DocumentServiceClient.class);
+
+    @Test
+    void keepsGetsAndRebuildablePosts_only() {
+        TraceReplay replay = new TraceReplay(client, List.of(
+                request(0, "GET", "/api/documents/{id}"),
+                request(1, "POST", "/api/documents/submit"),
+                request(2, "POST", "/api/documents/bulk"),
+                request(3, "DELETE", "/api/documents/{id}"),
+                request(4, "POST", "/api/documents/batch")), "replay");
+
+        assertThat(replay.size()).isEqualTo(3);
+        assertThat(replay.recordedLatency()).containsOnlyKeys(
+                "GET /api/documents/{id}", "POST /api/documents/submit", "POST /api/documents/batch");
+    }
+
+    @Test
+    void offsets_areRelativeToTheFirstRequest() {
+        TraceReplay replay = new TraceReplay(client, List.of(
+                request(5_000_000, "GET", "/api/documents/{id}"),
+                request(5_000_250, "GET", "/api/documents/{id}"),
+                request(6_000_000, "GET", "/api/documents/{id}")), "replay");
+
+        assertThat(replay.offsetsNanos()).containsExactly(0, 250_000, 1_000_000_000);
+    }
+
+    @Test
+    void recordedSchedule_compressesTimingBySpeed() {
+        long[] offsets = {0, 250_000, 1_000_000_000};
+
+        ArrivalSchedule original = ArrivalSchedule.recorded(offsets, 1);
+        ArrivalSchedule tenTimes = ArrivalSchedule.recorded(offsets, 10);
+        ArrivalSchedule half = ArrivalSchedule.recorded(offsets, 0.5);
+
+        assertThat(original.offsetNanos(2)).isEqualTo(1_000_000_000);
+        assertThat(tenTimes.offsetNanos(1)).isEqualTo(25_000);
+        assertThat(tenTimes.offsetNanos(2)).isEqualTo(100_000_000);
+        assertThat(half.offsetNanos(2)).isEqualTo(2_000_000_000);
+        assertThat(tenTimes.offsetNanos(3)).isEqualTo(ArrivalSchedule.END);
+        assertThat(tenTimes.intervalNanos(0)).isZero();
+    }
+
+    @Test
+    void recordedSchedule_rejectsNonPositiveSpeed() {
+        assertThatThrownBy(() -> ArrivalSchedule.recorded(new long[] {0}, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static AccessTrace.Request request(long epochMicros, String method, String endpoint) {
+        return new AccessTrace.Request(epochMicros, 1_000, 200, method, endpoint, endpoint, 1);
+    }
+}
@@ -0,0 +1,36 @@
+package com.itq.docservice.config;
+
+import com.itq.docservice.trace.AccessTraceFilter;
+import com.itq.docservice.trace.AccessTraceWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Records an access trace of {@code /api/*} for later replay by the generator; off unless
+ * {@code app.trace.enabled=true}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.trace.enabled", havingValue = "true")
+public class AccessTraceConfig {
+
+    @Bean(destroyMethod = "close")
+    public AccessTraceWriter accessTraceWriter(
+            @Value("${app.trace.directory:access-trace}") String directory,
+            @Value("${app.trace.segment-size-mb:64}") int segmentSizeMb,
+            @Value("${app.trace.max-segments:8}") int maxSegments) throws IOException {
+        return new AccessTraceWriter(Path.of(directory), segmentSizeMb * 1024 * 1024, maxSegments);
+    }
+
+    @Bean
+    public FilterRegistrationBean<AccessTraceFilter> accessTraceFilter(AccessTraceWriter writer) {
+        FilterRegistrationBean<AccessTraceFilter> registration = new FilterRegistrationBean<>(new AccessTraceFilter(writer));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+}
@@ -0,0 +1,35 @@
+package com.itq.docservice.config;
+
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import com.itq.docservice.dto.DocumentId;
+
+import java.util.List;
+
+/**
+ * Writes {@link DocumentId} properties as JSON strings. Snowflake ids are far above 2^53, so a JavaScript
+ * client parsing them as numbers would silently round them. Reading stays lenient: Jackson accepts both
+ * {@code 123} and {@code "123"} for a {@code Long}, so clients can send the string back unchanged.
+ */
+public class DocumentIdJsonModule extends SimpleModule {
+
+    public DocumentIdJsonModule() {
+        super("document-ids-as-strings");
+        setSerializerModifier(new BeanSerializerModifier() {
+            @Override
+            public List<BeanPropertyWriter> changeProperties(SerializationConfig config, BeanDescription description,
+                                                             List<BeanPropertyWriter> properties) {
+                for (BeanPropertyWriter property : properties) {
+                    if (property.getAnnotation(DocumentId.class) != null) {
+                        property.assignSerializer(ToStringSerializer.instance);
+                    }
+                }
+                return properties;
+            }
+        });
+    }
+}
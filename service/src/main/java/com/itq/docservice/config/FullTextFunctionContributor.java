@@ -0,0 +1,26 @@
+package com.itq.docservice.config;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.BasicTypeRegistry;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Exposes PostgreSQL full-text operators to JPQL/Criteria. The match is rendered with the
+ * {@code @@} operator itself (not a wrapper function) so the planner can use the GIN index.
+ * Registered via META-INF/services.
+ */
+public class FullTextFunctionContributor implements FunctionContributor {
+
+    public static final String MATCH = "fts_match";
+    public static final String RANK = "fts_rank";
+
+    @Override
+    public void contributeFunctions(FunctionContributions contributions) {
+        BasicTypeRegistry types = contributions.getTypeConfiguration().getBasicTypeRegistry();
+        contributions.getFunctionRegistry().registerPattern(
+                MATCH, "(?1 @@ websearch_to_tsquery('simple', ?2))", types.resolve(StandardBasicTypes.BOOLEAN));
+        contributions.getFunctionRegistry().registerPattern(
+                RANK, "ts_rank(?1, websearch_to_tsquery('simple', ?2))", types.resolve(StandardBasicTypes.DOUBLE));
+    }
+}
@@ -0,0 +1,33 @@
+package com.itq.docservice.config;
+
+import com.itq.docservice.monitoring.JdbcObserver;
+import com.itq.docservice.monitoring.ObservedDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Routes the DataSource through {@link ObservedDataSource} when at least one {@link JdbcObserver} bean
+ * exists (slow-query capture and the like); otherwise the pool is used as is, with no proxy overhead.
+ */
+@Configuration(proxyBeanMethods = false)
+public class JdbcObservationConfig {
+
+    @Bean
+    static BeanPostProcessor observedDataSourcePostProcessor(ObjectProvider<JdbcObserver> observers) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ObservedDataSource) {
+                    return bean;
+                }
+                List<JdbcObserver> registered = observers.orderedStream().toList();
+                return registered.isEmpty() ? bean : new ObservedDataSource(dataSource, registered);
+            }
+        };
+    }
+}
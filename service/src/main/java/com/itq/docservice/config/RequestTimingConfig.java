@@ -0,0 +1,37 @@
+package com.itq.docservice.config;
+
+import com.itq.docservice.monitoring.JdbcObserver;
+import com.itq.docservice.monitoring.RequestTimingFilter;
+import com.itq.docservice.monitoring.RequestTimingObserver;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Per-request DB time, statement count and connection waits in a {@code Server-Timing} header and an
+ * access log line; off unless {@code app.request-timing.enabled=true}. When off, requests are not timed
+ * and the DataSource is not proxied on its account.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.request-timing.enabled", havingValue = "true")
+public class RequestTimingConfig {
+
+    @Bean
+    public JdbcObserver requestTimingObserver() {
+        return new RequestTimingObserver();
+    }
+
+    @Bean
+    public FilterRegistrationBean<RequestTimingFilter> requestTimingFilter(
+            @Value("${app.request-timing.access-log:true}") boolean accessLog) {
+        FilterRegistrationBean<RequestTimingFilter> registration =
+                new FilterRegistrationBean<>(new RequestTimingFilter(accessLog));
+        registration.addUrlPatterns("/api/*");
+        // Outermost, so that the time spent in other filters is part of the total
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,29 @@
+package com.itq.docservice.config;
+
+import com.itq.docservice.monitoring.SlowQueryLog;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Captures statements slower than {@code app.slow-query.threshold-ms} with their EXPLAIN plans;
+ * off unless {@code app.slow-query.enabled=true}. Entries are served by {@code /api/admin/slow-queries}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.slow-query.enabled", havingValue = "true")
+public class SlowQueryConfig {
+
+    @Bean
+    public SlowQueryLog slowQueryLog(
+            @Value("${app.slow-query.threshold-ms:200}") long thresholdMs,
+            @Value("${app.slow-query.capacity:100}") int capacity,
+            @Value("${app.slow-query.explain:true}") boolean explain,
+            @Value("${app.slow-query.analyze-sample-rate:0.0}") double analyzeSampleRate,
+            @Value("${app.slow-query.explain-cooldown-s:60}") long explainCooldownS) {
+        return new SlowQueryLog(Duration.ofMillis(thresholdMs), capacity, explain, analyzeSampleRate,
+                Duration.ofSeconds(explainCooldownS));
+    }
+}
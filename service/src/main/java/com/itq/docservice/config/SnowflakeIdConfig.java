@@ -0,0 +1,38 @@
+package com.itq.docservice.config;
+
+import com.itq.docservice.entity.SnowflakeIdGenerator;
+import com.itq.docservice.entity.SnowflakeSequence;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * With {@code app.ids.snowflake.enabled=true}, creates the one {@link SnowflakeSequence} of this instance and
+ * hands it to {@link SnowflakeIdGenerator}, which Hibernate instantiates itself and which therefore only sees
+ * the session factory settings. The bulk insert path draws from the same bean: two sequences with the same
+ * node id would issue colliding ids. Document ids are then also written to JSON as strings.
+ */
+@Configuration
+public class SnowflakeIdConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "app.ids.snowflake.enabled", havingValue = "true")
+    public SnowflakeSequence snowflakeSequence(@Value("${app.ids.snowflake.node-id:0}") int nodeId) {
+        return new SnowflakeSequence(nodeId);
+    }
+
+    /** Picked up by Spring Boot's Jackson auto-configuration; see {@link DocumentIdJsonModule}. */
+    @Bean
+    @ConditionalOnProperty(name = "app.ids.snowflake.enabled", havingValue = "true")
+    public DocumentIdJsonModule documentIdJsonModule() {
+        return new DocumentIdJsonModule();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer snowflakeIdProperties(ObjectProvider<SnowflakeSequence> sequence) {
+        return properties -> sequence.ifAvailable(s -> properties.put(SnowflakeIdGenerator.SEQUENCE_SETTING, s));
+    }
+}
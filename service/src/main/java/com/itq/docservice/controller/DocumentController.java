@@ -2,17 +2,33 @@ package com.itq.docservice.controller;
 
 import com.itq.docservice.dto.*;
 import com.itq.docservice.service.ConcurrentApprovalService;
+import com.itq.docservice.exception.InvalidBulkInputException;
+import com.itq.docservice.service.DocumentExportService;
+import com.itq.docservice.service.DocumentIngestService;
 import com.itq.docservice.service.DocumentService;
+import com.itq.docservice.service.DocumentStatsService;
+import com.itq.docservice.trace.RequestItems;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/documents")
@@ -21,6 +37,9 @@ public class DocumentController {
 
     private final DocumentService documentService;
     private final ConcurrentApprovalService concurrentApprovalService;
+    private final DocumentStatsService statsService;
+    private final DocumentExportService exportService;
+    private final DocumentIngestService ingestService;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -29,32 +48,102 @@ public class DocumentController {
     }
 
     @GetMapping("/{id}")
-    public DocumentResponse getDocument(@PathVariable("id") Long id) {
-        return documentService.getDocumentWithHistory(id);
+    public DocumentResponse getDocument(
+            @PathVariable("id") Long id,
+            @RequestParam(name = "historyLimit", required = false) Integer historyLimit) {
+        return documentService.getDocumentWithHistory(id, historyLimit);
+    }
+
+    @GetMapping("/{id}/history")
+    public HistoryPageResponse getHistory(
+            @PathVariable("id") Long id,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "limit", defaultValue = "50") int limit) {
+        return documentService.getHistoryPage(id, cursor, limit);
     }
 
     @GetMapping
     public Page<DocumentResponse> getDocuments(
             @RequestParam(name = "ids", required = false) List<Long> ids,
+            @RequestParam(name = "includeHistory", defaultValue = "false") boolean includeHistory,
             @PageableDefault(size = 20, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable) {
-        return documentService.getDocumentsPaged(ids, pageable);
+        return documentService.getDocumentsPaged(ids, includeHistory, pageable);
+    }
+
+    /** Creates up to 500 documents in one request; returns one result per item, in request order. */
+    @PostMapping("/batch")
+    public List<BatchCreateResult> createDocuments(@Valid @RequestBody BatchCreateRequest req) {
+        RequestItems.record(req.getDocuments().size());
+        return documentService.batchCreate(req);
+    }
+
+    /**
+     * Bulk load from a streamed NDJSON ({@code application/x-ndjson}) or CSV ({@code text/csv}) body of
+     * {@code author}/{@code title} rows; reports the outcome per chunk.
+     */
+    @PostMapping("/bulk")
+    public BulkIngestResponse ingestDocuments(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            @RequestParam(name = "chunkSize", required = false) Integer chunkSize,
+            InputStream body) throws IOException {
+        FileFormat format;
+        try {
+            format = FileFormat.fromMediaType(MediaType.parseMediaType(contentType));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidBulkInputException("Content-Type must be text/csv or application/x-ndjson");
+        }
+        return ingestService.ingest(body, format, chunkSize);
     }
 
     @PostMapping("/submit")
     public List<BatchStatusResult> submitDocuments(@Valid @RequestBody BatchStatusRequest req) {
+        RequestItems.record(req.getIds().size());
         return documentService.batchSubmit(req);
     }
 
     @PostMapping("/approve")
     public List<BatchStatusResult> approveDocuments(@Valid @RequestBody BatchStatusRequest req) {
+        RequestItems.record(req.getIds().size());
         return documentService.batchApprove(req);
     }
 
     @GetMapping("/search")
     public Page<DocumentResponse> searchDocuments(
-            @ModelAttribute DocumentSearchRequest searchReq,
-            @PageableDefault(size = 20, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable) {
-        return documentService.search(searchReq, pageable);
+            @Valid @ModelAttribute DocumentSearchRequest searchReq,
+            @RequestParam(name = "includeHistory", defaultValue = "false") boolean includeHistory,
+            @PageableDefault(size = 20) Pageable pageable) {
+        // Newest first unless the client sorts; with q the service orders by relevance and rejects a sort
+        if (pageable.getSort().isUnsorted() && (searchReq.getQ() == null || searchReq.getQ().isBlank())) {
+            pageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(),
+                    Sort.by(Sort.Direction.DESC, "createdAt"));
+        }
+        return documentService.search(searchReq, includeHistory, pageable);
+    }
+
+    /**
+     * Streams all documents matching the search filter as CSV or NDJSON, optionally gzipped.
+     * Unlike {@code /search} there is no paging: rows are written as they are read from a DB cursor.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportDocuments(
+            @Valid @ModelAttribute DocumentSearchRequest searchReq,
+            @RequestParam(name = "format", defaultValue = "CSV") FileFormat format,
+            @RequestParam(name = "gzip", defaultValue = "false") boolean gzip) {
+        String filename = "documents." + format.getExtension() + (gzip ? ".gz" : "");
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(gzip ? "application/gzip" : format.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(filename).build().toString())
+                .body(out -> exportService.export(searchReq, format, gzip, out));
+    }
+
+    /** Aggregate counts from the maintained counters, e.g. {@code ?groupBy=STATUS,DAY&from=2024-07-01}. */
+    @GetMapping("/stats")
+    public List<DocumentStatsEntry> getStats(
+            @RequestParam(name = "groupBy", defaultValue = "STATUS") Set<StatsDimension> groupBy,
+            @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return statsService.query(groupBy, from, to);
     }
 
     @PostMapping("/{id}/concurrent-approval-test")
@@ -0,0 +1,34 @@
+package com.itq.docservice.controller;
+
+import com.itq.docservice.dto.SlowQueryEntry;
+import com.itq.docservice.monitoring.SlowQueryLog;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/** Admin view of the slow-query ring buffer; present only with {@code app.slow-query.enabled=true}. */
+@RestController
+@RequestMapping("/api/admin/slow-queries")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.slow-query.enabled", havingValue = "true")
+public class SlowQueryController {
+
+    private final SlowQueryLog slowQueryLog;
+
+    /** Captured statements, newest first; {@code minDurationMs} filters out the faster ones. */
+    @GetMapping
+    public List<SlowQueryEntry> list(@RequestParam(name = "minDurationMs", defaultValue = "0") long minDurationMs) {
+        return slowQueryLog.entries().stream()
+                .filter(e -> e.getDurationMs() >= minDurationMs)
+                .toList();
+    }
+
+    @DeleteMapping
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void clear() {
+        slowQueryLog.clear();
+    }
+}
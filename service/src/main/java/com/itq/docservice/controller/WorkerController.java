@@ -0,0 +1,52 @@
+package com.itq.docservice.controller;
+
+import com.itq.docservice.dto.WorkerSettingsRequest;
+import com.itq.docservice.dto.WorkerState;
+import com.itq.docservice.scheduler.WorkerScheduler;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/** Runtime control of the background workers ({@code submit}, {@code approve}); changes last until restart. */
+@RestController
+@RequestMapping("/api/admin/workers")
+@RequiredArgsConstructor
+public class WorkerController {
+
+    private final WorkerScheduler workerScheduler;
+
+    @GetMapping
+    public List<WorkerState> list() {
+        return workerScheduler.states();
+    }
+
+    @GetMapping("/{worker}")
+    public WorkerState get(@PathVariable String worker) {
+        return workerScheduler.state(worker);
+    }
+
+    @PostMapping("/{worker}/pause")
+    public WorkerState pause(@PathVariable String worker) {
+        return workerScheduler.pause(worker);
+    }
+
+    @PostMapping("/{worker}/resume")
+    public WorkerState resume(@PathVariable String worker) {
+        return workerScheduler.resume(worker);
+    }
+
+    /** One run as soon as possible, also for a paused worker; the run itself is asynchronous. */
+    @PostMapping("/{worker}/trigger")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public WorkerState trigger(@PathVariable String worker) {
+        return workerScheduler.trigger(worker);
+    }
+
+    @PatchMapping("/{worker}")
+    public WorkerState update(@PathVariable String worker, @Valid @RequestBody WorkerSettingsRequest req) {
+        return workerScheduler.update(worker, req.getBatchSize(), req.getFixedDelayMs());
+    }
+}
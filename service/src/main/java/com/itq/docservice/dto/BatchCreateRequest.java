@@ -0,0 +1,16 @@
+package com.itq.docservice.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BatchCreateRequest {
+
+    // Items are validated one by one in the service so that one bad item does not reject the batch
+    @NotEmpty(message = "documents must not be empty")
+    @Size(min = 1, max = 500, message = "documents list must contain between 1 and 500 elements")
+    private List<CreateDocumentRequest> documents;
+}
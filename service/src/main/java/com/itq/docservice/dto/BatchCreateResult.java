@@ -0,0 +1,22 @@
+package com.itq.docservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/** Result for the item at {@code index} of a batch create request; {@code document} is set only when created. */
+@Data
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchCreateResult {
+    private int index;
+    private ResultCode result;
+    private DocumentResponse document;
+    private String message;
+
+    public enum ResultCode {
+        CREATED,
+        VALIDATION_ERROR,
+        FAILED
+    }
+}
@@ -6,6 +6,7 @@ import lombok.Data;
 @Data
 @AllArgsConstructor
 public class BatchStatusResult {
+    @DocumentId
     private Long id;
     private ResultCode result;
     private String message;
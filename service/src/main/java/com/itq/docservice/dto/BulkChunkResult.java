@@ -0,0 +1,26 @@
+package com.itq.docservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/** Outcome of one ingest chunk; {@code errors} is capped, {@code rejected} is exact. */
+@Data
+@AllArgsConstructor
+public class BulkChunkResult {
+    private int chunk;
+    private long firstLine;
+    private long lastLine;
+    private int inserted;
+    private int rejected;
+    private ResultCode result;
+    private List<String> errors;
+    private long durationMs;
+
+    public enum ResultCode {
+        SUCCESS,
+        PARTIAL,
+        FAILED
+    }
+}
@@ -0,0 +1,17 @@
+package com.itq.docservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class BulkIngestResponse {
+    private long totalRows;
+    private long inserted;
+    private long rejected;
+    private long elapsedMs;
+    private long rowsPerSecond;
+    private List<BulkChunkResult> chunks;
+}
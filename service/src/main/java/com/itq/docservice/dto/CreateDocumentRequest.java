@@ -1,14 +1,17 @@
 package com.itq.docservice.dto;
 
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
 import lombok.Data;
 
 @Data
 public class CreateDocumentRequest {
 
     @NotBlank(message = "Author must not be blank")
+    @Size(max = 255, message = "Author must be at most 255 characters")
     private String author;
 
     @NotBlank(message = "Title must not be blank")
+    @Size(max = 500, message = "Title must be at most 500 characters")
     private String title;
 }
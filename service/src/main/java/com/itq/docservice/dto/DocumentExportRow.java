@@ -0,0 +1,23 @@
+package com.itq.docservice.dto;
+
+import com.itq.docservice.entity.DocumentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+
+/** Flat projection streamed by the export; built by a constructor expression, never a managed entity. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentExportRow {
+    @DocumentId
+    private Long id;
+    private String number;
+    private String author;
+    private String title;
+    private DocumentStatus status;
+    private OffsetDateTime createdAt;
+    private OffsetDateTime updatedAt;
+}
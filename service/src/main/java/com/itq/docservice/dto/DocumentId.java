@@ -0,0 +1,15 @@
+package com.itq.docservice.dto;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a property holding a document id. With {@code app.ids.snowflake.enabled=true} such properties are
+ * written as JSON strings (see {@link com.itq.docservice.config.DocumentIdJsonModule}).
+ */
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface DocumentId {
+}
@@ -8,6 +8,7 @@ import java.util.List;
 
 @Data
 public class DocumentResponse {
+    @DocumentId
     private Long id;
     private String number;
     private String author;
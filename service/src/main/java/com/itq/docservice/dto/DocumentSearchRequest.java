@@ -1,6 +1,7 @@
 package com.itq.docservice.dto;
 
 import com.itq.docservice.entity.DocumentStatus;
+import jakarta.validation.constraints.Size;
 import lombok.Data;
 import org.springframework.format.annotation.DateTimeFormat;
 
@@ -16,4 +17,8 @@ public class DocumentSearchRequest {
 
     @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
     private OffsetDateTime to;
+
+    /** Full-text query on title; when set, results are ordered by relevance. */
+    @Size(max = 200, message = "q must be at most 200 characters")
+    private String q;
 }
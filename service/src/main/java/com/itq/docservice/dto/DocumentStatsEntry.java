@@ -0,0 +1,21 @@
+package com.itq.docservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.itq.docservice.entity.DocumentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/** One aggregate row; dimensions that were not grouped on are omitted. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DocumentStatsEntry {
+    private DocumentStatus status;
+    private String author;
+    private LocalDate day;
+    private long count;
+}
@@ -0,0 +1,26 @@
+package com.itq.docservice.dto;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+
+/** Row-per-line formats of {@code GET /api/documents/export} and {@code POST /api/documents/bulk}. */
+@Getter
+@RequiredArgsConstructor
+public enum FileFormat {
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String mediaType;
+    private final String extension;
+
+    /** Resolves a request Content-Type (parameters such as charset are ignored). */
+    public static FileFormat fromMediaType(MediaType contentType) {
+        for (FileFormat format : values()) {
+            if (MediaType.parseMediaType(format.mediaType).isCompatibleWith(contentType)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported content type: " + contentType);
+    }
+}
@@ -0,0 +1,14 @@
+package com.itq.docservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class HistoryPageResponse {
+    private List<HistoryEntryResponse> items;
+    private String nextCursor;
+    private boolean hasMore;
+}
@@ -0,0 +1,23 @@
+package com.itq.docservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class SlowQueryEntry {
+    private OffsetDateTime capturedAt;
+    private long durationMs;
+    private String sql;
+    private List<String> parameters;
+    /** "METHOD /uri?query" of the HTTP request, or "thread name" for background work */
+    private String source;
+    private boolean batch;
+    private boolean failed;
+    /** EXPLAIN output; null while pending, when disabled or when the SQL was explained recently */
+    private String plan;
+    private boolean analyzed;
+}
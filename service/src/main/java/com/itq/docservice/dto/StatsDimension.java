@@ -0,0 +1,8 @@
+package com.itq.docservice.dto;
+
+/** Grouping keys accepted by {@code GET /api/documents/stats}. */
+public enum StatsDimension {
+    STATUS,
+    AUTHOR,
+    DAY
+}
@@ -0,0 +1,18 @@
+package com.itq.docservice.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+
+/** Fields left null keep their current value. */
+@Data
+public class WorkerSettingsRequest {
+
+    @Min(value = 1, message = "batchSize must be between 1 and 1000")
+    @Max(value = 1000, message = "batchSize must be between 1 and 1000")
+    private Integer batchSize;
+
+    @Min(value = 100, message = "fixedDelayMs must be between 100 and 86400000")
+    @Max(value = 86_400_000, message = "fixedDelayMs must be between 100 and 86400000")
+    private Long fixedDelayMs;
+}
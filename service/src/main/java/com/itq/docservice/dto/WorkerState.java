@@ -0,0 +1,22 @@
+package com.itq.docservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.OffsetDateTime;
+
+@Data
+@AllArgsConstructor
+public class WorkerState {
+    private String worker;
+    private boolean paused;
+    /** A run is in progress right now */
+    private boolean running;
+    private int batchSize;
+    private long fixedDelayMs;
+    /** Null while paused or running */
+    private OffsetDateTime nextRunAt;
+    private OffsetDateTime lastRunAt;
+    /** Last batch that moved at least one document forward */
+    private OffsetDateTime lastSuccessAt;
+}
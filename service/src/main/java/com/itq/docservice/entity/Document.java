@@ -1,6 +1,7 @@
 package com.itq.docservice.entity;
 
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import org.hibernate.annotations.CreationTimestamp;
@@ -17,7 +18,7 @@ import java.util.List;
 public class Document {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SnowflakeId
     private Long id;
 
     @Column(nullable = false, unique = true, length = 50)
@@ -29,6 +30,11 @@ public class Document {
     @Column(nullable = false, length = 500)
     private String title;
 
+    /** Generated by PostgreSQL from the title; only used by full-text search predicates. */
+    @Column(name = "title_tsv", columnDefinition = "tsvector", insertable = false, updatable = false)
+    @Setter(AccessLevel.NONE)
+    private String titleTsv;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false, length = 20)
     private DocumentStatus status;
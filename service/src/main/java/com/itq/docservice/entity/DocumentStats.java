@@ -0,0 +1,23 @@
+package com.itq.docservice.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * One contention stripe of the (status, author, day) document counter.
+ * Written only through {@link com.itq.docservice.repository.DocumentStatsRepository} upserts;
+ * a single stripe may go negative, only sums over stripes are meaningful.
+ */
+@Entity
+@Table(name = "document_stats")
+@Getter
+@Setter
+public class DocumentStats {
+
+    @EmbeddedId
+    private DocumentStatsId id;
+
+    @Column(name = "doc_count", nullable = false)
+    private long docCount;
+}
@@ -0,0 +1,18 @@
+package com.itq.docservice.entity;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Identifier assigned by {@link SnowflakeIdGenerator}: application-side time-ordered ids when
+ * {@code app.ids.snowflake.enabled} is set, the column's IDENTITY default otherwise.
+ */
+@IdGeneratorType(SnowflakeIdGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface SnowflakeId {
+}
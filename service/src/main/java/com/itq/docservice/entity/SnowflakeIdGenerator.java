@@ -0,0 +1,43 @@
+package com.itq.docservice.entity;
+
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.id.IdentityGenerator;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+
+import java.lang.reflect.Member;
+
+/**
+ * Id generator behind {@link SnowflakeId}. Disabled (the default) it behaves exactly like
+ * {@code GenerationType.IDENTITY}: the id comes back from the insert, so Hibernate has to execute
+ * the insert on persist. Enabled, ids come from a {@link SnowflakeSequence} in memory: persist only
+ * schedules the insert, which is flushed with the rest of the transaction.
+ * <p>
+ * Takes the sequence from the Hibernate properties, where
+ * {@link com.itq.docservice.config.SnowflakeIdConfig} puts the instance's {@link SnowflakeSequence} bean.
+ * The choice is fixed when the session factory is built.
+ */
+public class SnowflakeIdGenerator extends IdentityGenerator implements BeforeExecutionGenerator {
+
+    public static final String SEQUENCE_SETTING = "app.ids.snowflake.sequence";
+
+    private final SnowflakeSequence sequence;
+
+    public SnowflakeIdGenerator(SnowflakeId config, Member member, CustomIdGeneratorCreationContext context) {
+        ConfigurationService settings = context.getServiceRegistry().getService(ConfigurationService.class);
+        this.sequence = settings.getSettings().get(SEQUENCE_SETTING) instanceof SnowflakeSequence s ? s : null;
+    }
+
+    @Override
+    public boolean generatedOnExecution() {
+        return sequence == null;
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+                           EventType eventType) {
+        return sequence.next();
+    }
+}
@@ -0,0 +1,60 @@
+package com.itq.docservice.entity;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Time-ordered 64-bit ids: 41 bits of milliseconds since {@link #EPOCH}, 10 bits of node id,
+ * 12 bits of per-millisecond sequence. Ids from one node strictly increase; ids from different
+ * nodes never collide as long as every running instance has its own node id.
+ * <p>
+ * The millisecond and sequence parts are kept as one counter advanced with CAS: a burst of more
+ * than 4096 ids per millisecond borrows the next millisecond instead of blocking, and a clock
+ * stepping backwards keeps counting from the last issued id.
+ */
+public final class SnowflakeSequence {
+
+    public static final Instant EPOCH = Instant.parse("2024-01-01T00:00:00Z");
+
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private final long nodeBits;
+    private final LongSupplier millis;
+    /** (millis since epoch << SEQUENCE_BITS) | sequence of the last issued id. */
+    private final AtomicLong last = new AtomicLong();
+
+    public SnowflakeSequence(int nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    SnowflakeSequence(int nodeId, LongSupplier millis) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be within 0.." + MAX_NODE_ID + ", got " + nodeId);
+        }
+        this.nodeBits = (long) nodeId << SEQUENCE_BITS;
+        this.millis = millis;
+    }
+
+    public long next() {
+        long now = (millis.getAsLong() - EPOCH.toEpochMilli()) << SEQUENCE_BITS;
+        long prev;
+        long next;
+        do {
+            prev = last.get();
+            next = Math.max(prev + 1, now);
+        } while (!last.compareAndSet(prev, next));
+        return ((next >>> SEQUENCE_BITS) << (NODE_BITS + SEQUENCE_BITS)) | nodeBits | (next & SEQUENCE_MASK);
+    }
+
+    public static int nodeOf(long id) {
+        return (int) ((id >>> SEQUENCE_BITS) & MAX_NODE_ID);
+    }
+
+    public static Instant instantOf(long id) {
+        return EPOCH.plusMillis(id >>> (NODE_BITS + SEQUENCE_BITS));
+    }
+}
@@ -0,0 +1,7 @@
+package com.itq.docservice.exception;
+
+public class InvalidBulkInputException extends RuntimeException {
+    public InvalidBulkInputException(String message) {
+        super(message);
+    }
+}
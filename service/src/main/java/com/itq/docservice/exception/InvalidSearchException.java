@@ -0,0 +1,7 @@
+package com.itq.docservice.exception;
+
+public class InvalidSearchException extends RuntimeException {
+    public InvalidSearchException(String message) {
+        super(message);
+    }
+}
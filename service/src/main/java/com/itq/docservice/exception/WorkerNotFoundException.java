@@ -0,0 +1,7 @@
+package com.itq.docservice.exception;
+
+public class WorkerNotFoundException extends RuntimeException {
+    public WorkerNotFoundException(String name) {
+        super("Worker not found: " + name);
+    }
+}
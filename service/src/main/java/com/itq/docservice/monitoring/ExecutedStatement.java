@@ -0,0 +1,108 @@
+package com.itq.docservice.monitoring;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * One {@code execute*} call as seen by a {@link JdbcObserver}. Parameter bindings are only valid during
+ * the callback; {@link #onClose} snapshots them and defers work (e.g. an EXPLAIN on the same connection)
+ * until the statement and its result set are closed.
+ */
+public final class ExecutedStatement {
+
+    private static final int MAX_PARAMETER_LENGTH = 200;
+
+    private final String sql;
+    private Map<Integer, Binding> bindings;
+    private final long elapsedNanos;
+    private final boolean batch;
+    private final Throwable failure;
+    private final Connection connection;
+    private final List<Runnable> closeTasks;
+
+    /** A recorded {@code PreparedStatement.setXxx(index, value, ...)} call. */
+    record Binding(Method method, Object[] args) {
+    }
+
+    ExecutedStatement(String sql, Map<Integer, Binding> bindings, long elapsedNanos, boolean batch,
+                      Throwable failure, Connection connection, List<Runnable> closeTasks) {
+        this.sql = sql;
+        this.bindings = bindings;
+        this.elapsedNanos = elapsedNanos;
+        this.batch = batch;
+        this.failure = failure;
+        this.connection = connection;
+        this.closeTasks = closeTasks;
+    }
+
+    public String sql() {
+        return sql;
+    }
+
+    public long elapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /** {@code executeBatch}: bindings hold only the last row of the batch. */
+    public boolean batch() {
+        return batch;
+    }
+
+    public boolean failed() {
+        return failure != null;
+    }
+
+    /** The unwrapped connection; statements run on it are not observed. */
+    public Connection connection() {
+        return connection;
+    }
+
+    /** Bound parameter values in index order, rendered for display. */
+    public List<String> parameters() {
+        List<String> values = new ArrayList<>(bindings.size());
+        bindings.forEach((index, binding) -> {
+            Object value = binding.method().getName().equals("setNull") ? null : binding.args()[1];
+            String text = String.valueOf(value);
+            values.add(text.length() > MAX_PARAMETER_LENGTH ? text.substring(0, MAX_PARAMETER_LENGTH) + "..." : text);
+        });
+        return values;
+    }
+
+    /** Whether the bindings can be applied to another statement (no streams or readers). */
+    public boolean replayable() {
+        for (Binding binding : bindings.values()) {
+            String name = binding.method().getName();
+            if (name.endsWith("Stream") || name.endsWith("Reader") || name.endsWith("Blob") || name.endsWith("Clob")) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Applies the recorded bindings to {@code target}, which must take the same parameters. */
+    public void bind(PreparedStatement target) throws SQLException {
+        for (Binding binding : bindings.values()) {
+            try {
+                binding.method().invoke(target, binding.args());
+            } catch (InvocationTargetException e) {
+                throw e.getCause() instanceof SQLException sqlException ? sqlException
+                        : new SQLException("Cannot bind parameter", e.getCause());
+            } catch (IllegalAccessException e) {
+                throw new SQLException("Cannot bind parameter", e);
+            }
+        }
+    }
+
+    /** Runs {@code task} after the statement is closed; bindings stay as they were at execution. */
+    public void onClose(Runnable task) {
+        bindings = new TreeMap<>(bindings);
+        closeTasks.add(task);
+    }
+}
@@ -0,0 +1,15 @@
+package com.itq.docservice.monitoring;
+
+/**
+ * Receives JDBC activity seen by {@link ObservedDataSource}. Callbacks run synchronously on the thread
+ * that issued the statement, so implementations must be cheap for the common (fast) case.
+ */
+public interface JdbcObserver {
+
+    /** Called after every {@code execute*} call returns or throws. */
+    void executed(ExecutedStatement statement);
+
+    /** Called after a connection has been taken from the pool; {@code nanos} is the time spent waiting. */
+    default void connectionAcquired(long nanos) {
+    }
+}
@@ -0,0 +1,146 @@
+package com.itq.docservice.monitoring;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Wraps the application DataSource so that every statement, whether issued by Hibernate, Spring Data
+ * or JdbcTemplate, is timed and reported to the registered {@link JdbcObserver}s together with its
+ * SQL and bound parameters. Connections and statements are JDK proxies over the pool's objects;
+ * {@code unwrap} still reaches the driver classes.
+ */
+public class ObservedDataSource extends DelegatingDataSource {
+
+    private final List<JdbcObserver> observers;
+
+    public ObservedDataSource(DataSource target, List<JdbcObserver> observers) {
+        super(target);
+        this.observers = List.copyOf(observers);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        Connection target = super.getConnection();
+        acquired(System.nanoTime() - start);
+        return connection(target);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        long start = System.nanoTime();
+        Connection target = super.getConnection(username, password);
+        acquired(System.nanoTime() - start);
+        return connection(target);
+    }
+
+    private void acquired(long nanos) {
+        for (JdbcObserver observer : observers) {
+            observer.connectionAcquired(nanos);
+        }
+    }
+
+    private Connection connection(Connection target) {
+        return proxy(Connection.class, (proxy, method, args) -> {
+            Object result = invoke(target, method, args);
+            return switch (method.getName()) {
+                case "prepareStatement" -> statement(PreparedStatement.class, result, (String) args[0], target);
+                case "prepareCall" -> statement(CallableStatement.class, result, (String) args[0], target);
+                case "createStatement" -> statement(Statement.class, result, null, target);
+                default -> result;
+            };
+        });
+    }
+
+    private <S extends Statement> S statement(Class<S> type, Object target, String sql, Connection connection) {
+        return proxy(type, new StatementHandler(target, sql, connection));
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+
+        private final Object target;
+        private final String sql;
+        private final Connection connection;
+        private final Map<Integer, ExecutedStatement.Binding> bindings = new TreeMap<>();
+        private final List<Runnable> closeTasks = new ArrayList<>(0);
+
+        StatementHandler(Object target, String sql, Connection connection) {
+            this.target = target;
+            this.sql = sql;
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                return execute(method, args, name.equals("executeBatch") || name.equals("executeLargeBatch"));
+            }
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                bindings.put(index, new ExecutedStatement.Binding(method, args));
+            } else if (name.equals("clearParameters")) {
+                bindings.clear();
+            } else if (name.equals("close")) {
+                Object result = ObservedDataSource.invoke(target, method, args);
+                runCloseTasks();
+                return result;
+            }
+            return ObservedDataSource.invoke(target, method, args);
+        }
+
+        private Object execute(Method method, Object[] args, boolean batch) throws Throwable {
+            long start = System.nanoTime();
+            Throwable failure = null;
+            try {
+                return ObservedDataSource.invoke(target, method, args);
+            } catch (Throwable e) {
+                failure = e;
+                throw e;
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                String executed = args != null && args.length > 0 && args[0] instanceof String s ? s : sql;
+                ExecutedStatement statement = new ExecutedStatement(executed, bindings, elapsed, batch, failure,
+                        connection, closeTasks);
+                for (JdbcObserver observer : observers) {
+                    observer.executed(statement);
+                }
+            }
+        }
+
+        private void runCloseTasks() {
+            if (closeTasks.isEmpty()) {
+                return;
+            }
+            List<Runnable> tasks = List.copyOf(closeTasks);
+            closeTasks.clear();
+            tasks.forEach(Runnable::run);
+        }
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(ObservedDataSource.class.getClassLoader(), new Class<?>[]{type},
+                handler));
+    }
+}
@@ -0,0 +1,35 @@
+package com.itq.docservice.monitoring;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * {@code pipeline} component of {@code /actuator/health}: UP while every unpaused worker keeps within the
+ * {@code app.health.pipeline.*} thresholds, DEGRADED otherwise. Lag never reports DOWN, so a slow
+ * pipeline does not take the instance out of rotation; alert on DEGRADED instead.
+ */
+@Component
+@RequiredArgsConstructor
+public class PipelineHealthIndicator implements HealthIndicator {
+
+    public static final Status DEGRADED = new Status("DEGRADED", "Workflow pipeline is lagging");
+
+    private final PipelineStatus pipelineStatus;
+
+    @Override
+    public Health health() {
+        List<PipelineStatus.Stage> stages = pipelineStatus.stages();
+        List<String> problems = stages.stream().flatMap(stage -> stage.problems().stream()).toList();
+        Health.Builder builder = problems.isEmpty() ? Health.up() : Health.status(DEGRADED);
+        stages.forEach(stage -> builder.withDetail(stage.worker(), stage.details()));
+        if (!problems.isEmpty()) {
+            builder.withDetail("problems", problems);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,24 @@
+package com.itq.docservice.monitoring;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.info.Info;
+import org.springframework.boot.actuate.info.InfoContributor;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/** {@code pipeline} section of {@code /actuator/info}: per-stage backlog, lag and last batch throughput. */
+@Component
+@RequiredArgsConstructor
+public class PipelineInfoContributor implements InfoContributor {
+
+    private final PipelineStatus pipelineStatus;
+
+    @Override
+    public void contribute(Info.Builder builder) {
+        Map<String, Object> pipeline = new LinkedHashMap<>();
+        pipelineStatus.stages().forEach(stage -> pipeline.put(stage.worker(), stage.details()));
+        builder.withDetail("pipeline", pipeline);
+    }
+}
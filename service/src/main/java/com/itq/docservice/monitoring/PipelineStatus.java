@@ -0,0 +1,116 @@
+package com.itq.docservice.monitoring;
+
+import com.itq.docservice.entity.DocumentStatus;
+import com.itq.docservice.repository.DocumentRepository;
+import com.itq.docservice.scheduler.WorkerActivity;
+import com.itq.docservice.scheduler.WorkerScheduler;
+import com.itq.docservice.service.DocumentMetrics;
+import com.itq.docservice.service.DocumentStatsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lag of the DRAFT → SUBMITTED → APPROVED pipeline, per worker stage: how many documents wait, how long
+ * the next one has been waiting and how recently the worker moved anything forward. Every figure comes
+ * from the striped status counters, one index probe per stage and in-memory worker activity, so it is
+ * cheap enough for a load balancer to poll.
+ */
+@Component
+@RequiredArgsConstructor
+public class PipelineStatus {
+
+    private final DocumentStatsService statsService;
+    private final DocumentRepository documentRepository;
+    private final WorkerActivity activity;
+    private final WorkerScheduler workerScheduler;
+
+    @Value("${app.health.pipeline.max-backlog:10000}")
+    private long maxBacklog;
+
+    @Value("${app.health.pipeline.max-oldest-age-s:600}")
+    private long maxOldestAgeS;
+
+    @Value("${app.health.pipeline.max-since-success-s:300}")
+    private long maxSinceSuccessS;
+
+    /**
+     * One worker stage. Ages are in seconds and null when there is nothing to measure;
+     * {@code problems} lists the thresholds this stage exceeds (always empty for a paused worker).
+     */
+    public record Stage(String worker, DocumentStatus waiting, boolean paused, long backlog, Long oldestAgeS,
+                        Long sinceLastRunS, Long sinceLastSuccessS, WorkerActivity.LastBatch lastBatch,
+                        List<String> problems) {
+
+        public Map<String, Object> details() {
+            Map<String, Object> details = new LinkedHashMap<>();
+            details.put("waiting", waiting);
+            details.put("paused", paused);
+            details.put("backlog", backlog);
+            details.put("oldestAgeS", oldestAgeS);
+            details.put("sinceLastRunS", sinceLastRunS);
+            details.put("sinceLastSuccessS", sinceLastSuccessS);
+            if (lastBatch != null) {
+                details.put("lastBatch", Map.of(
+                        "finishedAt", lastBatch.finishedAt(),
+                        "size", lastBatch.size(),
+                        "succeeded", lastBatch.succeeded(),
+                        "durationMs", lastBatch.durationMs(),
+                        "throughput", Math.round(lastBatch.throughput() * 10) / 10.0));
+            }
+            return details;
+        }
+    }
+
+    public List<Stage> stages() {
+        Instant now = Instant.now();
+        return List.of(
+                stage(DocumentMetrics.SUBMIT, DocumentStatus.DRAFT, now),
+                stage(DocumentMetrics.APPROVE, DocumentStatus.SUBMITTED, now));
+    }
+
+    private Stage stage(String worker, DocumentStatus waiting, Instant now) {
+        boolean paused = workerScheduler.isPaused(worker);
+        long backlog = statsService.countByStatus(waiting);
+        Long oldestAge = null;
+        if (backlog > 0) {
+            List<OffsetDateTime> head = documentRepository.findQueueHeadSince(waiting, PageRequest.of(0, 1));
+            oldestAge = head.isEmpty() ? null : seconds(head.get(0).toInstant(), now);
+        }
+        WorkerActivity.Snapshot snapshot = activity.snapshot(worker);
+        Long sinceLastRun = snapshot.lastRunAt() == null ? null : seconds(snapshot.lastRunAt(), now);
+        Long sinceLastSuccess = snapshot.lastSuccessAt() == null ? null : seconds(snapshot.lastSuccessAt(), now);
+
+        List<String> problems = new ArrayList<>();
+        if (!paused) {
+            if (backlog > maxBacklog) {
+                problems.add(worker + ": " + backlog + " " + waiting + " documents waiting (max " + maxBacklog + ")");
+            }
+            if (oldestAge != null && oldestAge > maxOldestAgeS) {
+                problems.add(worker + ": oldest " + waiting + " document waiting " + oldestAge + "s (max "
+                        + maxOldestAgeS + "s)");
+            }
+            // A worker that has not succeeded yet is measured from startup
+            long idle = sinceLastSuccess != null ? sinceLastSuccess : seconds(activity.startedAt(), now);
+            if (backlog > 0 && idle > maxSinceSuccessS) {
+                problems.add(worker + ": no successful batch for " + idle + "s with " + backlog
+                        + " documents waiting (max " + maxSinceSuccessS + "s)");
+            }
+        }
+        return new Stage(worker, waiting, paused, backlog, oldestAge, sinceLastRun, sinceLastSuccess,
+                snapshot.lastBatch(), problems);
+    }
+
+    private static long seconds(Instant from, Instant to) {
+        return Math.max(0, Duration.between(from, to).toSeconds());
+    }
+}
@@ -0,0 +1,79 @@
+package com.itq.docservice.monitoring;
+
+import java.util.Locale;
+
+/**
+ * Per-request accounting of where the time went: JDBC statements, waiting for a pool connection, the
+ * handler itself (business logic and DTO mapping) and response serialization. Bound to the request
+ * thread by {@link RequestTimingFilter}; work done on other threads (async exports) is not counted.
+ */
+public final class RequestTiming {
+
+    private static final ThreadLocal<RequestTiming> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos = System.nanoTime();
+    private long dbNanos;
+    private int statements;
+    private long connectionNanos;
+    private int connections;
+    /** When the response body started to be written; 0 until then (or for bodiless responses). */
+    private long bodyStartNanos;
+
+    /** The timing of the request running on this thread, or null outside a timed request. */
+    public static RequestTiming current() {
+        return CURRENT.get();
+    }
+
+    static RequestTiming begin() {
+        RequestTiming timing = new RequestTiming();
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    void end() {
+        CURRENT.remove();
+    }
+
+    void statement(long nanos) {
+        dbNanos += nanos;
+        statements++;
+    }
+
+    void connection(long nanos) {
+        connectionNanos += nanos;
+        connections++;
+    }
+
+    void bodyStarted() {
+        if (bodyStartNanos == 0) {
+            bodyStartNanos = System.nanoTime();
+        }
+    }
+
+    /**
+     * {@code Server-Timing} value as of now. It has to be set before the body is written, so it covers
+     * everything up to serialization; serialization and the total appear only in the access log.
+     */
+    String serverTiming() {
+        long handler = (bodyStartNanos == 0 ? System.nanoTime() : bodyStartNanos) - startNanos;
+        return "db;dur=" + ms(dbNanos) + ";desc=\"" + statements + " statements\""
+                + ", conn;dur=" + ms(connectionNanos) + ";desc=\"" + connections + " acquired\""
+                + ", app;dur=" + ms(Math.max(0, handler - dbNanos - connectionNanos));
+    }
+
+    /** Key=value access log line; all durations in milliseconds. */
+    String accessLog(String method, String uri, int status) {
+        long end = System.nanoTime();
+        long handlerEnd = bodyStartNanos == 0 ? end : bodyStartNanos;
+        return "method=" + method + " uri=" + uri + " status=" + status
+                + " total_ms=" + ms(end - startNanos)
+                + " db_ms=" + ms(dbNanos) + " statements=" + statements
+                + " conn_ms=" + ms(connectionNanos) + " connections=" + connections
+                + " app_ms=" + ms(Math.max(0, handlerEnd - startNanos - dbNanos - connectionNanos))
+                + " ser_ms=" + ms(end - handlerEnd);
+    }
+
+    private static String ms(long nanos) {
+        return String.format(Locale.ROOT, "%.2f", nanos / 1e6);
+    }
+}
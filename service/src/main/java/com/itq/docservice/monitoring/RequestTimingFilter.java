@@ -0,0 +1,51 @@
+package com.itq.docservice.monitoring;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Times each request into a {@link RequestTiming}: sets the {@code Server-Timing} header (via
+ * {@link ServerTimingAdvice} for bodies, here for bodiless responses) and writes one access log line.
+ */
+@RequiredArgsConstructor
+public class RequestTimingFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Server-Timing";
+
+    private static final Logger accessLog = LoggerFactory.getLogger("com.itq.docservice.access");
+
+    private final boolean logAccess;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestTiming timing = RequestTiming.begin();
+        boolean failed = false;
+        try {
+            chain.doFilter(request, response);
+            if (!response.isCommitted() && !response.containsHeader(HEADER)) {
+                response.setHeader(HEADER, timing.serverTiming());
+            }
+        } catch (IOException | ServletException | RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            timing.end();
+            if (logAccess) {
+                String query = request.getQueryString();
+                // An exception escaping the chain becomes a 500 later; the response still reports 200 here
+                accessLog.info(timing.accessLog(request.getMethod(),
+                        query == null ? request.getRequestURI() : request.getRequestURI() + '?' + query,
+                        failed ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : response.getStatus()));
+            }
+        }
+    }
+}
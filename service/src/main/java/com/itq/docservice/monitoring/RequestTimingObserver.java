@@ -0,0 +1,21 @@
+package com.itq.docservice.monitoring;
+
+/** Adds JDBC time and connection waits to the {@link RequestTiming} of the calling thread, if any. */
+public class RequestTimingObserver implements JdbcObserver {
+
+    @Override
+    public void executed(ExecutedStatement statement) {
+        RequestTiming timing = RequestTiming.current();
+        if (timing != null) {
+            timing.statement(statement.elapsedNanos());
+        }
+    }
+
+    @Override
+    public void connectionAcquired(long nanos) {
+        RequestTiming timing = RequestTiming.current();
+        if (timing != null) {
+            timing.connection(nanos);
+        }
+    }
+}
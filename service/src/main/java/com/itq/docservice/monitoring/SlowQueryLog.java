@@ -0,0 +1,185 @@
+package com.itq.docservice.monitoring;
+
+import com.itq.docservice.dto.SlowQueryEntry;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the most recent statements that ran longer than the threshold, with their parameters and,
+ * when enabled, the plan PostgreSQL chose for exactly those parameters.
+ * <p>
+ * The EXPLAIN runs on the same connection right after the slow statement is closed, inside a savepoint
+ * so that a failing EXPLAIN never aborts the caller's transaction. Only read-only SELECTs are ever run with
+ * ANALYZE (which executes the query a second time), and only for a sampled fraction of captures; a SELECT
+ * that calls {@code nextval}/{@code setval} or locks rows ({@code FOR UPDATE}/{@code FOR SHARE}) is
+ * explained without ANALYZE.
+ * A given SQL text is explained at most once per cooldown, so a burst of identical slow queries costs
+ * one extra round trip rather than one per execution.
+ */
+@Slf4j
+public class SlowQueryLog implements JdbcObserver {
+
+    private static final int MAX_COOLDOWN_ENTRIES = 1000;
+    private static final Pattern SIDE_EFFECTS = Pattern.compile(
+            "\\b(nextval|setval)\\s*\\(|\\bfor\\s+(no\\s+key\\s+update|update|key\\s+share|share)\\b",
+            Pattern.CASE_INSENSITIVE);
+
+    private final long thresholdNanos;
+    private final int capacity;
+    private final boolean explain;
+    private final double analyzeSampleRate;
+    private final long cooldownNanos;
+
+    // Guarded by this
+    private final Deque<SlowQueryEntry> entries;
+    private long captured;
+
+    private final Map<String, Long> lastExplainedNanos = new ConcurrentHashMap<>();
+
+    public SlowQueryLog(Duration threshold, int capacity, boolean explain, double analyzeSampleRate,
+                        Duration explainCooldown) {
+        this.thresholdNanos = threshold.toNanos();
+        this.capacity = Math.max(1, capacity);
+        this.explain = explain;
+        this.analyzeSampleRate = analyzeSampleRate;
+        this.cooldownNanos = explainCooldown.toNanos();
+        this.entries = new ArrayDeque<>(this.capacity);
+    }
+
+    @Override
+    public void executed(ExecutedStatement statement) {
+        if (statement.elapsedNanos() < thresholdNanos) {
+            return;
+        }
+        SlowQueryEntry entry = new SlowQueryEntry(OffsetDateTime.now(), statement.elapsedNanos() / 1_000_000,
+                normalize(statement.sql()), statement.parameters(), source(), statement.batch(), statement.failed(),
+                null, false);
+        log.warn("Slow query ({}ms, {}): {}", entry.getDurationMs(), entry.getSource(), entry.getSql());
+        add(entry);
+        if (explain && statement.sql() != null && !statement.batch() && !statement.failed() && statement.replayable()
+                && dueForExplain(entry)) {
+            statement.onClose(() -> explain(entry, statement));
+        }
+    }
+
+    /** Snapshots of the captured statements, newest first; plans filled in later do not leak into them. */
+    public synchronized List<SlowQueryEntry> entries() {
+        List<SlowQueryEntry> copies = new ArrayList<>(entries.size());
+        for (SlowQueryEntry e : entries) {
+            copies.add(new SlowQueryEntry(e.getCapturedAt(), e.getDurationMs(), e.getSql(), e.getParameters(),
+                    e.getSource(), e.isBatch(), e.isFailed(), e.getPlan(), e.isAnalyzed()));
+        }
+        return copies;
+    }
+
+    /** Statements captured since startup, including those already evicted from the buffer. */
+    public synchronized long captured() {
+        return captured;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    private synchronized void add(SlowQueryEntry entry) {
+        if (entries.size() == capacity) {
+            entries.removeLast();
+        }
+        entries.addFirst(entry);
+        captured++;
+    }
+
+    private boolean dueForExplain(SlowQueryEntry entry) {
+        long now = System.nanoTime();
+        if (lastExplainedNanos.size() > MAX_COOLDOWN_ENTRIES) {
+            lastExplainedNanos.clear();
+        }
+        // compute() is atomic per key, so of concurrent slow runs of one SQL text exactly one wins
+        boolean[] due = new boolean[1];
+        lastExplainedNanos.compute(entry.getSql(), (sql, last) -> {
+            due[0] = last == null || now - last >= cooldownNanos;
+            return due[0] ? now : last;
+        });
+        return due[0];
+    }
+
+    private void explain(SlowQueryEntry entry, ExecutedStatement statement) {
+        boolean analyze = isReadOnlySelect(statement.sql())
+                && ThreadLocalRandom.current().nextDouble() < analyzeSampleRate;
+        String plan;
+        try {
+            plan = explain(statement, analyze);
+        } catch (SQLException | RuntimeException e) {
+            log.debug("EXPLAIN failed for {}: {}", entry.getSql(), e.getMessage());
+            plan = "EXPLAIN failed: " + e.getMessage();
+            analyze = false;
+        }
+        synchronized (this) {
+            entry.setPlan(plan);
+            entry.setAnalyzed(analyze);
+        }
+    }
+
+    private static String explain(ExecutedStatement statement, boolean analyze) throws SQLException {
+        Connection connection = statement.connection();
+        Savepoint savepoint = connection.getAutoCommit() ? null : connection.setSavepoint();
+        try (PreparedStatement ps = connection.prepareStatement(
+                (analyze ? "EXPLAIN (ANALYZE, BUFFERS) " : "EXPLAIN ") + statement.sql())) {
+            statement.bind(ps);
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    plan.append(rs.getString(1)).append('\n');
+                }
+            }
+            if (savepoint != null) {
+                connection.releaseSavepoint(savepoint);
+            }
+            return plan.toString().stripTrailing();
+        } catch (SQLException | RuntimeException e) {
+            if (savepoint != null) {
+                connection.rollback(savepoint);
+            }
+            throw e;
+        }
+    }
+
+    /** A SELECT that is safe to execute a second time: no sequence calls, no row locks. */
+    static boolean isReadOnlySelect(String sql) {
+        return sql.stripLeading().regionMatches(true, 0, "select", 0, 6) && !SIDE_EFFECTS.matcher(sql).find();
+    }
+
+    private static String normalize(String sql) {
+        return sql == null ? "<unknown>" : sql.replaceAll("\\s+", " ").strip();
+    }
+
+    /** The HTTP request or, for workers, the thread that issued the statement. */
+    private static String source() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servlet) {
+            HttpServletRequest request = servlet.getRequest();
+            String query = request.getQueryString();
+            return request.getMethod() + " " + request.getRequestURI() + (query == null ? "" : "?" + query);
+        }
+        return "thread " + Thread.currentThread().getName();
+    }
+}
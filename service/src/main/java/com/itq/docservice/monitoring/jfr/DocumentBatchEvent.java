@@ -0,0 +1,27 @@
+package com.itq.docservice.monitoring.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** One batch create, submit or approve call, whether from the API or from a worker. */
+@Name(DocumentBatchEvent.NAME)
+@Label("Document Batch")
+@Category({"ITQ Document Service", "Batches"})
+@Description("Batch create/submit/approve processed by DocumentService")
+@StackTrace(false)
+public class DocumentBatchEvent extends jdk.jfr.Event {
+
+    public static final String NAME = "com.itq.docservice.DocumentBatch";
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Items")
+    public int items;
+
+    @Label("Succeeded")
+    public int succeeded;
+}
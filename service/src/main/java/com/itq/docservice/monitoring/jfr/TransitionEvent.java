@@ -0,0 +1,57 @@
+package com.itq.docservice.monitoring.jfr;
+
+import com.itq.docservice.entity.DocumentAction;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * One single-document status transition, from the start of its REQUIRES_NEW transaction until the
+ * outcome is known (the commit is not included). Costs nothing measurable unless a recording enables it.
+ */
+@Name(TransitionEvent.NAME)
+@Label("Document Transition")
+@Category({"ITQ Document Service", "Transitions"})
+@Description("Single-document SUBMIT/APPROVE inside its own transaction")
+@StackTrace(false)
+public class TransitionEvent extends jdk.jfr.Event {
+
+    public static final String NAME = "com.itq.docservice.Transition";
+
+    @Label("Document Id")
+    public long documentId;
+
+    @Label("Action")
+    public String action;
+
+    @Label("Result")
+    public String result;
+
+    @Label("Lock Wait")
+    @Description("Time to acquire the row lock (SELECT ... FOR UPDATE)")
+    @Timespan
+    public long lockWait;
+
+    /** Result recorded when the transition throws instead of returning an outcome. */
+    public static final String EXCEPTION = "EXCEPTION";
+
+    public static TransitionEvent start() {
+        TransitionEvent event = new TransitionEvent();
+        event.begin();
+        return event;
+    }
+
+    /** Ends the event and, only if a recording wants it, fills in the fields and commits it. */
+    public void finish(long documentId, DocumentAction action, String result) {
+        end();
+        if (shouldCommit()) {
+            this.documentId = documentId;
+            this.action = action.name();
+            this.result = result;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.itq.docservice.monitoring.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** One non-empty run of SubmitWorker or ApproveWorker. */
+@Name(WorkerBatchEvent.NAME)
+@Label("Worker Batch")
+@Category({"ITQ Document Service", "Workers"})
+@Description("Batch picked up and processed by a background worker")
+@StackTrace(false)
+public class WorkerBatchEvent extends jdk.jfr.Event {
+
+    public static final String NAME = "com.itq.docservice.WorkerBatch";
+
+    @Label("Worker")
+    public String worker;
+
+    @Label("Batch Size")
+    public int batchSize;
+
+    @Label("Succeeded")
+    public int succeeded;
+
+    @Label("Failed")
+    public int failed;
+
+    @Label("Backlog")
+    @Description("Documents waiting in the worker's source status when the batch started")
+    public long backlog;
+}
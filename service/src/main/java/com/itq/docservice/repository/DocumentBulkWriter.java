@@ -0,0 +1,71 @@
+package com.itq.docservice.repository;
+
+import com.itq.docservice.dto.CreateDocumentRequest;
+import com.itq.docservice.entity.DocumentStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.time.OffsetDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inserts many DRAFT documents in one statement: the columns travel as three array parameters
+ * and are expanded by {@code unnest}, so a chunk costs one round trip and one plan regardless of its size
+ * (unlike IDENTITY inserts through JPA, which Hibernate cannot batch).
+ * Joins the caller's transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+public class DocumentBulkWriter {
+
+    private static final String INSERT_DRAFTS = """
+            INSERT INTO documents (number, author, title, status, created_at, updated_at)
+            SELECT u.number, u.author, u.title, ?, ?, ?
+            FROM unnest(?::varchar[], ?::varchar[], ?::varchar[]) AS u(number, author, title)
+            RETURNING number, id
+            """;
+
+    /** Same insert with application-assigned ids (app.ids.snowflake.enabled) as a fourth array. */
+    private static final String INSERT_DRAFTS_WITH_IDS = """
+            INSERT INTO documents (number, author, title, status, created_at, updated_at, id)
+            SELECT u.number, u.author, u.title, ?, ?, ?, u.id
+            FROM unnest(?::varchar[], ?::varchar[], ?::varchar[], ?::bigint[]) AS u(number, author, title, id)
+            RETURNING number, id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @param ids     application-assigned id per row, same order as {@code rows}; null to take them from the
+     *                BIGSERIAL
+     * @param numbers one pre-generated number per row, same order as {@code rows}
+     * @return ids keyed by document number, in insertion order
+     */
+    public Map<String, Long> insertDrafts(List<Long> ids, List<String> numbers, List<CreateDocumentRequest> rows,
+                                          OffsetDateTime createdAt) {
+        if (numbers.size() != rows.size() || (ids != null && ids.size() != rows.size())) {
+            throw new IllegalArgumentException("Expected one number and id per row");
+        }
+        Map<String, Long> inserted = new LinkedHashMap<>(rows.size() * 2);
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(ids == null ? INSERT_DRAFTS : INSERT_DRAFTS_WITH_IDS);
+            ps.setString(1, DocumentStatus.DRAFT.name());
+            ps.setObject(2, createdAt);
+            ps.setObject(3, createdAt);
+            ps.setArray(4, con.createArrayOf("varchar", numbers.toArray()));
+            ps.setArray(5, con.createArrayOf("varchar", rows.stream().map(CreateDocumentRequest::getAuthor).toArray()));
+            ps.setArray(6, con.createArrayOf("varchar", rows.stream().map(CreateDocumentRequest::getTitle).toArray()));
+            if (ids != null) {
+                ps.setArray(7, con.createArrayOf("bigint", ids.toArray()));
+            }
+            return ps;
+        }, rs -> {
+            inserted.put(rs.getString(1), rs.getLong(2));
+        });
+        return inserted;
+    }
+}
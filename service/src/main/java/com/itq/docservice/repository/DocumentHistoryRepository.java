@@ -1,7 +1,37 @@
 package com.itq.docservice.repository;
 
 import com.itq.docservice.entity.DocumentHistory;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
 
 public interface DocumentHistoryRepository extends JpaRepository<DocumentHistory, Long> {
+
+    // Keyset pagination over idx_history_document_performed_at (document_id, performed_at, id).
+
+    @Query("SELECT h FROM DocumentHistory h WHERE h.document.id = :documentId " +
+           "ORDER BY h.performedAt ASC, h.id ASC")
+    List<DocumentHistory> findFirstPage(@Param("documentId") Long documentId, Pageable pageable);
+
+    @Query("SELECT h FROM DocumentHistory h WHERE h.document.id = :documentId " +
+           "AND (h.performedAt, h.id) > (:performedAt, :id) " +
+           "ORDER BY h.performedAt ASC, h.id ASC")
+    List<DocumentHistory> findPageAfter(@Param("documentId") Long documentId,
+                                        @Param("performedAt") OffsetDateTime performedAt,
+                                        @Param("id") Long id,
+                                        Pageable pageable);
+
+    @Query("SELECT h FROM DocumentHistory h WHERE h.document.id = :documentId " +
+           "ORDER BY h.performedAt DESC, h.id DESC")
+    List<DocumentHistory> findLatest(@Param("documentId") Long documentId, Pageable pageable);
+
+    // Batch load for list endpoints: one IN query per page instead of one lazy load per document.
+    @Query("SELECT h FROM DocumentHistory h WHERE h.document.id IN :documentIds " +
+           "ORDER BY h.document.id, h.performedAt ASC, h.id ASC")
+    List<DocumentHistory> findAllByDocumentIds(@Param("documentIds") Collection<Long> documentIds);
 }
@@ -11,6 +11,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import jakarta.persistence.LockModeType;
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,5 +24,16 @@ public interface DocumentRepository extends JpaRepository<Document, Long>, JpaSp
     @Query("SELECT d.id FROM Document d WHERE d.status = :status")
     Page<Long> findIdsByStatus(@Param("status") DocumentStatus status, Pageable pageable);
 
+    /** Oldest-first batch of ids without the count query a {@link Page} would add. */
+    @Query("SELECT d.id FROM Document d WHERE d.status = :status ORDER BY d.createdAt")
+    List<Long> findBatchIdsByStatus(@Param("status") DocumentStatus status, Pageable pageable);
+
+    /**
+     * When the document at the head of a worker's queue (the next {@link #findBatchIdsByStatus} pick)
+     * entered {@code status}; one probe of idx_documents_status_created_at.
+     */
+    @Query("SELECT d.updatedAt FROM Document d WHERE d.status = :status ORDER BY d.createdAt")
+    List<OffsetDateTime> findQueueHeadSince(@Param("status") DocumentStatus status, Pageable pageable);
+
     List<Document> findAllByIdIn(List<Long> ids);
 }
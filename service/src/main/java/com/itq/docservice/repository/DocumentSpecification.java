@@ -1,22 +1,45 @@
 package com.itq.docservice.repository;
 
+import com.itq.docservice.dto.DocumentSearchRequest;
+import com.itq.docservice.config.FullTextFunctionContributor;
 import com.itq.docservice.entity.Document;
 import com.itq.docservice.entity.DocumentStatus;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.time.OffsetDateTime;
+import java.util.Locale;
 
+/**
+ * Search predicates. Shapes are kept index-friendly (see 003-search-indexes.yaml):
+ * author is compared as {@code lower(author) = ?} to hit idx_documents_author_lower_created_at,
+ * status/created_at as plain comparisons to hit idx_documents_status_created_at,
+ * title text via {@code title_tsv @@ query} to hit idx_documents_title_tsv.
+ */
 public class DocumentSpecification {
 
+    public static Specification<Document> matching(DocumentSearchRequest req) {
+        return Specification
+                .where(hasStatus(req.getStatus()))
+                .and(hasAuthor(req.getAuthor()))
+                .and(createdAfter(req.getFrom()))
+                .and(createdBefore(req.getTo()))
+                .and(titleMatches(req.getQ()));
+    }
+
     public static Specification<Document> hasStatus(DocumentStatus status) {
         return (root, query, cb) ->
                 status == null ? cb.conjunction() : cb.equal(root.get("status"), status);
     }
 
     public static Specification<Document> hasAuthor(String author) {
+        // Locale.ROOT: the bound value must be lowered exactly like PostgreSQL's lower(), not per JVM locale
         return (root, query, cb) ->
                 (author == null || author.isBlank()) ? cb.conjunction()
-                        : cb.equal(cb.lower(root.get("author")), author.toLowerCase());
+                        : cb.equal(cb.lower(root.get("author")), author.toLowerCase(Locale.ROOT));
     }
 
     public static Specification<Document> createdAfter(OffsetDateTime from) {
@@ -28,4 +51,34 @@ public class DocumentSpecification {
         return (root, query, cb) ->
                 to == null ? cb.conjunction() : cb.lessThanOrEqualTo(root.get("createdAt"), to);
     }
+
+    /** Full-text match on title (websearch syntax: words, "phrases", -exclusions). */
+    public static Specification<Document> titleMatches(String q) {
+        return (root, query, cb) ->
+                (q == null || q.isBlank()) ? cb.conjunction()
+                        : cb.isTrue(cb.function(FullTextFunctionContributor.MATCH, Boolean.class,
+                                root.get("titleTsv"), text(cb, q)));
+    }
+
+    /**
+     * Orders the data query by relevance to {@code q}, newest first among equals; adds no predicate and
+     * leaves the count query alone. Replaces any Pageable sort, so it is only combined with unsorted pages.
+     */
+    public static Specification<Document> orderedByRelevance(String q) {
+        return (root, query, cb) -> {
+            if (!Long.class.equals(query.getResultType())) {
+                query.orderBy(cb.desc(relevance(root, cb, q)), cb.desc(root.get("id")));
+            }
+            return null;
+        };
+    }
+
+    public static Expression<Double> relevance(Root<Document> root, CriteriaBuilder cb, String q) {
+        return cb.function(FullTextFunctionContributor.RANK, Double.class, root.get("titleTsv"), text(cb, q));
+    }
+
+    // Bound parameter rather than cb.literal(), which Hibernate inlines into function arguments
+    private static Expression<String> text(CriteriaBuilder cb, String q) {
+        return ((HibernateCriteriaBuilder) cb).value(q);
+    }
 }
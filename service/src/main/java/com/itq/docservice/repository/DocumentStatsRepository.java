@@ -0,0 +1,84 @@
+package com.itq.docservice.repository;
+
+import com.itq.docservice.entity.DocumentStats;
+import com.itq.docservice.entity.DocumentStatsId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface DocumentStatsRepository extends JpaRepository<DocumentStats, DocumentStatsId> {
+
+    // Rows are always touched in ascending status order (DRAFT < SUBMITTED < APPROVED),
+    // and document_status_counts before document_stats, so concurrent transitions cannot deadlock.
+
+    @Modifying
+    @Query(value = "INSERT INTO document_status_counts (status, stripe, doc_count) " +
+                   "VALUES (:status, :stripe, :delta) " +
+                   "ON CONFLICT (status, stripe) DO UPDATE " +
+                   "SET doc_count = document_status_counts.doc_count + EXCLUDED.doc_count",
+           nativeQuery = true)
+    void addToStatusTotal(@Param("status") String status,
+                          @Param("stripe") int stripe,
+                          @Param("delta") long delta);
+
+    @Modifying
+    @Query(value = "INSERT INTO document_stats (status, author, day, stripe, doc_count) " +
+                   "VALUES (:status, :author, :day, :stripe, :delta) " +
+                   "ON CONFLICT (status, author, day, stripe) DO UPDATE " +
+                   "SET doc_count = document_stats.doc_count + EXCLUDED.doc_count",
+           nativeQuery = true)
+    void addToStats(@Param("status") String status,
+                    @Param("author") String author,
+                    @Param("day") LocalDate day,
+                    @Param("stripe") int stripe,
+                    @Param("delta") long delta);
+
+    /** Adds {@code counts[i]} to each {@code authors[i]}; authors must be distinct (and sorted, for lock order). */
+    @Modifying
+    @Query(value = "INSERT INTO document_stats (status, author, day, stripe, doc_count) " +
+                   "SELECT :status, u.author, :day, :stripe, u.delta " +
+                   "FROM unnest(CAST(:authors AS varchar[]), CAST(:counts AS bigint[])) AS u(author, delta) " +
+                   "ON CONFLICT (status, author, day, stripe) DO UPDATE " +
+                   "SET doc_count = document_stats.doc_count + EXCLUDED.doc_count",
+           nativeQuery = true)
+    void addToStatsForAuthors(@Param("status") String status,
+                              @Param("authors") String[] authors,
+                              @Param("day") LocalDate day,
+                              @Param("stripe") int stripe,
+                              @Param("counts") long[] counts);
+
+    @Modifying
+    @Query(value = "INSERT INTO document_status_counts (status, stripe, doc_count) " +
+                   "VALUES (:fromStatus, :stripe, -1), (:toStatus, :stripe, 1) " +
+                   "ON CONFLICT (status, stripe) DO UPDATE " +
+                   "SET doc_count = document_status_counts.doc_count + EXCLUDED.doc_count",
+           nativeQuery = true)
+    void moveStatusTotal(@Param("fromStatus") String fromStatus,
+                         @Param("toStatus") String toStatus,
+                         @Param("stripe") int stripe);
+
+    @Modifying
+    @Query(value = "INSERT INTO document_stats (status, author, day, stripe, doc_count) " +
+                   "VALUES (:fromStatus, :author, :day, :stripe, -1), (:toStatus, :author, :day, :stripe, 1) " +
+                   "ON CONFLICT (status, author, day, stripe) DO UPDATE " +
+                   "SET doc_count = document_stats.doc_count + EXCLUDED.doc_count",
+           nativeQuery = true)
+    void moveStats(@Param("fromStatus") String fromStatus,
+                   @Param("toStatus") String toStatus,
+                   @Param("author") String author,
+                   @Param("day") LocalDate day,
+                   @Param("stripe") int stripe);
+
+    @Query(value = "SELECT CAST(COALESCE(SUM(doc_count), 0) AS bigint) FROM document_status_counts WHERE status = :status",
+           nativeQuery = true)
+    long sumStatusTotal(@Param("status") String status);
+
+    /** Rows of {@code [status, total]}. */
+    @Query(value = "SELECT status, CAST(SUM(doc_count) AS bigint) FROM document_status_counts GROUP BY status ORDER BY status",
+           nativeQuery = true)
+    List<Object[]> sumStatusTotals();
+}
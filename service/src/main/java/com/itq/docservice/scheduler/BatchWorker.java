@@ -0,0 +1,11 @@
+package com.itq.docservice.scheduler;
+
+/** A background worker; when and with what batch size it runs is decided by {@link WorkerScheduler}. */
+public interface BatchWorker {
+
+    /** Worker name used in the admin API, configuration ({@code app.workers.<name>.*}) and meter tags. */
+    String name();
+
+    /** Moves at most {@code batchSize} waiting documents to the next status. */
+    void process(int batchSize);
+}
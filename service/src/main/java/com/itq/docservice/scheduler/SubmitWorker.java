@@ -2,15 +2,14 @@ package com.itq.docservice.scheduler;
 
 import com.itq.docservice.dto.BatchStatusResult;
 import com.itq.docservice.entity.DocumentStatus;
+import com.itq.docservice.monitoring.jfr.WorkerBatchEvent;
 import com.itq.docservice.repository.DocumentRepository;
+import com.itq.docservice.service.DocumentMetrics;
 import com.itq.docservice.service.DocumentService;
+import com.itq.docservice.service.DocumentStatsService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
@@ -18,27 +17,31 @@ import java.util.List;
 @Slf4j
 @Component
 @RequiredArgsConstructor
-@ConditionalOnProperty(name = "app.workers.submit.enabled", havingValue = "true", matchIfMissing = true)
-public class SubmitWorker {
+public class SubmitWorker implements BatchWorker {
 
     private final DocumentRepository documentRepository;
     private final DocumentService documentService;
+    private final DocumentStatsService statsService;
+    private final WorkerActivity activity;
 
-    @Value("${app.batch-size:50}")
-    private int batchSize;
+    @Override
+    public String name() {
+        return DocumentMetrics.SUBMIT;
+    }
 
-    @Scheduled(fixedDelayString = "${app.workers.submit.fixed-delay-ms:10000}")
-    public void process() {
-        Page<Long> page = documentRepository.findIdsByStatus(
+    @Override
+    public void process(int batchSize) {
+        WorkerBatchEvent event = new WorkerBatchEvent();
+        event.begin();
+        List<Long> ids = documentRepository.findBatchIdsByStatus(
                 DocumentStatus.DRAFT, PageRequest.of(0, batchSize));
 
-        if (page.isEmpty()) {
+        if (ids.isEmpty()) {
             log.debug("[SUBMIT-worker] No DRAFT documents to process");
             return;
         }
 
-        List<Long> ids = page.getContent();
-        long total = page.getTotalElements();
+        long total = statsService.countByStatus(DocumentStatus.DRAFT);
         log.info("[SUBMIT-worker] Processing batch: {} documents (total DRAFT: {})", ids.size(), total);
         long start = System.currentTimeMillis();
 
@@ -46,6 +49,16 @@ public class SubmitWorker {
 
         long success = results.stream().filter(r -> r.getResult() == BatchStatusResult.ResultCode.SUCCESS).count();
         long failed = results.size() - success;
+        activity.batchFinished(DocumentMetrics.SUBMIT, ids.size(), (int) success, System.currentTimeMillis() - start);
+        event.end();
+        if (event.shouldCommit()) {
+            event.worker = DocumentMetrics.SUBMIT;
+            event.batchSize = ids.size();
+            event.succeeded = (int) success;
+            event.failed = (int) failed;
+            event.backlog = total;
+            event.commit();
+        }
         log.info("[SUBMIT-worker] Batch done in {}ms: success={}, failed={}, remaining≈{}",
                 System.currentTimeMillis() - start, success, failed, Math.max(0, total - ids.size()));
     }
@@ -0,0 +1,53 @@
+package com.itq.docservice.scheduler;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * What each background worker did last: when it last ran, when it last moved a document forward and how
+ * its latest batch went. Read by the pipeline health and info contributors.
+ */
+@Component
+public class WorkerActivity {
+
+    private final Instant startedAt = Instant.now();
+    private final Map<String, Snapshot> workers = new ConcurrentHashMap<>();
+
+    public record LastBatch(Instant finishedAt, int size, int succeeded, long durationMs) {
+
+        /** Documents moved forward per second of batch wall time. */
+        public double throughput() {
+            return durationMs > 0 ? succeeded * 1000.0 / durationMs : succeeded;
+        }
+    }
+
+    /** Null fields mean "not since startup". */
+    public record Snapshot(Instant lastRunAt, Instant lastSuccessAt, LastBatch lastBatch) {
+
+        static final Snapshot NONE = new Snapshot(null, null, null);
+    }
+
+    public void runFinished(String worker) {
+        Instant now = Instant.now();
+        workers.merge(worker, new Snapshot(now, null, null),
+                (old, ignored) -> new Snapshot(now, old.lastSuccessAt(), old.lastBatch()));
+    }
+
+    public void batchFinished(String worker, int size, int succeeded, long durationMs) {
+        Instant now = Instant.now();
+        LastBatch batch = new LastBatch(now, size, succeeded, durationMs);
+        workers.merge(worker, new Snapshot(now, succeeded > 0 ? now : null, batch),
+                (old, ignored) -> new Snapshot(now, succeeded > 0 ? now : old.lastSuccessAt(), batch));
+    }
+
+    public Snapshot snapshot(String worker) {
+        return workers.getOrDefault(worker, Snapshot.NONE);
+    }
+
+    public Instant startedAt() {
+        return startedAt;
+    }
+}
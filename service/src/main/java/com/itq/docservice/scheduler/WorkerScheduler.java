@@ -0,0 +1,265 @@
+package com.itq.docservice.scheduler;
+
+import com.itq.docservice.dto.WorkerState;
+import com.itq.docservice.exception.WorkerNotFoundException;
+import com.itq.docservice.service.DocumentMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Runs the {@link BatchWorker}s with a fixed delay between the end of one run and the start of the next,
+ * like {@code @Scheduled(fixedDelay)}, but with the delay, batch size and paused flag held in memory so the
+ * admin API can change them without a restart.
+ * <p>
+ * Each worker has at most one pending run on the {@link TaskScheduler}; changing the delay or triggering a
+ * run replaces it. Runs of one worker never overlap: a trigger that arrives mid-run starts the next run as
+ * soon as the current one ends. Initial settings come from {@code app.workers.<name>.enabled},
+ * {@code fixed-delay-ms} and {@code batch-size} (falling back to {@code app.batch-size}); a worker disabled
+ * there starts paused and can be resumed at runtime.
+ */
+@Slf4j
+@Component
+public class WorkerScheduler {
+
+    private final TaskScheduler taskScheduler;
+    private final DocumentMetrics metrics;
+    private final WorkerActivity activity;
+    private final Map<String, Handle> handles = new LinkedHashMap<>();
+
+    public WorkerScheduler(List<BatchWorker> workers, TaskScheduler taskScheduler, DocumentMetrics metrics,
+                           WorkerActivity activity, Environment env) {
+        this.taskScheduler = taskScheduler;
+        this.metrics = metrics;
+        this.activity = activity;
+        int defaultBatchSize = env.getProperty("app.batch-size", Integer.class, 50);
+        for (BatchWorker worker : workers) {
+            String prefix = "app.workers." + worker.name() + ".";
+            Handle handle = new Handle(worker,
+                    !env.getProperty(prefix + "enabled", Boolean.class, true),
+                    env.getProperty(prefix + "batch-size", Integer.class, defaultBatchSize),
+                    env.getProperty(prefix + "fixed-delay-ms", Long.class, 10_000L));
+            handles.put(worker.name(), handle);
+            metrics.registerWorker(worker.name(), () -> handle.paused, () -> handle.batchSize,
+                    () -> handle.fixedDelayMs);
+        }
+    }
+
+    /** Per-worker settings and scheduling state; mutable fields are guarded by the handle itself. */
+    private static final class Handle {
+
+        final BatchWorker worker;
+        volatile boolean paused;
+        volatile int batchSize;
+        volatile long fixedDelayMs;
+
+        ScheduledFuture<?> next;
+        Instant nextRunAt;
+        /** Bumped on every schedule, so that a run cancelled too late to stop still sees it is stale */
+        long generation;
+        boolean running;
+        boolean runRequested;
+        /** End of the previous run, null before the first one */
+        Instant lastRunEnd;
+
+        Handle(BatchWorker worker, boolean paused, int batchSize, long fixedDelayMs) {
+            this.worker = worker;
+            this.paused = paused;
+            this.batchSize = batchSize;
+            this.fixedDelayMs = fixedDelayMs;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        for (Handle handle : handles.values()) {
+            synchronized (handle) {
+                if (!handle.paused) {
+                    schedule(handle, Instant.now());
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        for (Handle handle : handles.values()) {
+            synchronized (handle) {
+                cancel(handle);
+            }
+        }
+    }
+
+    // ── Admin operations ──────────────────────────────────────────────────────
+
+    public List<WorkerState> states() {
+        return handles.values().stream().map(this::state).toList();
+    }
+
+    public WorkerState state(String name) {
+        return state(handle(name));
+    }
+
+    public boolean isPaused(String name) {
+        return handle(name).paused;
+    }
+
+    /** Stops scheduling new runs; a run in progress finishes its batch. */
+    public WorkerState pause(String name) {
+        Handle handle = handle(name);
+        synchronized (handle) {
+            handle.paused = true;
+            handle.runRequested = false;
+            cancel(handle);
+        }
+        log.info("[{}-worker] Paused", label(handle));
+        return state(handle);
+    }
+
+    /** Resumes the fixed-delay schedule; overdue workers run right away. */
+    public WorkerState resume(String name) {
+        Handle handle = handle(name);
+        synchronized (handle) {
+            handle.paused = false;
+            if (!handle.running && handle.next == null) {
+                schedule(handle, dueAfterLastRun(handle));
+            }
+        }
+        log.info("[{}-worker] Resumed", label(handle));
+        return state(handle);
+    }
+
+    /** Applies the non-null settings; a new delay also moves the pending run. */
+    public WorkerState update(String name, Integer batchSize, Long fixedDelayMs) {
+        Handle handle = handle(name);
+        synchronized (handle) {
+            if (batchSize != null) {
+                handle.batchSize = batchSize;
+            }
+            if (fixedDelayMs != null) {
+                handle.fixedDelayMs = fixedDelayMs;
+                if (handle.next != null) {
+                    cancel(handle);
+                    schedule(handle, dueAfterLastRun(handle));
+                }
+            }
+        }
+        log.info("[{}-worker] Settings changed: batchSize={}, fixedDelayMs={}",
+                label(handle), handle.batchSize, handle.fixedDelayMs);
+        return state(handle);
+    }
+
+    /** Runs the worker once as soon as possible, also while paused (it stays paused afterwards). */
+    public WorkerState trigger(String name) {
+        Handle handle = handle(name);
+        synchronized (handle) {
+            if (handle.running) {
+                handle.runRequested = true;
+            } else {
+                cancel(handle);
+                schedule(handle, Instant.now());
+            }
+        }
+        log.info("[{}-worker] Run triggered", label(handle));
+        return state(handle);
+    }
+
+    // ── Scheduling ────────────────────────────────────────────────────────────
+
+    private void run(Handle handle, long generation) {
+        Instant due;
+        int batchSize;
+        synchronized (handle) {
+            if (handle.running || handle.generation != generation) {
+                return;
+            }
+            due = handle.nextRunAt;
+            handle.running = true;
+            handle.next = null;
+            handle.nextRunAt = null;
+            batchSize = handle.batchSize;
+        }
+        long runStart = System.nanoTime();
+        metrics.recordWorkerLag(handle.worker.name(), Duration.between(due, Instant.now()).toNanos());
+        try {
+            handle.worker.process(batchSize);
+        } catch (RuntimeException e) {
+            log.error("[{}-worker] Run failed", label(handle), e);
+        } finally {
+            metrics.recordWorkerRun(handle.worker.name(), System.nanoTime() - runStart);
+            activity.runFinished(handle.worker.name());
+            synchronized (handle) {
+                handle.running = false;
+                handle.lastRunEnd = Instant.now();
+                if (handle.runRequested) {
+                    handle.runRequested = false;
+                    schedule(handle, Instant.now());
+                } else if (!handle.paused) {
+                    schedule(handle, dueAfterLastRun(handle));
+                }
+            }
+        }
+    }
+
+    private void schedule(Handle handle, Instant at) {
+        long generation = ++handle.generation;
+        handle.nextRunAt = at;
+        handle.next = taskScheduler.schedule(() -> run(handle, generation), at);
+    }
+
+    private static void cancel(Handle handle) {
+        handle.generation++;
+        if (handle.next != null) {
+            handle.next.cancel(false);
+            handle.next = null;
+            handle.nextRunAt = null;
+        }
+    }
+
+    private static Instant dueAfterLastRun(Handle handle) {
+        Instant now = Instant.now();
+        if (handle.lastRunEnd == null) {
+            return now;
+        }
+        Instant due = handle.lastRunEnd.plusMillis(handle.fixedDelayMs);
+        return due.isBefore(now) ? now : due;
+    }
+
+    private WorkerState state(Handle handle) {
+        WorkerActivity.Snapshot snapshot = activity.snapshot(handle.worker.name());
+        synchronized (handle) {
+            return new WorkerState(handle.worker.name(), handle.paused, handle.running, handle.batchSize,
+                    handle.fixedDelayMs, toOffset(handle.nextRunAt), toOffset(snapshot.lastRunAt()),
+                    toOffset(snapshot.lastSuccessAt()));
+        }
+    }
+
+    private Handle handle(String name) {
+        Handle handle = handles.get(name);
+        if (handle == null) {
+            throw new WorkerNotFoundException(name);
+        }
+        return handle;
+    }
+
+    private static String label(Handle handle) {
+        return handle.worker.name().toUpperCase();
+    }
+
+    private static OffsetDateTime toOffset(Instant instant) {
+        return instant == null ? null : OffsetDateTime.ofInstant(instant, ZoneId.systemDefault());
+    }
+}
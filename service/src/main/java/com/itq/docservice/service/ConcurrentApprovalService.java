@@ -22,6 +22,7 @@ public class ConcurrentApprovalService {
 
     private final DocumentTransactionService txService;
     private final DocumentRepository documentRepository;
+    private final DocumentMetrics metrics;
 
     public ConcurrentApprovalResult test(Long documentId, ConcurrentApprovalRequest req) {
         documentRepository.findById(documentId)
@@ -40,9 +41,9 @@ public class ConcurrentApprovalService {
             final int attempt = i;
             futures.add(executor.submit(() -> {
                 latch.await();
-                return txService.approveOne(documentId,
+                return metrics.transition(DocumentMetrics.APPROVE, () -> txService.approveOne(documentId,
                         req.getInitiator() + "-" + attempt,
-                        "concurrent test attempt " + attempt);
+                        "concurrent test attempt " + attempt));
             }));
         }
 
@@ -0,0 +1,90 @@
+package com.itq.docservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.itq.docservice.dto.DocumentExportRow;
+import com.itq.docservice.dto.DocumentSearchRequest;
+import com.itq.docservice.dto.FileFormat;
+import com.itq.docservice.entity.Document;
+import com.itq.docservice.repository.DocumentSpecification;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams every document matching a search filter without paging.
+ * <p>
+ * Rows come from a forward-only server-side cursor (PostgreSQL only uses one inside a transaction and with a
+ * positive fetch size) as constructor-expression projections, so nothing enters the persistence context and
+ * heap use is bounded by the fetch size rather than the result size.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DocumentExportService {
+
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.export.fetch-size:1000}")
+    private int fetchSize;
+
+    /** Writes the export to {@code out} (left open) and returns the number of rows written. */
+    @Transactional(readOnly = true)
+    public long export(DocumentSearchRequest req, FileFormat format, boolean gzip, OutputStream out)
+            throws IOException {
+        long start = System.currentTimeMillis();
+        GZIPOutputStream gzipOut = gzip ? new GZIPOutputStream(out, GZIP_BUFFER_SIZE) : null;
+        DocumentExportWriter writer = DocumentExportWriter.create(format, gzip ? gzipOut : out, objectMapper);
+
+        long rows = 0;
+        try (Stream<DocumentExportRow> stream = entityManager.createQuery(buildQuery(req))
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .getResultStream()) {
+            Iterator<DocumentExportRow> it = stream.iterator();
+            while (it.hasNext()) {
+                writer.write(it.next());
+                rows++;
+            }
+        }
+        writer.finish();
+        if (gzipOut != null) {
+            gzipOut.finish();
+        }
+
+        log.info("Export finished: {} rows, format={}, gzip={}, {}ms",
+                rows, format, gzip, System.currentTimeMillis() - start);
+        return rows;
+    }
+
+    private CriteriaQuery<DocumentExportRow> buildQuery(DocumentSearchRequest req) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<DocumentExportRow> query = cb.createQuery(DocumentExportRow.class);
+        Root<Document> root = query.from(Document.class);
+        query.select(cb.construct(DocumentExportRow.class,
+                root.get("id"), root.get("number"), root.get("author"), root.get("title"),
+                root.get("status"), root.get("createdAt"), root.get("updatedAt")));
+        query.where(DocumentSpecification.matching(req).toPredicate(root, query, cb));
+        if (req.getQ() == null || req.getQ().isBlank()) {
+            // Stable order for diffable exports
+            query.orderBy(cb.asc(root.get("id")));
+        } else {
+            query.orderBy(cb.desc(DocumentSpecification.relevance(root, cb, req.getQ())), cb.desc(root.get("id")));
+        }
+        return query;
+    }
+}
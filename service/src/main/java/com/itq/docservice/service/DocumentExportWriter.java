@@ -0,0 +1,108 @@
+package com.itq.docservice.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.itq.docservice.dto.DocumentExportRow;
+import com.itq.docservice.dto.FileFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/** Serializes export rows one at a time; nothing is buffered beyond the underlying stream. */
+abstract class DocumentExportWriter {
+
+    static final String CSV_HEADER = "id,number,author,title,status,created_at,updated_at";
+
+    abstract void write(DocumentExportRow row) throws IOException;
+
+    /** Flushes buffered output; does not close the target stream. */
+    abstract void finish() throws IOException;
+
+    static DocumentExportWriter create(FileFormat format, OutputStream out, ObjectMapper objectMapper)
+            throws IOException {
+        return switch (format) {
+            case CSV -> new Csv(out);
+            case NDJSON -> new Ndjson(out, objectMapper);
+        };
+    }
+
+    static final class Csv extends DocumentExportWriter {
+        private final Writer writer;
+
+        Csv(OutputStream out) throws IOException {
+            this.writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        @Override
+        void write(DocumentExportRow row) throws IOException {
+            writer.write(String.valueOf(row.getId()));
+            writer.write(',');
+            writer.write(escape(row.getNumber()));
+            writer.write(',');
+            writer.write(escape(row.getAuthor()));
+            writer.write(',');
+            writer.write(escape(row.getTitle()));
+            writer.write(',');
+            writer.write(row.getStatus().name());
+            writer.write(',');
+            writer.write(String.valueOf(row.getCreatedAt()));
+            writer.write(',');
+            writer.write(String.valueOf(row.getUpdatedAt()));
+            writer.write('\n');
+        }
+
+        @Override
+        void finish() throws IOException {
+            writer.flush();
+        }
+
+        // RFC 4180: quote fields containing a delimiter, quote or line break; double embedded quotes
+        static String escape(String value) {
+            if (value == null) {
+                return "";
+            }
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            return quote ? '"' + value.replace("\"", "\"\"") + '"' : value;
+        }
+    }
+
+    static final class Ndjson extends DocumentExportWriter {
+        private final OutputStream out;
+        private final SequenceWriter writer;
+        private boolean empty = true;
+
+        Ndjson(OutputStream out, ObjectMapper objectMapper) throws IOException {
+            this.out = out;
+            this.writer = objectMapper.writer()
+                    .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .withRootValueSeparator("\n")
+                    .writeValues(out);
+        }
+
+        @Override
+        void write(DocumentExportRow row) throws IOException {
+            writer.write(row);
+            empty = false;
+        }
+
+        @Override
+        void finish() throws IOException {
+            // Closing the SequenceWriter flushes the generator; AUTO_CLOSE_TARGET keeps the stream open
+            writer.close();
+            if (!empty) {
+                // The root separator only goes between values; NDJSON terminates every line
+                out.write('\n');
+            }
+        }
+    }
+}
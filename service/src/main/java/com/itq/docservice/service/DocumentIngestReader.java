@@ -0,0 +1,167 @@
+package com.itq.docservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.itq.docservice.dto.CreateDocumentRequest;
+import com.itq.docservice.dto.FileFormat;
+import com.itq.docservice.exception.InvalidBulkInputException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Parses a bulk ingest body one row at a time, so the body is never held in memory.
+ * A malformed row is returned with an error rather than aborting the whole input.
+ */
+abstract class DocumentIngestReader {
+
+    /** One input row; exactly one of {@code request} and {@code error} is set. */
+    record Row(long line, CreateDocumentRequest request, String error) {
+    }
+
+    /** Next row, or {@code null} at end of input. */
+    abstract Row next() throws IOException;
+
+    static DocumentIngestReader create(FileFormat format, InputStream in, ObjectMapper objectMapper)
+            throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        return switch (format) {
+            case CSV -> new Csv(reader);
+            case NDJSON -> new Ndjson(reader, objectMapper);
+        };
+    }
+
+    static final class Ndjson extends DocumentIngestReader {
+        private final BufferedReader reader;
+        private final ObjectMapper objectMapper;
+        private long line;
+
+        Ndjson(BufferedReader reader, ObjectMapper objectMapper) {
+            this.reader = reader;
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        Row next() throws IOException {
+            String text;
+            do {
+                text = reader.readLine();
+                line++;
+            } while (text != null && text.isBlank());
+            if (text == null) {
+                return null;
+            }
+            try {
+                return new Row(line, objectMapper.readValue(text, CreateDocumentRequest.class), null);
+            } catch (JsonProcessingException e) {
+                return new Row(line, null, "Malformed JSON: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    /** RFC 4180 CSV with a header row naming at least the {@code author} and {@code title} columns. */
+    static final class Csv extends DocumentIngestReader {
+        private final BufferedReader reader;
+        private final int authorColumn;
+        private final int titleColumn;
+        private long line;
+        private String recordError;
+
+        Csv(BufferedReader reader) throws IOException {
+            this.reader = reader;
+            List<String> header = readRecord();
+            if (header == null) {
+                throw new InvalidBulkInputException("CSV body is empty; expected a header row");
+            }
+            List<String> names = header.stream().map(h -> h.strip().toLowerCase(Locale.ROOT)).toList();
+            this.authorColumn = names.indexOf("author");
+            this.titleColumn = names.indexOf("title");
+            if (authorColumn < 0 || titleColumn < 0) {
+                throw new InvalidBulkInputException("CSV header must contain 'author' and 'title' columns");
+            }
+        }
+
+        @Override
+        Row next() throws IOException {
+            List<String> fields;
+            long start;
+            do {
+                start = line + 1;
+                fields = readRecord();
+            } while (fields != null && fields.size() == 1 && fields.get(0).isEmpty() && recordError == null);
+            if (fields == null) {
+                return null;
+            }
+            if (recordError != null) {
+                return new Row(start, null, recordError);
+            }
+            if (fields.size() <= Math.max(authorColumn, titleColumn)) {
+                return new Row(start, null, "Expected at least " + (Math.max(authorColumn, titleColumn) + 1)
+                        + " columns, got " + fields.size());
+            }
+            CreateDocumentRequest req = new CreateDocumentRequest();
+            req.setAuthor(fields.get(authorColumn));
+            req.setTitle(fields.get(titleColumn));
+            return new Row(start, req, null);
+        }
+
+        /** Reads one record, which may span lines inside quotes; {@code null} at end of input. */
+        private List<String> readRecord() throws IOException {
+            recordError = null;
+            int c = reader.read();
+            if (c < 0) {
+                return null;
+            }
+            line++;
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            while (true) {
+                if (quoted) {
+                    if (c < 0) {
+                        recordError = "Unterminated quoted field";
+                        fields.add(field.toString());
+                        return fields;
+                    }
+                    if (c == '"') {
+                        reader.mark(1);
+                        int peek = reader.read();
+                        if (peek == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            reader.reset();
+                        }
+                    } else {
+                        if (c == '\n') {
+                            line++;
+                        }
+                        field.append((char) c);
+                    }
+                } else if (c < 0 || c == '\n') {
+                    fields.add(stripCarriageReturn(field));
+                    return fields;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '"' && field.isEmpty()) {
+                    quoted = true;
+                } else {
+                    field.append((char) c);
+                }
+                c = reader.read();
+            }
+        }
+
+        private static String stripCarriageReturn(StringBuilder field) {
+            int len = field.length();
+            return len > 0 && field.charAt(len - 1) == '\r' ? field.substring(0, len - 1) : field.toString();
+        }
+    }
+}
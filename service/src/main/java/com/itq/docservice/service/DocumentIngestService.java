@@ -0,0 +1,126 @@
+package com.itq.docservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.itq.docservice.dto.BulkChunkResult;
+import com.itq.docservice.dto.BulkIngestResponse;
+import com.itq.docservice.dto.CreateDocumentRequest;
+import com.itq.docservice.dto.FileFormat;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Loads documents from a streamed NDJSON/CSV body in fixed-size chunks.
+ * <p>
+ * Each chunk takes one block of numbers, one multi-row insert and one counter update, all in its own
+ * transaction: a failing chunk rolls back alone and ingestion continues with the next one.
+ * Invalid rows are rejected individually and never reach the database.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DocumentIngestService {
+
+    static final int MAX_ERRORS_PER_CHUNK = 20;
+
+    private final DocumentTransactionService txService;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.ingest.chunk-size:1000}")
+    private int defaultChunkSize;
+
+    @Value("${app.ingest.max-chunk-size:10000}")
+    private int maxChunkSize;
+
+    public BulkIngestResponse ingest(InputStream body, FileFormat format, Integer chunkSize) throws IOException {
+        int size = Math.max(1, Math.min(chunkSize == null ? defaultChunkSize : chunkSize, maxChunkSize));
+        long start = System.currentTimeMillis();
+        DocumentIngestReader reader = DocumentIngestReader.create(format, body, objectMapper);
+
+        List<BulkChunkResult> chunks = new ArrayList<>();
+        long total = 0;
+        long inserted = 0;
+        List<DocumentIngestReader.Row> rows = new ArrayList<>(size);
+        DocumentIngestReader.Row row;
+        do {
+            row = reader.next();
+            if (row != null) {
+                rows.add(row);
+            }
+            if (rows.size() == size || (row == null && !rows.isEmpty())) {
+                BulkChunkResult result = writeChunk(chunks.size(), rows);
+                chunks.add(result);
+                total += rows.size();
+                inserted += result.getInserted();
+                rows.clear();
+            }
+        } while (row != null);
+
+        long elapsed = System.currentTimeMillis() - start;
+        long rowsPerSecond = elapsed == 0 ? inserted : inserted * 1000 / elapsed;
+        log.info("Bulk ingest finished: {} rows, {} inserted, {} chunks in {}ms ({} rows/s)",
+                total, inserted, chunks.size(), elapsed, rowsPerSecond);
+        return new BulkIngestResponse(total, inserted, total - inserted, elapsed, rowsPerSecond, chunks);
+    }
+
+    private BulkChunkResult writeChunk(int index, List<DocumentIngestReader.Row> rows) {
+        long start = System.currentTimeMillis();
+        List<CreateDocumentRequest> valid = new ArrayList<>(rows.size());
+        List<String> errors = new ArrayList<>();
+        int rejected = 0;
+        for (DocumentIngestReader.Row row : rows) {
+            String error = row.error() != null ? row.error() : validate(row.request());
+            if (error == null) {
+                valid.add(row.request());
+            } else {
+                rejected++;
+                addError(errors, "line " + row.line() + ": " + error);
+            }
+        }
+
+        int inserted = 0;
+        if (!valid.isEmpty()) {
+            try {
+                inserted = txService.createDrafts(valid).size();
+            } catch (DataAccessException e) {
+                log.error("Bulk ingest chunk {} failed: {}", index, e.getMessage());
+                rejected += valid.size();
+                addError(errors, "chunk failed: " + e.getMostSpecificCause().getMessage());
+            }
+        }
+
+        BulkChunkResult.ResultCode code = rejected == 0 ? BulkChunkResult.ResultCode.SUCCESS
+                : inserted == 0 ? BulkChunkResult.ResultCode.FAILED
+                : BulkChunkResult.ResultCode.PARTIAL;
+        return new BulkChunkResult(index, rows.get(0).line(), rows.get(rows.size() - 1).line(),
+                inserted, rejected, code, errors, System.currentTimeMillis() - start);
+    }
+
+    private String validate(CreateDocumentRequest req) {
+        // A literal "null" line parses without error but carries no document
+        if (req == null) {
+            return "Row is not a JSON object";
+        }
+        Set<ConstraintViolation<CreateDocumentRequest>> violations = validator.validate(req);
+        return violations.isEmpty() ? null
+                : violations.stream().map(ConstraintViolation::getMessage).sorted().collect(Collectors.joining("; "));
+    }
+
+    private static void addError(List<String> errors, String error) {
+        if (errors.size() < MAX_ERRORS_PER_CHUNK) {
+            errors.add(error);
+        }
+    }
+}
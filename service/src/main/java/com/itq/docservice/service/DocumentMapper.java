@@ -13,6 +13,13 @@ import java.util.List;
 public class DocumentMapper {
 
     public DocumentResponse toResponse(Document doc, boolean includeHistory) {
+        return toResponse(doc, includeHistory ? doc.getHistory() : Collections.emptyList());
+    }
+
+    /**
+     * Maps a document with an explicitly loaded history slice, bypassing the lazy collection.
+     */
+    public DocumentResponse toResponse(Document doc, List<DocumentHistory> history) {
         DocumentResponse resp = new DocumentResponse();
         resp.setId(doc.getId());
         resp.setNumber(doc.getNumber());
@@ -21,13 +28,15 @@ public class DocumentMapper {
         resp.setStatus(doc.getStatus());
         resp.setCreatedAt(doc.getCreatedAt());
         resp.setUpdatedAt(doc.getUpdatedAt());
+        resp.setHistory(toHistoryResponses(history));
+        return resp;
+    }
 
-        if (includeHistory) {
-            resp.setHistory(doc.getHistory().stream().map(this::toHistoryResponse).toList());
-        } else {
-            resp.setHistory(Collections.emptyList());
+    public List<HistoryEntryResponse> toHistoryResponses(List<DocumentHistory> history) {
+        if (history.isEmpty()) {
+            return Collections.emptyList();
         }
-        return resp;
+        return history.stream().map(this::toHistoryResponse).toList();
     }
 
     private HistoryEntryResponse toHistoryResponse(DocumentHistory h) {
@@ -0,0 +1,136 @@
+package com.itq.docservice.service;
+
+import com.itq.docservice.dto.BatchStatusResult;
+import com.itq.docservice.entity.DocumentStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Micrometer meters for the document lifecycle, exposed through Actuator ({@code /actuator/prometheus}).
+ * <p>
+ * Latency timers publish percentile histograms so that quantiles can be aggregated across instances
+ * on the Prometheus side. Transition timers wrap the REQUIRES_NEW call from outside the proxy, so
+ * they include the commit; lock timers cover only the {@code SELECT ... FOR UPDATE}.
+ */
+@Component
+public class DocumentMetrics {
+
+    public static final String SUBMIT = "submit";
+    public static final String APPROVE = "approve";
+
+    private final MeterRegistry registry;
+    private final Counter created;
+
+    public DocumentMetrics(MeterRegistry registry, DocumentStatsService statsService) {
+        this.registry = registry;
+        this.created = Counter.builder("documents.created")
+                .description("Documents created (single, batch and bulk ingest)")
+                .register(registry);
+        // Read from the striped status counters, so a scrape costs one small aggregate query per status
+        for (DocumentStatus status : new DocumentStatus[]{DocumentStatus.DRAFT, DocumentStatus.SUBMITTED}) {
+            Gauge.builder("documents.backlog", statsService, s -> s.countByStatus(status))
+                    .description("Documents waiting for the next worker transition")
+                    .tag("status", status.name())
+                    .register(registry);
+        }
+    }
+
+    // ── Transitions ───────────────────────────────────────────────────────────
+
+    /** Runs one single-document transition and records its latency tagged with the outcome. */
+    public BatchStatusResult transition(String action, Supplier<BatchStatusResult> call) {
+        long start = System.nanoTime();
+        String result = "EXCEPTION";
+        try {
+            BatchStatusResult outcome = call.get();
+            result = outcome.getResult().name();
+            return outcome;
+        } finally {
+            Timer.builder("documents.transition")
+                    .description("Single-document status transition including commit")
+                    .tag("action", action)
+                    .tag("result", result)
+                    .publishPercentileHistogram()
+                    .register(registry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void recordLockWait(String action, long nanos) {
+        Timer.builder("documents.lock.wait")
+                .description("Time to acquire the document row lock")
+                .tag("action", action)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordBatch(String action, int size, long nanos) {
+        DistributionSummary.builder("documents.batch.size")
+                .description("Documents per submit/approve batch")
+                .baseUnit("documents")
+                .tag("action", action)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(size);
+        Timer.builder("documents.batch.duration")
+                .description("Wall time of a submit/approve batch")
+                .tag("action", action)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    // ── Create ────────────────────────────────────────────────────────────────
+
+    public void recordCreated(int count) {
+        created.increment(count);
+    }
+
+    // ── Workers ───────────────────────────────────────────────────────────────
+
+    /** How much later than scheduled (previous run end + fixed delay, or the trigger time) a worker run started. */
+    public void recordWorkerLag(String worker, long nanos) {
+        Timer.builder("documents.worker.lag")
+                .description("Delay of a worker run past its scheduled start")
+                .tag("worker", worker)
+                .register(registry)
+                .record(Math.max(0, nanos), TimeUnit.NANOSECONDS);
+    }
+
+    /** Current runtime settings of a worker, so that admin changes show up next to the lag and run timers. */
+    public void registerWorker(String worker, BooleanSupplier paused, IntSupplier batchSize, LongSupplier fixedDelayMs) {
+        Gauge.builder("documents.worker.paused", () -> paused.getAsBoolean() ? 1 : 0)
+                .description("1 while the worker is paused")
+                .tag("worker", worker)
+                .register(registry);
+        Gauge.builder("documents.worker.batch.size", batchSize::getAsInt)
+                .description("Documents the worker takes per run")
+                .baseUnit("documents")
+                .tag("worker", worker)
+                .register(registry);
+        TimeGauge.builder("documents.worker.delay", fixedDelayMs::getAsLong, TimeUnit.MILLISECONDS)
+                .description("Fixed delay between the end of a worker run and the start of the next")
+                .tag("worker", worker)
+                .register(registry);
+    }
+
+    public void recordWorkerRun(String worker, long nanos) {
+        Timer.builder("documents.worker.run")
+                .description("Duration of one worker run, empty polls included")
+                .tag("worker", worker)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -3,27 +3,50 @@ package com.itq.docservice.service;
 import com.itq.docservice.dto.*;
 import com.itq.docservice.entity.*;
 import com.itq.docservice.exception.DocumentNotFoundException;
+import com.itq.docservice.exception.InvalidSearchException;
+import com.itq.docservice.monitoring.jfr.DocumentBatchEvent;
 import com.itq.docservice.repository.*;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class DocumentService {
 
+    static final int MAX_HISTORY_PAGE_SIZE = 500;
+
     private final DocumentRepository documentRepository;
+    private final DocumentHistoryRepository historyRepository;
     private final DocumentMapper mapper;
     private final NumberGenerator numberGenerator;
     private final DocumentTransactionService txService;
+    private final DocumentStatsService statsService;
+    private final Validator validator;
+    private final DocumentMetrics metrics;
+
+    /** Items per insert transaction of {@link #batchCreate}; 0 puts the whole batch in one transaction. */
+    @Value("${app.batch-create.chunk-size:0}")
+    private int batchCreateChunkSize;
 
     // ── Create ────────────────────────────────────────────────────────────────
 
@@ -36,10 +59,64 @@ public class DocumentService {
         doc.setStatus(DocumentStatus.DRAFT);
 
         Document saved = documentRepository.save(doc);
+        statsService.recordCreated(saved);
+        metrics.recordCreated(1);
         log.info("Document created: id={}, number={}", saved.getId(), saved.getNumber());
         return mapper.toResponse(saved, false);
     }
 
+    // ── Batch Create ──────────────────────────────────────────────────────────
+    // All items are validated first; the valid ones are inserted with one multi-row statement per
+    // transaction (txService.createDrafts). A failed transaction marks only its own items FAILED.
+
+    public List<BatchCreateResult> batchCreate(BatchCreateRequest req) {
+        DocumentBatchEvent event = new DocumentBatchEvent();
+        event.begin();
+        List<CreateDocumentRequest> items = req.getDocuments();
+        BatchCreateResult[] results = new BatchCreateResult[items.size()];
+        List<Integer> validIndexes = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            String error = validate(items.get(i));
+            if (error == null) {
+                validIndexes.add(i);
+            } else {
+                results[i] = new BatchCreateResult(i, BatchCreateResult.ResultCode.VALIDATION_ERROR, null, error);
+            }
+        }
+
+        int chunkSize = batchCreateChunkSize > 0 ? batchCreateChunkSize : Math.max(1, validIndexes.size());
+        for (int from = 0; from < validIndexes.size(); from += chunkSize) {
+            List<Integer> chunk = validIndexes.subList(from, Math.min(from + chunkSize, validIndexes.size()));
+            try {
+                List<Document> created = txService.createDrafts(chunk.stream().map(items::get).toList());
+                for (int j = 0; j < chunk.size(); j++) {
+                    results[chunk.get(j)] = new BatchCreateResult(chunk.get(j), BatchCreateResult.ResultCode.CREATED,
+                            mapper.toResponse(created.get(j), false), null);
+                }
+            } catch (DataAccessException e) {
+                log.error("Batch create chunk failed: {}", e.getMessage());
+                for (Integer index : chunk) {
+                    results[index] = new BatchCreateResult(index, BatchCreateResult.ResultCode.FAILED, null,
+                            "Insert failed: " + e.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+        log.info("Batch create: {} items, {} valid", items.size(), validIndexes.size());
+        List<BatchCreateResult> outcome = List.of(results);
+        commitBatchEvent(event, "CREATE", items.size(),
+                () -> outcome.stream().filter(r -> r.getResult() == BatchCreateResult.ResultCode.CREATED).count());
+        return outcome;
+    }
+
+    private String validate(CreateDocumentRequest req) {
+        if (req == null) {
+            return "Item must not be null";
+        }
+        Set<ConstraintViolation<CreateDocumentRequest>> violations = validator.validate(req);
+        return violations.isEmpty() ? null
+                : violations.stream().map(ConstraintViolation::getMessage).sorted().collect(Collectors.joining("; "));
+    }
+
     // ── Read ──────────────────────────────────────────────────────────────────
 
     @Transactional(readOnly = true)
@@ -49,36 +126,112 @@ public class DocumentService {
         return mapper.toResponse(doc, true);
     }
 
+    /**
+     * Same as {@link #getDocumentWithHistory(Long)}, but when {@code historyLimit} is set only the
+     * latest entries are embedded (in chronological order); the rest is reachable via {@link #getHistoryPage}.
+     */
+    @Transactional(readOnly = true)
+    public DocumentResponse getDocumentWithHistory(Long id, Integer historyLimit) {
+        if (historyLimit == null) {
+            return getDocumentWithHistory(id);
+        }
+        Document doc = documentRepository.findById(id)
+                .orElseThrow(() -> new DocumentNotFoundException(id));
+        int limit = Math.min(historyLimit, MAX_HISTORY_PAGE_SIZE);
+        if (limit <= 0) {
+            return mapper.toResponse(doc, false);
+        }
+        List<DocumentHistory> latest = new ArrayList<>(historyRepository.findLatest(id, PageRequest.ofSize(limit)));
+        Collections.reverse(latest);
+        return mapper.toResponse(doc, latest);
+    }
+
+    // ── History ───────────────────────────────────────────────────────────────
+    // Keyset pagination: the cursor carries (performedAt, id) of the last returned entry,
+    // so every page is a single index range scan regardless of its position.
+
+    @Transactional(readOnly = true)
+    public HistoryPageResponse getHistoryPage(Long documentId, String cursor, int limit) {
+        if (!documentRepository.existsById(documentId)) {
+            throw new DocumentNotFoundException(documentId);
+        }
+        int pageSize = Math.max(1, Math.min(limit, MAX_HISTORY_PAGE_SIZE));
+        // One extra row tells whether another page exists without a count query
+        Pageable probe = PageRequest.ofSize(pageSize + 1);
+
+        List<DocumentHistory> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = historyRepository.findFirstPage(documentId, probe);
+        } else {
+            HistoryCursor after = HistoryCursor.decode(cursor);
+            rows = historyRepository.findPageAfter(documentId, after.performedAt(), after.id(), probe);
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        List<DocumentHistory> page = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasMore ? HistoryCursor.of(page.get(page.size() - 1)).encode() : null;
+        return new HistoryPageResponse(mapper.toHistoryResponses(page), nextCursor, hasMore);
+    }
+
     @Transactional(readOnly = true)
     public List<DocumentResponse> getDocumentsByIds(List<Long> ids) {
-        return documentRepository.findAllByIdIn(ids).stream()
-                .map(doc -> mapper.toResponse(doc, false))
-                .toList();
+        return toResponses(documentRepository.findAllByIdIn(ids), false);
     }
 
     @Transactional(readOnly = true)
     public Page<DocumentResponse> getDocumentsPaged(List<Long> ids, Pageable pageable) {
+        return getDocumentsPaged(ids, false, pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<DocumentResponse> getDocumentsPaged(List<Long> ids, boolean includeHistory, Pageable pageable) {
         if (ids != null && !ids.isEmpty()) {
             Specification<Document> spec = (root, query, cb) -> root.get("id").in(ids);
-            return documentRepository.findAll(spec, pageable)
-                    .map(doc -> mapper.toResponse(doc, false));
+            return toResponses(documentRepository.findAll(spec, pageable), includeHistory);
         }
-        return documentRepository.findAll(pageable)
-                .map(doc -> mapper.toResponse(doc, false));
+        return toResponses(documentRepository.findAll(pageable), includeHistory);
     }
 
     // ── Search ────────────────────────────────────────────────────────────────
 
     @Transactional(readOnly = true)
     public Page<DocumentResponse> search(DocumentSearchRequest req, Pageable pageable) {
-        Specification<Document> spec = Specification
-                .where(DocumentSpecification.hasStatus(req.getStatus()))
-                .and(DocumentSpecification.hasAuthor(req.getAuthor()))
-                .and(DocumentSpecification.createdAfter(req.getFrom()))
-                .and(DocumentSpecification.createdBefore(req.getTo()));
+        return search(req, false, pageable);
+    }
 
-        return documentRepository.findAll(spec, pageable)
-                .map(doc -> mapper.toResponse(doc, false));
+    @Transactional(readOnly = true)
+    public Page<DocumentResponse> search(DocumentSearchRequest req, boolean includeHistory, Pageable pageable) {
+        Specification<Document> spec = DocumentSpecification.matching(req);
+        if (req.getQ() != null && !req.getQ().isBlank()) {
+            if (pageable.getSort().isSorted()) {
+                throw new InvalidSearchException("sort cannot be combined with q: results are ordered by relevance");
+            }
+            spec = spec.and(DocumentSpecification.orderedByRelevance(req.getQ()));
+        }
+        return toResponses(documentRepository.findAll(spec, pageable), includeHistory);
+    }
+
+    // ── Mapping with batched history ──────────────────────────────────────────
+    // History for a whole page is fetched with a single IN query and grouped in memory,
+    // so touching the lazy Document.history collection per row (N+1) never happens.
+
+    private Page<DocumentResponse> toResponses(Page<Document> page, boolean includeHistory) {
+        if (!includeHistory) {
+            return page.map(doc -> mapper.toResponse(doc, false));
+        }
+        return new PageImpl<>(toResponses(page.getContent(), true), page.getPageable(), page.getTotalElements());
+    }
+
+    private List<DocumentResponse> toResponses(List<Document> docs, boolean includeHistory) {
+        if (!includeHistory || docs.isEmpty()) {
+            return docs.stream().map(doc -> mapper.toResponse(doc, false)).toList();
+        }
+        List<Long> ids = docs.stream().map(Document::getId).toList();
+        Map<Long, List<DocumentHistory>> historyByDocument = historyRepository.findAllByDocumentIds(ids).stream()
+                .collect(Collectors.groupingBy(h -> h.getDocument().getId()));
+        return docs.stream()
+                .map(doc -> mapper.toResponse(doc, historyByDocument.getOrDefault(doc.getId(), List.of())))
+                .toList();
     }
 
     // ── Batch Submit ──────────────────────────────────────────────────────────
@@ -86,26 +239,54 @@ public class DocumentService {
     // Partial failures do not affect other documents.
 
     public List<BatchStatusResult> batchSubmit(BatchStatusRequest req) {
+        DocumentBatchEvent event = new DocumentBatchEvent();
+        event.begin();
+        long start = System.nanoTime();
         List<BatchStatusResult> results = new ArrayList<>(req.getIds().size());
         for (Long id : req.getIds()) {
-            results.add(txService.submitOne(id, req.getInitiator(), req.getComment()));
+            results.add(metrics.transition(DocumentMetrics.SUBMIT,
+                    () -> txService.submitOne(id, req.getInitiator(), req.getComment())));
         }
+        metrics.recordBatch(DocumentMetrics.SUBMIT, results.size(), System.nanoTime() - start);
+        commitBatchEvent(event, "SUBMIT", results.size(), () -> succeeded(results));
         return results;
     }
 
     // ── Batch Approve ─────────────────────────────────────────────────────────
 
     public List<BatchStatusResult> batchApprove(BatchStatusRequest req) {
+        DocumentBatchEvent event = new DocumentBatchEvent();
+        event.begin();
+        long start = System.nanoTime();
         List<BatchStatusResult> results = new ArrayList<>(req.getIds().size());
         for (Long id : req.getIds()) {
-            results.add(txService.approveOne(id, req.getInitiator(), req.getComment()));
+            results.add(metrics.transition(DocumentMetrics.APPROVE,
+                    () -> txService.approveOne(id, req.getInitiator(), req.getComment())));
         }
+        metrics.recordBatch(DocumentMetrics.APPROVE, results.size(), System.nanoTime() - start);
+        commitBatchEvent(event, "APPROVE", results.size(), () -> succeeded(results));
         return results;
     }
 
+    private static long succeeded(List<BatchStatusResult> results) {
+        return results.stream().filter(r -> r.getResult() == BatchStatusResult.ResultCode.SUCCESS).count();
+    }
+
+    /** Counting successes is deferred so that it only happens while a JFR recording wants the event. */
+    private static void commitBatchEvent(DocumentBatchEvent event, String operation, int items,
+                                         LongSupplier succeeded) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.items = items;
+            event.succeeded = (int) succeeded.getAsLong();
+            event.commit();
+        }
+    }
+
     // ── Delegated for ConcurrentApprovalService ───────────────────────────────
 
     public BatchStatusResult approveOne(Long id, String initiator, String comment) {
-        return txService.approveOne(id, initiator, comment);
+        return metrics.transition(DocumentMetrics.APPROVE, () -> txService.approveOne(id, initiator, comment));
     }
 }
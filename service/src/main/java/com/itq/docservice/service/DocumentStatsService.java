@@ -0,0 +1,152 @@
+package com.itq.docservice.service;
+
+import com.itq.docservice.dto.DocumentStatsEntry;
+import com.itq.docservice.dto.StatsDimension;
+import com.itq.docservice.entity.Document;
+import com.itq.docservice.entity.DocumentStats;
+import com.itq.docservice.entity.DocumentStatsId;
+import com.itq.docservice.entity.DocumentStatus;
+import com.itq.docservice.repository.DocumentStatsRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.*;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the document_stats / document_status_counts counters and answers aggregate queries from them.
+ * <p>
+ * Writers join the caller's transaction, so a counter change commits or rolls back together with the
+ * document change it describes. Each write lands on a random stripe so that concurrent writers for the
+ * same (status, author, day) key rarely wait on the same row; readers sum over stripes.
+ */
+@Service
+@RequiredArgsConstructor
+public class DocumentStatsService {
+
+    private final DocumentStatsRepository statsRepository;
+    private final EntityManager entityManager;
+
+    @Value("${app.stats.stripes:16}")
+    private int stripes;
+
+    // ── Write ─────────────────────────────────────────────────────────────────
+
+    @Transactional
+    public void recordCreated(Document doc) {
+        int stripe = nextStripe();
+        String status = doc.getStatus().name();
+        statsRepository.addToStatusTotal(status, stripe, 1);
+        statsRepository.addToStats(status, doc.getAuthor(), dayOf(doc), stripe, 1);
+    }
+
+    /** Bulk counterpart of {@link #recordCreated(Document)} for DRAFT rows inserted outside JPA. */
+    @Transactional
+    public void recordCreated(List<String> authors, OffsetDateTime createdAt) {
+        if (authors.isEmpty()) {
+            return;
+        }
+        // Sorted so concurrent chunks lock the same rows in the same order
+        Map<String, Long> byAuthor = authors.stream()
+                .collect(Collectors.groupingBy(Function.identity(), TreeMap::new, Collectors.counting()));
+        int stripe = nextStripe();
+        String status = DocumentStatus.DRAFT.name();
+        statsRepository.addToStatusTotal(status, stripe, authors.size());
+        statsRepository.addToStatsForAuthors(status,
+                byAuthor.keySet().toArray(String[]::new),
+                createdAt.withOffsetSameInstant(ZoneOffset.UTC).toLocalDate(),
+                stripe,
+                byAuthor.values().stream().mapToLong(Long::longValue).toArray());
+    }
+
+    /** {@code from} must precede {@code to} in the lifecycle — rows are locked in that order. */
+    @Transactional
+    public void recordTransition(Document doc, DocumentStatus from, DocumentStatus to) {
+        int stripe = nextStripe();
+        statsRepository.moveStatusTotal(from.name(), to.name(), stripe);
+        statsRepository.moveStats(from.name(), to.name(), doc.getAuthor(), dayOf(doc), stripe);
+    }
+
+    // ── Read ──────────────────────────────────────────────────────────────────
+
+    @Transactional(readOnly = true)
+    public long countByStatus(DocumentStatus status) {
+        return statsRepository.sumStatusTotal(status.name());
+    }
+
+    @Transactional(readOnly = true)
+    public List<DocumentStatsEntry> query(Set<StatsDimension> groupBy, LocalDate from, LocalDate to) {
+        Set<StatsDimension> dimensions = groupBy == null || groupBy.isEmpty()
+                ? EnumSet.of(StatsDimension.STATUS)
+                : EnumSet.copyOf(groupBy);
+
+        if (dimensions.equals(EnumSet.of(StatsDimension.STATUS)) && from == null && to == null) {
+            return statsRepository.sumStatusTotals().stream()
+                    .map(row -> new DocumentStatsEntry(
+                            DocumentStatus.valueOf((String) row[0]), null, null, ((Number) row[1]).longValue()))
+                    .toList();
+        }
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<DocumentStats> root = query.from(DocumentStats.class);
+        Path<DocumentStatsId> id = root.get("id");
+
+        List<Expression<?>> keys = new ArrayList<>();
+        List<Selection<?>> selections = new ArrayList<>();
+        for (StatsDimension dimension : dimensions) {
+            Path<?> key = id.get(dimension.name().toLowerCase(Locale.ROOT));
+            keys.add(key);
+            selections.add(key.alias(dimension.name()));
+        }
+        Expression<Long> total = cb.sum(root.<Long>get("docCount"));
+        selections.add(total.alias("count"));
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (from != null) {
+            predicates.add(cb.greaterThanOrEqualTo(id.get("day"), from));
+        }
+        if (to != null) {
+            predicates.add(cb.lessThanOrEqualTo(id.get("day"), to));
+        }
+
+        query.multiselect(selections)
+                .where(predicates.toArray(Predicate[]::new))
+                .groupBy(keys)
+                // A key whose documents all moved on nets to zero but keeps its rows
+                .having(cb.notEqual(total, 0L))
+                .orderBy(keys.stream().map(cb::asc).toList());
+
+        return entityManager.createQuery(query).getResultList().stream()
+                .map(t -> new DocumentStatsEntry(
+                        dimensions.contains(StatsDimension.STATUS) ? t.get("STATUS", DocumentStatus.class) : null,
+                        dimensions.contains(StatsDimension.AUTHOR) ? t.get("AUTHOR", String.class) : null,
+                        dimensions.contains(StatsDimension.DAY) ? t.get("DAY", LocalDate.class) : null,
+                        t.get("count", Long.class)))
+                .toList();
+    }
+
+    private int nextStripe() {
+        return stripes > 1 ? ThreadLocalRandom.current().nextInt(stripes) : 0;
+    }
+
+    private static LocalDate dayOf(Document doc) {
+        return doc.getCreatedAt().withOffsetSameInstant(ZoneOffset.UTC).toLocalDate();
+    }
+}
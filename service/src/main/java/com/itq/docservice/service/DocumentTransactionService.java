@@ -1,17 +1,25 @@
 package com.itq.docservice.service;
 
 import com.itq.docservice.dto.BatchStatusResult;
+import com.itq.docservice.dto.CreateDocumentRequest;
 import com.itq.docservice.entity.*;
+import com.itq.docservice.monitoring.jfr.TransitionEvent;
 import com.itq.docservice.repository.ApprovalRegistryRepository;
+import com.itq.docservice.repository.DocumentBulkWriter;
 import com.itq.docservice.repository.DocumentHistoryRepository;
 import com.itq.docservice.repository.DocumentRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 /**
  * Handles single-document status transitions in dedicated transactions (REQUIRES_NEW).
@@ -26,10 +34,69 @@ public class DocumentTransactionService {
     private final DocumentRepository documentRepository;
     private final DocumentHistoryRepository historyRepository;
     private final ApprovalRegistryRepository registryRepository;
+    private final DocumentStatsService statsService;
+    private final DocumentBulkWriter bulkWriter;
+    private final NumberGenerator numberGenerator;
+    private final DocumentMetrics metrics;
+    /** Present with app.ids.snowflake.enabled; shared with the Hibernate id generator of {@link Document}. */
+    private final ObjectProvider<SnowflakeSequence> snowflakeSequence;
+
+    /**
+     * Inserts already-validated DRAFT documents as one multi-row statement, numbering them from one block.
+     * Returns the inserted documents (detached, without history) in request order.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public List<Document> createDrafts(List<CreateDocumentRequest> requests) {
+        OffsetDateTime now = OffsetDateTime.now();
+        List<String> numbers = numberGenerator.generate(requests.size());
+        SnowflakeSequence sequence = snowflakeSequence.getIfAvailable();
+        List<Long> assigned = sequence == null ? null
+                : requests.stream().map(r -> sequence.next()).toList();
+        Map<String, Long> ids = bulkWriter.insertDrafts(assigned, numbers, requests, now);
+        statsService.recordCreated(requests.stream().map(CreateDocumentRequest::getAuthor).toList(), now);
+        metrics.recordCreated(requests.size());
+
+        List<Document> created = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            Document doc = new Document();
+            doc.setId(ids.get(numbers.get(i)));
+            doc.setNumber(numbers.get(i));
+            doc.setAuthor(requests.get(i).getAuthor());
+            doc.setTitle(requests.get(i).getTitle());
+            doc.setStatus(DocumentStatus.DRAFT);
+            doc.setCreatedAt(now);
+            doc.setUpdatedAt(now);
+            created.add(doc);
+        }
+        return created;
+    }
 
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     public BatchStatusResult submitOne(Long id, String initiator, String comment) {
-        Document doc = documentRepository.findByIdForUpdate(id).orElse(null);
+        return traced(id, DocumentAction.SUBMIT, event -> submit(id, initiator, comment, event));
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public BatchStatusResult approveOne(Long id, String initiator, String comment) {
+        return traced(id, DocumentAction.APPROVE, event -> approve(id, initiator, comment, event));
+    }
+
+    /** Wraps one transition in a JFR event; a transition that throws is recorded as EXCEPTION. */
+    private BatchStatusResult traced(Long id, DocumentAction action,
+                                     Function<TransitionEvent, BatchStatusResult> call) {
+        TransitionEvent event = TransitionEvent.start();
+        String result = TransitionEvent.EXCEPTION;
+        try {
+            BatchStatusResult outcome = call.apply(event);
+            result = outcome.getResult().name();
+            return outcome;
+        } finally {
+            event.finish(id, action, result);
+        }
+    }
+
+    private BatchStatusResult submit(Long id, String initiator, String comment, TransitionEvent event) {
+        Document doc = lockDocument(DocumentMetrics.SUBMIT, id, event);
         if (doc == null) {
             return new BatchStatusResult(id, BatchStatusResult.ResultCode.NOT_FOUND, "Document not found");
         }
@@ -40,15 +107,15 @@ public class DocumentTransactionService {
 
         doc.setStatus(DocumentStatus.SUBMITTED);
         historyRepository.save(buildHistory(doc, initiator, DocumentAction.SUBMIT, comment));
+        statsService.recordTransition(doc, DocumentStatus.DRAFT, DocumentStatus.SUBMITTED);
 
         log.info("Document {} submitted by {}", id, initiator);
         return new BatchStatusResult(id, BatchStatusResult.ResultCode.SUCCESS, "Submitted");
     }
 
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
-    public BatchStatusResult approveOne(Long id, String initiator, String comment) {
+    private BatchStatusResult approve(Long id, String initiator, String comment, TransitionEvent event) {
         try {
-            Document doc = documentRepository.findByIdForUpdate(id).orElse(null);
+            Document doc = lockDocument(DocumentMetrics.APPROVE, id, event);
             if (doc == null) {
                 return new BatchStatusResult(id, BatchStatusResult.ResultCode.NOT_FOUND, "Document not found");
             }
@@ -59,6 +126,7 @@ public class DocumentTransactionService {
 
             doc.setStatus(DocumentStatus.APPROVED);
             historyRepository.save(buildHistory(doc, initiator, DocumentAction.APPROVE, comment));
+            statsService.recordTransition(doc, DocumentStatus.SUBMITTED, DocumentStatus.APPROVED);
 
             // Registry insert — if it fails (e.g. duplicate key), exception propagates and rolls back
             ApprovalRegistry entry = new ApprovalRegistry();
@@ -82,6 +150,17 @@ public class DocumentTransactionService {
         }
     }
 
+    private Document lockDocument(String action, Long id, TransitionEvent event) {
+        long start = System.nanoTime();
+        try {
+            return documentRepository.findByIdForUpdate(id).orElse(null);
+        } finally {
+            long waited = System.nanoTime() - start;
+            metrics.recordLockWait(action, waited);
+            event.lockWait = waited;
+        }
+    }
+
     private DocumentHistory buildHistory(Document doc, String performedBy,
                                          DocumentAction action, String comment) {
         DocumentHistory h = new DocumentHistory();
@@ -0,0 +1,38 @@
+package com.itq.docservice.service;
+
+import com.itq.docservice.entity.DocumentHistory;
+import com.itq.docservice.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor for history pages: position of the last returned entry,
+ * encoded as base64url("performedAt|id").
+ */
+record HistoryCursor(OffsetDateTime performedAt, Long id) {
+
+    static HistoryCursor of(DocumentHistory h) {
+        return new HistoryCursor(h.getPerformedAt(), h.getId());
+    }
+
+    String encode() {
+        String raw = performedAt.toInstant() + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static HistoryCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.indexOf('|');
+            Instant performedAt = Instant.parse(raw.substring(0, sep));
+            long id = Long.parseLong(raw.substring(sep + 1));
+            return new HistoryCursor(OffsetDateTime.ofInstant(performedAt, ZoneOffset.UTC), id);
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+}
@@ -1,18 +1,124 @@
 package com.itq.docservice.service;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
 
+import java.time.Clock;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
 
+/**
+ * Issues document numbers {@code DOC-yyyyMMdd-<n>}.
+ * <p>
+ * {@code n} comes from blocks of {@link #BLOCK_SIZE} reserved with one {@code nextval} on
+ * document_number_seq (hi/lo), so numbers are unique across replicas. Within a block numbers are
+ * handed out with a single atomic increment; only the thread that exhausts a block takes a lock to
+ * fetch the next one. The day prefix is cached until the next midnight of the clock's zone.
+ */
 @Component
 public class NumberGenerator {
 
+    /** Must match INCREMENT BY of document_number_seq (006-document-number-seq.yaml). */
+    static final int BLOCK_SIZE = 1000;
+
     private static final DateTimeFormatter FMT = DateTimeFormatter.ofPattern("yyyyMMdd");
-    private final AtomicLong counter = new AtomicLong(System.currentTimeMillis());
+
+    private final LongSupplier blockSource;
+    private final Clock clock;
+    private final Object refillLock = new Object();
+
+    private volatile Block block = new Block(0, 0);
+    private volatile DayPrefix prefix = new DayPrefix("", 0, 0);
+
+    @Autowired
+    public NumberGenerator(JdbcTemplate jdbcTemplate) {
+        this(() -> jdbcTemplate.queryForObject("SELECT nextval('document_number_seq')", Long.class),
+                Clock.systemDefaultZone());
+    }
+
+    /** @param blockSource returns the first number of a fresh block of {@link #BLOCK_SIZE} on every call */
+    NumberGenerator(LongSupplier blockSource, Clock clock) {
+        this.blockSource = blockSource;
+        this.clock = clock;
+    }
 
     public String generate() {
-        return "DOC-" + LocalDate.now().format(FMT) + "-" + counter.incrementAndGet();
+        return prefix() + next();
+    }
+
+    /** Reserves {@code count} numbers; they are consecutive unless the request spans a block boundary. */
+    public List<String> generate(int count) {
+        String dayPrefix = prefix();
+        List<String> numbers = new ArrayList<>(count);
+        while (numbers.size() < count) {
+            Block current = block;
+            int wanted = count - numbers.size();
+            long first = current.next.getAndAdd(wanted);
+            long end = Math.min(first + wanted, current.end);
+            for (long n = first; n < end; n++) {
+                numbers.add(dayPrefix + n);
+            }
+            if (first + wanted > current.end) {
+                refill(current);
+            }
+        }
+        return numbers;
+    }
+
+    private long next() {
+        while (true) {
+            Block current = block;
+            long n = current.next.getAndIncrement();
+            if (n < current.end) {
+                return n;
+            }
+            refill(current);
+        }
+    }
+
+    private void refill(Block exhausted) {
+        synchronized (refillLock) {
+            // Another thread may have refilled while we waited
+            if (block == exhausted) {
+                long start = blockSource.getAsLong();
+                block = new Block(start, start + BLOCK_SIZE);
+            }
+        }
+    }
+
+    private String prefix() {
+        DayPrefix current = prefix;
+        long now = clock.millis();
+        // Also recomputed if the clock steps back across midnight
+        if (now < current.validUntil && now >= current.validFrom) {
+            return current.value;
+        }
+        ZoneId zone = clock.getZone();
+        LocalDate today = LocalDate.ofInstant(Instant.ofEpochMilli(now), zone);
+        DayPrefix fresh = new DayPrefix("DOC-" + today.format(FMT) + "-",
+                today.atStartOfDay(zone).toInstant().toEpochMilli(),
+                today.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli());
+        prefix = fresh;
+        return fresh.value;
+    }
+
+    private static final class Block {
+        final AtomicLong next;
+        final long end;
+
+        Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+
+    private record DayPrefix(String value, long validFrom, long validUntil) {
     }
 }
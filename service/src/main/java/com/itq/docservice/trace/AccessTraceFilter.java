@@ -0,0 +1,48 @@
+package com.itq.docservice.trace;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Writes every request that passes through it to the {@link AccessTraceWriter}, with the item count noted
+ * by {@link RequestItems}. Streaming requests are recorded once, when the initial dispatch returns.
+ */
+@RequiredArgsConstructor
+public class AccessTraceFilter extends OncePerRequestFilter {
+
+    private final AccessTraceWriter writer;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Instant receivedAt = Instant.now();
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            chain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String query = request.getQueryString();
+            writer.append(ChronoUnit.MICROS.between(Instant.EPOCH, receivedAt),
+                    (System.nanoTime() - start) / 1000,
+                    // An exception escaping the chain becomes a 500 later, in the container
+                    failed ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : response.getStatus(),
+                    request.getMethod(),
+                    pattern == null ? "unmatched" : pattern.toString(),
+                    query == null ? request.getRequestURI() : request.getRequestURI() + '?' + query,
+                    RequestItems.of(request));
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.itq.docservice.trace;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Appends one compact record per API request to memory-mapped segment files of {@code segmentSize}
+ * bytes in {@code directory}, keeping at most {@code maxSegments} of them (oldest deleted first).
+ * Only the request line is stored, never bodies, so a trace is safe to take off a production host.
+ * <p>
+ * Segment layout (big-endian), self-contained so that any retained segment can be read alone:
+ * <pre>
+ * header   int MAGIC, short VERSION, short 0
+ * ENDPOINT byte 1, short id, short length, UTF-8 handler pattern   -- defines id for later records
+ * REQUEST  byte 2, long epochMicros, int durationMicros, short status, byte method (index in METHODS),
+ *          short endpointId, int items (-1 = n/a), short length, UTF-8 path[?query]
+ * END      byte 0 (the untouched, zero-filled tail of the segment)
+ * </pre>
+ */
+@Slf4j
+public class AccessTraceWriter implements Closeable {
+
+    public static final int MAGIC = 0x49545154; // "ITQT"
+    public static final short VERSION = 1;
+    public static final byte END = 0;
+    public static final byte ENDPOINT = 1;
+    public static final byte REQUEST = 2;
+    public static final List<String> METHODS = List.of("GET", "POST", "PUT", "PATCH", "DELETE", "OTHER");
+    public static final String FILE_PREFIX = "access-trace-";
+    public static final String FILE_SUFFIX = ".bin";
+
+    static final int HEADER_SIZE = 8;
+    private static final int REQUEST_FIXED_SIZE = 1 + 8 + 4 + 2 + 1 + 2 + 4 + 2;
+    private static final int MAX_STRING_BYTES = Short.MAX_VALUE;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+
+    // Guarded by this
+    private final Map<String, Short> endpointIds = new HashMap<>();
+    private MappedByteBuffer buffer;
+    private long lastSegmentMicros;
+    private long written;
+    private long dropped;
+
+    public AccessTraceWriter(Path directory, int segmentSize, int maxSegments) throws IOException {
+        if (segmentSize < 4096 || maxSegments < 1) {
+            throw new IllegalArgumentException("segmentSize must be at least 4096 bytes and maxSegments at least 1");
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+        Files.createDirectories(directory);
+        openSegment();
+        log.info("Access trace enabled: {} ({} x {} bytes)", directory.toAbsolutePath(), maxSegments, segmentSize);
+    }
+
+    public void append(long epochMicros, long durationMicros, int status, String method, String endpoint,
+                       String uri, int items) {
+        byte[] uriBytes = uri.getBytes(StandardCharsets.UTF_8);
+        byte[] endpointBytes = endpoint.getBytes(StandardCharsets.UTF_8);
+        int methodIndex = METHODS.indexOf(method);
+        byte methodCode = (byte) (methodIndex < 0 ? METHODS.size() - 1 : methodIndex);
+        int required = REQUEST_FIXED_SIZE + uriBytes.length + 5 + endpointBytes.length;
+
+        synchronized (this) {
+            if (buffer == null || uriBytes.length > MAX_STRING_BYTES || endpointBytes.length > MAX_STRING_BYTES
+                    || required > segmentSize - HEADER_SIZE) {
+                dropped++;
+                return;
+            }
+            if (buffer.remaining() < required && !rotate()) {
+                dropped++;
+                return;
+            }
+            Short endpointId = endpointIds.get(endpoint);
+            if (endpointId == null) {
+                endpointId = (short) endpointIds.size();
+                endpointIds.put(endpoint, endpointId);
+                buffer.put(ENDPOINT).putShort(endpointId).putShort((short) endpointBytes.length).put(endpointBytes);
+            }
+            buffer.put(REQUEST)
+                    .putLong(epochMicros)
+                    .putInt((int) Math.min(durationMicros, Integer.MAX_VALUE))
+                    .putShort((short) status)
+                    .put(methodCode)
+                    .putShort(endpointId)
+                    .putInt(items)
+                    .putShort((short) uriBytes.length)
+                    .put(uriBytes);
+            written++;
+        }
+    }
+
+    public synchronized long written() {
+        return written;
+    }
+
+    /** Records skipped because they did not fit a segment or no segment could be opened. */
+    public synchronized long dropped() {
+        return dropped;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (buffer != null) {
+            buffer.force();
+            buffer = null;
+        }
+        log.info("Access trace closed: {} records written, {} dropped", written, dropped);
+    }
+
+    private boolean rotate() {
+        buffer.force();
+        try {
+            openSegment();
+            return true;
+        } catch (IOException e) {
+            log.warn("Access trace disabled, cannot open a new segment in {}: {}", directory, e.getMessage());
+            buffer = null;
+            return false;
+        }
+    }
+
+    private void openSegment() throws IOException {
+        // Names sort in creation order, which is also the order a reader must follow
+        lastSegmentMicros = Math.max(lastSegmentMicros + 1, System.currentTimeMillis() * 1000);
+        Path file = directory.resolve(String.format("%s%019d%s", FILE_PREFIX, lastSegmentMicros, FILE_SUFFIX));
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.setLength(segmentSize);
+            buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+        buffer.putInt(MAGIC).putShort(VERSION).putShort((short) 0);
+        endpointIds.clear();
+        deleteOldSegments();
+    }
+
+    private void deleteOldSegments() throws IOException {
+        List<Path> segments;
+        try (Stream<Path> files = Files.list(directory)) {
+            segments = files
+                    .filter(f -> f.getFileName().toString().startsWith(FILE_PREFIX)
+                            && f.getFileName().toString().endsWith(FILE_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+        for (int i = 0; i < segments.size() - maxSegments; i++) {
+            Files.deleteIfExists(segments.get(i));
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.itq.docservice.trace;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * How many items (ids, documents) the body of the current request carried, kept as a request attribute.
+ * Controllers always set it; {@link AccessTraceFilter} reads it when tracing is on, so that a replay can send
+ * a batch of the same size.
+ */
+public final class RequestItems {
+
+    private static final String ATTRIBUTE = RequestItems.class.getName();
+
+    private RequestItems() {
+    }
+
+    /** Notes the item count for the current request; does nothing outside a request. */
+    public static void record(int items) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.setAttribute(ATTRIBUTE, items, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    /** The recorded item count, or -1 when the request carried no item list. */
+    public static int of(HttpServletRequest request) {
+        return request.getAttribute(ATTRIBUTE) instanceof Integer n ? n : -1;
+    }
+}
@@ -2,23 +2,39 @@ package com.itq.docservice;
 
 import com.itq.docservice.dto.*;
 import com.itq.docservice.entity.*;
+import com.itq.docservice.exception.InvalidSearchException;
 import com.itq.docservice.repository.ApprovalRegistryRepository;
 import com.itq.docservice.repository.DocumentHistoryRepository;
 import com.itq.docservice.repository.DocumentRepository;
+import com.itq.docservice.repository.DocumentStatsRepository;
+import com.itq.docservice.service.DocumentExportService;
+import com.itq.docservice.service.DocumentIngestService;
 import com.itq.docservice.service.DocumentService;
+import com.itq.docservice.service.DocumentStatsService;
 import com.itq.docservice.service.DocumentTransactionService;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.UnexpectedRollbackException;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.testcontainers.containers.PostgreSQLContainer;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 @SpringBootTest
@@ -67,12 +83,19 @@ class DocumentIntegrationTest {
     @Autowired private DocumentRepository documentRepository;
     @Autowired private DocumentHistoryRepository historyRepository;
     @Autowired private ApprovalRegistryRepository registryRepository;
+    @Autowired private DocumentStatsService statsService;
+    @Autowired private DocumentExportService exportService;
+    @Autowired private DocumentIngestService ingestService;
+    @Autowired private DocumentStatsRepository statsRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
 
     @BeforeEach
     void cleanUp() {
         registryRepository.deleteAll();
         historyRepository.deleteAll();
         documentRepository.deleteAll();
+        statsRepository.deleteAllInBatch();
+        jdbcTemplate.execute("DELETE FROM document_status_counts");
     }
 
     private DocumentResponse createDoc(String author, String title) {
@@ -123,6 +146,36 @@ class DocumentIntegrationTest {
         assertThat(registryRepository.findAll().get(0).getApprovedBy()).isEqualTo("carol");
     }
 
+    @Test
+    void historyPage_walksAllEntriesWithCursor_andLatestLimitEmbedsTail() {
+        DocumentResponse doc = createDoc("alice", "Long history");
+        Document raw = documentRepository.findById(doc.getId()).orElseThrow();
+        OffsetDateTime base = OffsetDateTime.now().minusHours(1);
+        for (int i = 0; i < 5; i++) {
+            DocumentHistory h = new DocumentHistory();
+            h.setDocument(raw);
+            h.setPerformedBy("user" + i);
+            h.setAction(DocumentAction.SUBMIT);
+            // Two entries share a timestamp to exercise the id tie-breaker
+            h.setPerformedAt(base.plusMinutes(i == 3 ? 2 : i));
+            historyRepository.save(h);
+        }
+
+        List<String> walked = new java.util.ArrayList<>();
+        String cursor = null;
+        HistoryPageResponse page;
+        do {
+            page = documentService.getHistoryPage(doc.getId(), cursor, 2);
+            page.getItems().forEach(e -> walked.add(e.getPerformedBy()));
+            cursor = page.getNextCursor();
+        } while (page.isHasMore());
+        assertThat(walked).containsExactly("user0", "user1", "user2", "user3", "user4");
+
+        DocumentResponse withTail = documentService.getDocumentWithHistory(doc.getId(), 2);
+        assertThat(withTail.getHistory()).extracting(HistoryEntryResponse::getPerformedBy)
+                .containsExactly("user3", "user4");
+    }
+
     @Test
     void batchSubmit_mixedResults() {
         DocumentResponse existing = createDoc("alice", "Doc");
@@ -253,6 +306,150 @@ class DocumentIntegrationTest {
         assertThat(documentService.search(req, PageRequest.of(0, 10)).getContent()).isEmpty();
     }
 
+    @Test
+    void search_byTitleText_ranksBestMatchFirst_andCombinesWithFilters() {
+        createDoc("alice", "Supply contract");
+        DocumentResponse best = createDoc("alice", "Supply contract amendment to supply contract");
+        DocumentResponse other = createDoc("bob", "Lease contract");
+        createDoc("carol", "Meeting notes");
+        submit(other.getId());
+
+        DocumentSearchRequest req = new DocumentSearchRequest();
+        req.setQ("contract");
+        Page<DocumentResponse> page = documentService.search(req, PageRequest.of(0, 10));
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(page.getContent().get(0).getId()).isEqualTo(best.getId());
+        assertThatThrownBy(() -> documentService.search(
+                req, PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "createdAt"))))
+                .isInstanceOf(InvalidSearchException.class);
+
+        req.setStatus(DocumentStatus.SUBMITTED);
+        Page<DocumentResponse> filtered = documentService.search(req, PageRequest.of(0, 10));
+        assertThat(filtered.getContent()).extracting(DocumentResponse::getId).containsExactly(other.getId());
+    }
+
+    @Test
+    void export_streamsFilteredRowsInIdOrder_plainAndGzipped() throws Exception {
+        Long first = createDoc("alice", "Export, one").getId();
+        createDoc("bob", "Not exported");
+        Long second = createDoc("Alice", "Export two").getId();
+
+        DocumentSearchRequest req = new DocumentSearchRequest();
+        req.setAuthor("alice");
+
+        ByteArrayOutputStream plain = new ByteArrayOutputStream();
+        assertThat(exportService.export(req, FileFormat.CSV, false, plain)).isEqualTo(2);
+        String[] lines = plain.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(3);
+        assertThat(lines[1]).startsWith(first + ",").contains("\"Export, one\"");
+        assertThat(lines[2]).startsWith(second + ",");
+
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+        exportService.export(req, FileFormat.NDJSON, true, gzipped);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped.toByteArray()))) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8).split("\n"))
+                    .hasSize(2)
+                    .allSatisfy(line -> assertThat(line).contains("\"author\""));
+        }
+    }
+
+    @Test
+    void batchCreate_insertsValidItemsInOneStatement_andReturnsThemInRequestOrder() {
+        BatchCreateRequest req = new BatchCreateRequest();
+        List<CreateDocumentRequest> items = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            CreateDocumentRequest item = new CreateDocumentRequest();
+            item.setAuthor("batch");
+            item.setTitle(i == 7 ? "" : "Batch " + i);
+            items.add(item);
+        }
+        req.setDocuments(items);
+
+        List<BatchCreateResult> results = documentService.batchCreate(req);
+
+        assertThat(results).hasSize(50);
+        assertThat(results.get(7).getResult()).isEqualTo(BatchCreateResult.ResultCode.VALIDATION_ERROR);
+        assertThat(results.get(8).getDocument().getTitle()).isEqualTo("Batch 8");
+        DocumentResponse stored = documentService.getDocumentWithHistory(results.get(8).getDocument().getId());
+        assertThat(stored.getNumber()).isEqualTo(results.get(8).getDocument().getNumber());
+        assertThat(stored.getTitle()).isEqualTo("Batch 8");
+        assertThat(statsService.countByStatus(DocumentStatus.DRAFT)).isEqualTo(49);
+    }
+
+    @Test
+    void bulkIngest_insertsAllValidRowsInChunks_withUniqueNumbersAndCounters() throws Exception {
+        StringBuilder body = new StringBuilder();
+        for (int i = 1; i <= 2500; i++) {
+            body.append("{\"author\":\"bulk-").append(i % 3).append("\",\"title\":\"Bulk ").append(i).append("\"}\n");
+        }
+        body.append("{\"author\":\"bulk-0\",\"title\":\"\"}\n");
+
+        BulkIngestResponse report = ingestService.ingest(
+                new ByteArrayInputStream(body.toString().getBytes(StandardCharsets.UTF_8)), FileFormat.NDJSON, 1000);
+
+        assertThat(report.getInserted()).isEqualTo(2500);
+        assertThat(report.getRejected()).isEqualTo(1);
+        assertThat(report.getChunks()).extracting(BulkChunkResult::getInserted).containsExactly(1000, 1000, 500);
+        assertThat(documentRepository.count()).isEqualTo(2500);
+        assertThat(jdbcTemplate.queryForObject("SELECT count(DISTINCT number) FROM documents", Long.class))
+                .isEqualTo(2500);
+        assertThat(statsService.countByStatus(DocumentStatus.DRAFT)).isEqualTo(2500);
+        assertThat(statsService.query(EnumSet.of(StatsDimension.AUTHOR), null, null))
+                .extracting(DocumentStatsEntry::getAuthor, DocumentStatsEntry::getCount)
+                .containsExactly(tuple("bulk-0", 833L), tuple("bulk-1", 834L), tuple("bulk-2", 833L));
+
+        // Bulk-loaded drafts go through the normal lifecycle
+        Long id = documentRepository.findBatchIdsByStatus(DocumentStatus.DRAFT, PageRequest.of(0, 1)).get(0);
+        submit(id);
+        assertThat(documentService.getDocumentWithHistory(id).getStatus()).isEqualTo(DocumentStatus.SUBMITTED);
+    }
+
+    @Test
+    void stats_followCreateAndTransitions_andSkipRolledBackApproval() {
+        Long a1 = createDoc("alice", "A1").getId();
+        Long a2 = createDoc("alice", "A2").getId();
+        Long b1 = createDoc("bob", "B1").getId();
+        submit(a1);
+        submit(b1);
+
+        BatchStatusRequest approveReq = new BatchStatusRequest();
+        approveReq.setIds(List.of(a1));
+        approveReq.setInitiator("carol");
+        documentService.batchApprove(approveReq);
+
+        assertThat(statsService.countByStatus(DocumentStatus.DRAFT)).isEqualTo(1);
+        assertThat(statsService.countByStatus(DocumentStatus.SUBMITTED)).isEqualTo(1);
+        assertThat(statsService.countByStatus(DocumentStatus.APPROVED)).isEqualTo(1);
+
+        assertThat(statsService.query(EnumSet.of(StatsDimension.STATUS, StatsDimension.AUTHOR), null, null))
+                .extracting(DocumentStatsEntry::getStatus, DocumentStatsEntry::getAuthor, DocumentStatsEntry::getCount)
+                .containsExactly(
+                        tuple(DocumentStatus.APPROVED, "alice", 1L),
+                        tuple(DocumentStatus.DRAFT, "alice", 1L),
+                        tuple(DocumentStatus.SUBMITTED, "bob", 1L));
+
+        var today = OffsetDateTime.now(ZoneOffset.UTC).toLocalDate();
+        assertThat(statsService.query(EnumSet.of(StatsDimension.DAY), today, today))
+                .singleElement()
+                .satisfies(e -> assertThat(e.getCount()).isEqualTo(3));
+
+        // Duplicate registry entry rolls the approval back — counters must roll back with it
+        ApprovalRegistry dup = new ApprovalRegistry();
+        dup.setDocumentId(b1);
+        dup.setDocumentNumber("DUP");
+        dup.setApprovedBy("x");
+        dup.setApprovedAt(OffsetDateTime.now());
+        registryRepository.save(dup);
+        try {
+            txService.approveOne(b1, "carol", null);
+        } catch (UnexpectedRollbackException ignored) {
+            // the failed registry write marks the transaction rollback-only
+        }
+        assertThat(statsService.countByStatus(DocumentStatus.SUBMITTED)).isEqualTo(1);
+        assertThat(statsService.countByStatus(DocumentStatus.APPROVED)).isEqualTo(1);
+        assertThat(documentRepository.findById(a2).orElseThrow().getStatus()).isEqualTo(DocumentStatus.DRAFT);
+    }
+
     @Test
     void getDocumentsPaged_paginationWorks() {
         for (int i = 0; i < 5; i++) createDoc("user" + i, "Doc " + i);
@@ -275,6 +472,21 @@ class DocumentIntegrationTest {
                 .containsExactlyInAnyOrder(d1.getId(), d2.getId());
     }
 
+    @Test
+    void getDocumentsPaged_includeHistory_attachesEachDocumentsOwnHistory() {
+        DocumentResponse d1 = createDoc("alice", "Submitted");
+        DocumentResponse d2 = createDoc("bob", "Draft");
+        submit(d1.getId());
+
+        Page<DocumentResponse> page = documentService.getDocumentsPaged(
+                List.of(d1.getId(), d2.getId()), true, PageRequest.of(0, 10, Sort.by("id")));
+
+        assertThat(page.getContent()).hasSize(2);
+        assertThat(page.getContent().get(0).getHistory()).hasSize(1);
+        assertThat(page.getContent().get(0).getHistory().get(0).getAction()).isEqualTo(DocumentAction.SUBMIT);
+        assertThat(page.getContent().get(1).getHistory()).isEmpty();
+    }
+
     @Test
     void batchSubmit_100Docs_allSucceed() {
         List<Long> ids = new java.util.ArrayList<>();
@@ -0,0 +1,201 @@
+package com.itq.docservice;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.itq.docservice.dto.*;
+import com.itq.docservice.entity.ApprovalRegistry;
+import com.itq.docservice.entity.Document;
+import com.itq.docservice.entity.DocumentStatus;
+import com.itq.docservice.entity.SnowflakeSequence;
+import com.itq.docservice.repository.ApprovalRegistryRepository;
+import com.itq.docservice.repository.DocumentHistoryRepository;
+import com.itq.docservice.repository.DocumentRepository;
+import com.itq.docservice.service.DocumentIngestService;
+import com.itq.docservice.service.DocumentService;
+import com.itq.docservice.service.DocumentStatsService;
+import com.itq.docservice.service.NumberGenerator;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/** Runs the document lifecycle with application-assigned ids (app.ids.snowflake.enabled). */
+@SpringBootTest(properties = {
+        "app.ids.snowflake.enabled=true",
+        "app.ids.snowflake.node-id=7"
+})
+@Tag("integration")
+class DocumentSnowflakeIdIntegrationTest {
+
+    static PostgreSQLContainer<?> postgres;
+
+    static {
+        boolean dockerAvailable;
+        try {
+            org.testcontainers.DockerClientFactory.instance().client();
+            dockerAvailable = true;
+        } catch (Throwable e) {
+            dockerAvailable = false;
+        }
+        if (dockerAvailable) {
+            postgres = new PostgreSQLContainer<>("postgres:15-alpine")
+                    .withDatabaseName("itq_snowflake_test")
+                    .withUsername("itq")
+                    .withPassword("itq_pass");
+            postgres.start();
+        }
+    }
+
+    @DynamicPropertySource
+    static void configureDataSource(DynamicPropertyRegistry registry) {
+        if (postgres != null && postgres.isRunning()) {
+            registry.add("spring.datasource.url", postgres::getJdbcUrl);
+            registry.add("spring.datasource.username", postgres::getUsername);
+            registry.add("spring.datasource.password", postgres::getPassword);
+            registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        }
+    }
+
+    @BeforeAll
+    static void requireDocker() {
+        assumeTrue(postgres != null && postgres.isRunning(),
+                "Docker unavailable — skipping integration tests");
+    }
+
+    @Autowired private DocumentService documentService;
+    @Autowired private DocumentStatsService statsService;
+    @Autowired private DocumentIngestService ingestService;
+    @Autowired private DocumentRepository documentRepository;
+    @Autowired private DocumentHistoryRepository historyRepository;
+    @Autowired private ApprovalRegistryRepository registryRepository;
+    @Autowired private NumberGenerator numberGenerator;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void cleanUp() {
+        registryRepository.deleteAll();
+        historyRepository.deleteAll();
+        documentRepository.deleteAll();
+        jdbcTemplate.execute("DELETE FROM document_stats");
+        jdbcTemplate.execute("DELETE FROM document_status_counts");
+    }
+
+    @Test
+    void createDocument_assignsTimeOrderedIdWithConfiguredNode() {
+        Instant before = Instant.now();
+        DocumentResponse first = createDoc("alice", "First");
+        DocumentResponse second = createDoc("alice", "Second");
+
+        assertThat(SnowflakeSequence.nodeOf(first.getId())).isEqualTo(7);
+        assertThat(SnowflakeSequence.instantOf(first.getId())).isCloseTo(before, within(1, ChronoUnit.MINUTES));
+        assertThat(second.getId()).isGreaterThan(first.getId());
+        assertThat(first.getCreatedAt()).isNotNull();
+        assertThat(statsService.countByStatus(DocumentStatus.DRAFT)).isEqualTo(2);
+        // Above 2^53, so the API writes it as a string
+        assertThat(objectMapper.valueToTree(first).get("id").asText()).isEqualTo(first.getId().toString());
+        assertThat(objectMapper.valueToTree(first).get("id").isTextual()).isTrue();
+    }
+
+    @Test
+    void batchCreate_assignsTimeOrderedIdsAfterSingleCreates() {
+        DocumentResponse single = createDoc("alice", "Single");
+        BatchCreateRequest req = new BatchCreateRequest();
+        req.setDocuments(List.of(createRequest("bob", "Batch 1"), createRequest("bob", "Batch 2")));
+
+        List<Long> ids = documentService.batchCreate(req).stream()
+                .map(r -> r.getDocument().getId())
+                .toList();
+
+        assertThat(ids).hasSize(2).isSorted()
+                .allSatisfy(id -> assertThat(SnowflakeSequence.nodeOf(id)).isEqualTo(7))
+                .allSatisfy(id -> assertThat(id).isGreaterThan(single.getId()));
+        assertThat(documentRepository.findAllById(ids)).hasSize(2);
+    }
+
+    @Test
+    void bulkIngest_assignsTimeOrderedIdsInEveryChunk() throws Exception {
+        StringBuilder body = new StringBuilder();
+        for (int i = 1; i <= 250; i++) {
+            body.append("{\"author\":\"bulk\",\"title\":\"Bulk ").append(i).append("\"}\n");
+        }
+
+        BulkIngestResponse report = ingestService.ingest(
+                new ByteArrayInputStream(body.toString().getBytes(StandardCharsets.UTF_8)), FileFormat.NDJSON, 100);
+
+        assertThat(report.getInserted()).isEqualTo(250);
+        List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM documents ORDER BY number", Long.class);
+        assertThat(ids).hasSize(250)
+                .allSatisfy(id -> assertThat(SnowflakeSequence.nodeOf(id)).isEqualTo(7))
+                .allSatisfy(id -> assertThat(SnowflakeSequence.instantOf(id))
+                        .isCloseTo(Instant.now(), within(1, ChronoUnit.MINUTES)));
+        assertThat(ids).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void lifecycle_worksWithAssignedIds() {
+        DocumentResponse doc = createDoc("bob", "Contract");
+
+        BatchStatusRequest req = new BatchStatusRequest();
+        req.setIds(List.of(doc.getId()));
+        req.setInitiator("carol");
+        assertThat(documentService.batchSubmit(req).get(0).getResult())
+                .isEqualTo(BatchStatusResult.ResultCode.SUCCESS);
+        assertThat(documentService.batchApprove(req).get(0).getResult())
+                .isEqualTo(BatchStatusResult.ResultCode.SUCCESS);
+
+        DocumentResponse approved = documentService.getDocumentWithHistory(doc.getId());
+        assertThat(approved.getStatus()).isEqualTo(DocumentStatus.APPROVED);
+        assertThat(approved.getHistory()).hasSize(2);
+        assertThat(registryRepository.findAll())
+                .extracting(ApprovalRegistry::getDocumentId).containsExactly(doc.getId());
+    }
+
+    @Test
+    void persist_assignsIdsBeforeInsert_andFlushesOnCommit() {
+        List<Long> ids = transactionTemplate.execute(status -> {
+            List<Long> assigned = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                Document doc = new Document();
+                doc.setNumber(numberGenerator.generate());
+                doc.setAuthor("dave");
+                doc.setTitle("Deferred " + i);
+                doc.setStatus(DocumentStatus.DRAFT);
+                assigned.add(documentRepository.save(doc).getId());
+            }
+            // Ids are known while the inserts are still queued in the session
+            assertThat(assigned).doesNotContainNull();
+            assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM documents", Long.class)).isZero();
+            return assigned;
+        });
+
+        assertThat(ids).isSorted();
+        assertThat(documentRepository.findAllById(ids)).hasSize(5);
+    }
+
+    private DocumentResponse createDoc(String author, String title) {
+        return documentService.createDocument(createRequest(author, title));
+    }
+
+    private static CreateDocumentRequest createRequest(String author, String title) {
+        CreateDocumentRequest req = new CreateDocumentRequest();
+        req.setAuthor(author);
+        req.setTitle(title);
+        return req;
+    }
+}
@@ -0,0 +1,113 @@
+package com.itq.docservice;
+
+import com.itq.docservice.dto.CreateDocumentRequest;
+import com.itq.docservice.service.DocumentService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * {@code Server-Timing} header of {@code app.request-timing.enabled=true}.
+ */
+@SpringBootTest(properties = "app.request-timing.enabled=true")
+@AutoConfigureMockMvc
+@Tag("integration")
+class RequestTimingIntegrationTest {
+
+    static PostgreSQLContainer<?> postgres;
+
+    static {
+        boolean dockerAvailable;
+        try {
+            org.testcontainers.DockerClientFactory.instance().client();
+            dockerAvailable = true;
+        } catch (Throwable e) {
+            dockerAvailable = false;
+        }
+        if (dockerAvailable) {
+            postgres = new PostgreSQLContainer<>("postgres:15-alpine")
+                    .withDatabaseName("itq_test")
+                    .withUsername("itq")
+                    .withPassword("itq_pass");
+            postgres.start();
+        }
+    }
+
+    @DynamicPropertySource
+    static void configureDataSource(DynamicPropertyRegistry registry) {
+        if (postgres != null && postgres.isRunning()) {
+            registry.add("spring.datasource.url", postgres::getJdbcUrl);
+            registry.add("spring.datasource.username", postgres::getUsername);
+            registry.add("spring.datasource.password", postgres::getPassword);
+            registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        }
+    }
+
+    @BeforeAll
+    static void requireDocker() {
+        assumeTrue(postgres != null && postgres.isRunning(),
+                "Docker unavailable — skipping integration tests");
+    }
+
+    @Autowired private DocumentService documentService;
+    @Autowired private MockMvc mockMvc;
+
+    private static final Pattern DB_TIMING = Pattern.compile("db;dur=[0-9.]+;desc=\"(\\d+) statements\"");
+
+    private static int statements(String serverTiming) {
+        Matcher matcher = DB_TIMING.matcher(serverTiming);
+        assertThat(matcher.find()).as(serverTiming).isTrue();
+        return Integer.parseInt(matcher.group(1));
+    }
+
+    @Test
+    void search_reportsDbTimeAndStatementCount() throws Exception {
+        CreateDocumentRequest req = new CreateDocumentRequest();
+        req.setAuthor("timing");
+        req.setTitle("Timed document");
+        documentService.createDocument(req);
+
+        String header = mockMvc.perform(get("/api/documents/search").param("author", "timing"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("Server-Timing");
+
+        assertThat(header).contains("conn;dur=").contains("app;dur=");
+        // A short first page needs no count query
+        assertThat(statements(header)).isEqualTo(1);
+    }
+
+    @Test
+    void errorResponse_carriesHeaderToo() throws Exception {
+        String header = mockMvc.perform(get("/api/documents/{id}", Long.MAX_VALUE))
+                .andExpect(status().isNotFound())
+                .andReturn().getResponse().getHeader("Server-Timing");
+
+        assertThat(statements(header)).isEqualTo(1);
+    }
+
+    @Test
+    void streamingExport_headerSetByFilterBeforeBodyIsWritten() throws Exception {
+        String header = mockMvc.perform(get("/api/documents/export").param("author", "nobody"))
+                .andExpect(request().asyncStarted())
+                .andReturn().getResponse().getHeader("Server-Timing");
+
+        // Rows are read on the async thread, so the initial dispatch has not touched the database
+        assertThat(statements(header)).isZero();
+    }
+}
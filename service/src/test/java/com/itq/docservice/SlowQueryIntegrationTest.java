@@ -0,0 +1,161 @@
+package com.itq.docservice;
+
+import com.itq.docservice.dto.*;
+import com.itq.docservice.entity.DocumentStatus;
+import com.itq.docservice.monitoring.SlowQueryLog;
+import com.itq.docservice.repository.ApprovalRegistryRepository;
+import com.itq.docservice.repository.DocumentHistoryRepository;
+import com.itq.docservice.repository.DocumentRepository;
+import com.itq.docservice.repository.DocumentStatsRepository;
+import com.itq.docservice.service.DocumentService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Slow-query capture with a zero threshold, so that every statement is recorded and explained.
+ */
+@SpringBootTest(properties = {
+        "app.slow-query.enabled=true",
+        "app.slow-query.threshold-ms=0",
+        "app.slow-query.capacity=500",
+        "app.slow-query.explain-cooldown-s=0",
+        "app.slow-query.analyze-sample-rate=1.0"
+})
+@AutoConfigureMockMvc
+@Tag("integration")
+class SlowQueryIntegrationTest {
+
+    static PostgreSQLContainer<?> postgres;
+
+    static {
+        boolean dockerAvailable;
+        try {
+            org.testcontainers.DockerClientFactory.instance().client();
+            dockerAvailable = true;
+        } catch (Throwable e) {
+            dockerAvailable = false;
+        }
+        if (dockerAvailable) {
+            postgres = new PostgreSQLContainer<>("postgres:15-alpine")
+                    .withDatabaseName("itq_test")
+                    .withUsername("itq")
+                    .withPassword("itq_pass");
+            postgres.start();
+        }
+    }
+
+    @DynamicPropertySource
+    static void configureDataSource(DynamicPropertyRegistry registry) {
+        if (postgres != null && postgres.isRunning()) {
+            registry.add("spring.datasource.url", postgres::getJdbcUrl);
+            registry.add("spring.datasource.username", postgres::getUsername);
+            registry.add("spring.datasource.password", postgres::getPassword);
+            registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        }
+    }
+
+    @BeforeAll
+    static void requireDocker() {
+        assumeTrue(postgres != null && postgres.isRunning(),
+                "Docker unavailable — skipping integration tests");
+    }
+
+    @Autowired private DocumentService documentService;
+    @Autowired private DocumentRepository documentRepository;
+    @Autowired private DocumentHistoryRepository historyRepository;
+    @Autowired private ApprovalRegistryRepository registryRepository;
+    @Autowired private DocumentStatsRepository statsRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private SlowQueryLog slowQueryLog;
+    @Autowired private MockMvc mockMvc;
+
+    @BeforeEach
+    void cleanUp() {
+        registryRepository.deleteAll();
+        historyRepository.deleteAll();
+        documentRepository.deleteAll();
+        statsRepository.deleteAllInBatch();
+        jdbcTemplate.execute("DELETE FROM document_status_counts");
+        slowQueryLog.clear();
+    }
+
+    private DocumentResponse createDoc(String author) {
+        CreateDocumentRequest req = new CreateDocumentRequest();
+        req.setAuthor(author);
+        req.setTitle("Slow query document");
+        return documentService.createDocument(req);
+    }
+
+    @Test
+    void search_capturedWithParametersAndAnalyzedPlan() throws Exception {
+        createDoc("slow-author");
+        slowQueryLog.clear();
+
+        mockMvc.perform(get("/api/documents/search").param("status", "DRAFT").param("author", "slow-author"))
+                .andExpect(status().isOk());
+
+        SlowQueryEntry search = slowQueryLog.entries().stream()
+                .filter(e -> e.getSource().startsWith("GET /api/documents/search"))
+                .filter(e -> e.getSql().startsWith("select") && !e.getSql().contains("count("))
+                .findFirst().orElseThrow();
+        assertThat(search.getParameters()).contains("slow-author");
+        assertThat(search.getPlan()).contains("Scan").contains("actual time");
+        assertThat(search.isAnalyzed()).isTrue();
+    }
+
+    @Test
+    void transitions_explainedWithoutAffectingTheirTransaction() {
+        DocumentResponse doc = createDoc("alice");
+        BatchStatusRequest req = new BatchStatusRequest();
+        req.setIds(List.of(doc.getId()));
+        req.setInitiator("bob");
+
+        List<BatchStatusResult> results = documentService.batchSubmit(req);
+
+        assertThat(results.get(0).getResult()).isEqualTo(BatchStatusResult.ResultCode.SUCCESS);
+        assertThat(documentRepository.findById(doc.getId()).orElseThrow().getStatus())
+                .isEqualTo(DocumentStatus.SUBMITTED);
+        SlowQueryEntry update = slowQueryLog.entries().stream()
+                .filter(e -> e.getSql().startsWith("update documents"))
+                .findFirst().orElseThrow();
+        // Statements that modify data are never run with ANALYZE
+        assertThat(update.getPlan()).contains("Update on documents");
+        assertThat(update.isAnalyzed()).isFalse();
+    }
+
+    @Test
+    void adminEndpoint_listsAndClears() throws Exception {
+        createDoc("alice");
+
+        mockMvc.perform(get("/api/admin/slow-queries").param("minDurationMs", "0"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].sql").exists());
+        mockMvc.perform(get("/api/admin/slow-queries").param("minDurationMs", "600000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+
+        mockMvc.perform(delete("/api/admin/slow-queries")).andExpect(status().isNoContent());
+        assertThat(slowQueryLog.entries()).isEmpty();
+        assertThat(slowQueryLog.captured()).isPositive();
+    }
+}
@@ -0,0 +1,231 @@
+package com.itq.docservice;
+
+import com.itq.docservice.dto.*;
+import com.itq.docservice.entity.DocumentStatus;
+import com.itq.docservice.repository.ApprovalRegistryRepository;
+import com.itq.docservice.repository.DocumentHistoryRepository;
+import com.itq.docservice.repository.DocumentRepository;
+import com.itq.docservice.repository.DocumentStatsRepository;
+import com.itq.docservice.service.DocumentService;
+import com.itq.docservice.service.DocumentStatsService;
+import com.itq.docservice.support.SqlStatementCounter;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import static com.itq.docservice.support.SqlStatementCounter.assertAtMostStatements;
+import static com.itq.docservice.support.SqlStatementCounter.assertStatements;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Statement budgets of the service's read and write paths. A failing budget lists the SQL that was
+ * executed, which is usually enough to spot the N+1 or the extra round trip that crept in.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(SqlStatementCounter.Config.class)
+@Tag("integration")
+class SqlStatementBudgetIntegrationTest {
+
+    static PostgreSQLContainer<?> postgres;
+
+    static {
+        boolean dockerAvailable;
+        try {
+            org.testcontainers.DockerClientFactory.instance().client();
+            dockerAvailable = true;
+        } catch (Throwable e) {
+            dockerAvailable = false;
+        }
+        if (dockerAvailable) {
+            postgres = new PostgreSQLContainer<>("postgres:15-alpine")
+                    .withDatabaseName("itq_test")
+                    .withUsername("itq")
+                    .withPassword("itq_pass");
+            postgres.start();
+        }
+    }
+
+    @DynamicPropertySource
+    static void configureDataSource(DynamicPropertyRegistry registry) {
+        if (postgres != null && postgres.isRunning()) {
+            registry.add("spring.datasource.url", postgres::getJdbcUrl);
+            registry.add("spring.datasource.username", postgres::getUsername);
+            registry.add("spring.datasource.password", postgres::getPassword);
+            registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        }
+    }
+
+    @BeforeAll
+    static void requireDocker() {
+        assumeTrue(postgres != null && postgres.isRunning(),
+                "Docker unavailable — skipping integration tests");
+    }
+
+    @Autowired private DocumentService documentService;
+    @Autowired private DocumentStatsService statsService;
+    @Autowired private DocumentRepository documentRepository;
+    @Autowired private DocumentHistoryRepository historyRepository;
+    @Autowired private ApprovalRegistryRepository registryRepository;
+    @Autowired private DocumentStatsRepository statsRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private MockMvc mockMvc;
+
+    @BeforeEach
+    void cleanUp() {
+        registryRepository.deleteAll();
+        historyRepository.deleteAll();
+        documentRepository.deleteAll();
+        statsRepository.deleteAllInBatch();
+        jdbcTemplate.execute("DELETE FROM document_status_counts");
+    }
+
+    private List<Long> createDocs(int n) {
+        BatchCreateRequest req = new BatchCreateRequest();
+        req.setDocuments(new ArrayList<>());
+        for (int i = 0; i < n; i++) {
+            CreateDocumentRequest item = new CreateDocumentRequest();
+            item.setAuthor("author-" + i % 3);
+            item.setTitle("Budget document " + i);
+            req.getDocuments().add(item);
+        }
+        return documentService.batchCreate(req).stream().map(r -> r.getDocument().getId()).toList();
+    }
+
+    private static BatchStatusRequest statusRequest(List<Long> ids) {
+        BatchStatusRequest req = new BatchStatusRequest();
+        req.setIds(ids);
+        req.setInitiator("budget");
+        return req;
+    }
+
+    // ── Reads ─────────────────────────────────────────────────────────────────
+
+    @Test
+    void getDocumentWithHistory_costsTwoStatements() throws Throwable {
+        Long id = createDocs(1).get(0);
+        documentService.batchSubmit(statusRequest(List.of(id)));
+
+        DocumentResponse doc = assertStatements(2, () -> documentService.getDocumentWithHistory(id));
+        assertThat(doc.getHistory()).hasSize(1);
+        assertStatements(2, () -> documentService.getDocumentWithHistory(id, 10));
+    }
+
+    @Test
+    void getHistoryPage_costsTwoStatements() throws Throwable {
+        Long id = createDocs(1).get(0);
+
+        assertStatements(2, () -> documentService.getHistoryPage(id, null, 50));
+    }
+
+    @Test
+    void getDocumentsPaged_historyDoesNotGrowWithTheNumberOfDocuments() throws Throwable {
+        List<Long> ids = createDocs(20);
+        documentService.batchSubmit(statusRequest(ids));
+        // A first page that is not full needs no count query
+        PageRequest all = PageRequest.of(0, 50);
+
+        assertStatements(2, () -> documentService.getDocumentsPaged(ids.subList(0, 2), true, all));
+        assertStatements(2, () -> documentService.getDocumentsPaged(ids, true, all));
+        assertStatements(1, () -> documentService.getDocumentsPaged(ids, false, all));
+    }
+
+    @Test
+    void getDocumentsPaged_costsDataAndCountStatements() throws Throwable {
+        List<Long> ids = createDocs(20);
+
+        assertStatements(2, () -> documentService.getDocumentsPaged(ids, false, PageRequest.of(0, 5)));
+        assertStatements(3, () -> documentService.getDocumentsPaged(ids, true, PageRequest.of(0, 5)));
+    }
+
+    @Test
+    void search_costsDataAndCountStatements() throws Throwable {
+        createDocs(20);
+        DocumentSearchRequest req = new DocumentSearchRequest();
+        req.setStatus(DocumentStatus.DRAFT);
+        req.setAuthor("author-1");
+
+        assertStatements(2, () -> documentService.search(req, PageRequest.of(0, 5, Sort.by("createdAt"))));
+        req.setQ("budget");
+        assertStatements(2, () -> documentService.search(req, PageRequest.of(0, 5)));
+    }
+
+    @Test
+    void stats_costsOneStatement() throws Throwable {
+        createDocs(5);
+
+        assertStatements(1, () -> statsService.query(EnumSet.of(StatsDimension.STATUS, StatsDimension.AUTHOR),
+                null, null));
+        assertStatements(1, () -> statsService.countByStatus(DocumentStatus.DRAFT));
+    }
+
+    @Test
+    void searchEndpoint_costsDataAndCountStatementsPerRequest() throws Throwable {
+        createDocs(20);
+
+        assertStatements(2, () -> mockMvc.perform(get("/api/documents/search")
+                        .param("status", "DRAFT").param("size", "5"))
+                .andExpect(status().isOk()));
+    }
+
+    // ── Writes ────────────────────────────────────────────────────────────────
+
+    @Test
+    void batchCreate_costsAConstantNumberOfStatements() throws Throwable {
+        BatchCreateRequest req = new BatchCreateRequest();
+        req.setDocuments(new ArrayList<>());
+        for (int i = 0; i < 50; i++) {
+            CreateDocumentRequest item = new CreateDocumentRequest();
+            item.setAuthor("author-" + i % 3);
+            item.setTitle("Budget document " + i);
+            req.getDocuments().add(item);
+        }
+
+        assertAtMostStatements(5, () -> documentService.batchCreate(req));
+    }
+
+    @Test
+    void batchSubmit_costsAtMostFiveStatementsPerDocument() throws Throwable {
+        List<Long> ids = createDocs(10);
+
+        List<BatchStatusResult> results = assertAtMostStatements(5 * ids.size(),
+                () -> documentService.batchSubmit(statusRequest(ids)));
+        assertThat(results).allMatch(r -> r.getResult() == BatchStatusResult.ResultCode.SUCCESS);
+    }
+
+    @Test
+    void batchApprove_costsAtMostSixStatementsPerDocument() throws Throwable {
+        List<Long> ids = createDocs(10);
+        documentService.batchSubmit(statusRequest(ids));
+
+        List<BatchStatusResult> results = assertAtMostStatements(6 * ids.size(),
+                () -> documentService.batchApprove(statusRequest(ids)));
+        assertThat(results).allMatch(r -> r.getResult() == BatchStatusResult.ResultCode.SUCCESS);
+    }
+
+    @Test
+    void batchApprove_conflictCostsOnlyTheLookup() throws Throwable {
+        List<Long> ids = createDocs(3);
+
+        assertStatements(ids.size(), () -> documentService.batchApprove(statusRequest(ids)));
+    }
+}
@@ -0,0 +1,55 @@
+package com.itq.docservice.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.itq.docservice.dto.BatchStatusRequest;
+import com.itq.docservice.dto.BatchStatusResult;
+import com.itq.docservice.dto.DocumentResponse;
+import com.itq.docservice.dto.HistoryEntryResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DocumentIdJsonModuleTest {
+
+    // Above 2^53: a JavaScript number cannot hold it exactly
+    private static final long SNOWFLAKE_ID = 372_036_854_775_807_123L;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new DocumentIdJsonModule());
+
+    @Test
+    void documentIds_areWrittenAsStrings() {
+        DocumentResponse doc = new DocumentResponse();
+        doc.setId(SNOWFLAKE_ID);
+        HistoryEntryResponse history = new HistoryEntryResponse();
+        history.setId(5L);
+        doc.setHistory(List.of(history));
+
+        JsonNode json = objectMapper.valueToTree(doc);
+
+        assertThat(json.get("id").isTextual()).isTrue();
+        assertThat(json.get("id").asText()).isEqualTo(String.valueOf(SNOWFLAKE_ID));
+        // History ids stay IDENTITY and numeric
+        assertThat(json.get("history").get(0).get("id").isNumber()).isTrue();
+        assertThat(objectMapper.valueToTree(new BatchStatusResult(SNOWFLAKE_ID, BatchStatusResult.ResultCode.SUCCESS,
+                "Submitted")).get("id").isTextual()).isTrue();
+    }
+
+    @Test
+    void withoutTheModule_idsStayNumbers() {
+        DocumentResponse doc = new DocumentResponse();
+        doc.setId(1L);
+
+        assertThat(new ObjectMapper().valueToTree(doc).get("id").isNumber()).isTrue();
+    }
+
+    @Test
+    void stringIds_areAcceptedBack() throws Exception {
+        BatchStatusRequest req = objectMapper.readValue(
+                "{\"ids\":[\"" + SNOWFLAKE_ID + "\", 42],\"initiator\":\"bob\"}", BatchStatusRequest.class);
+
+        assertThat(req.getIds()).containsExactly(SNOWFLAKE_ID, 42L);
+    }
+}
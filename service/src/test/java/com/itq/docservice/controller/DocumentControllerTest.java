@@ -5,8 +5,13 @@ import com.itq.docservice.dto.*;
 import com.itq.docservice.entity.DocumentStatus;
 import com.itq.docservice.exception.DocumentNotFoundException;
 import com.itq.docservice.exception.GlobalExceptionHandler;
+import com.itq.docservice.exception.InvalidCursorException;
+import com.itq.docservice.exception.InvalidSearchException;
 import com.itq.docservice.service.ConcurrentApprovalService;
+import com.itq.docservice.service.DocumentExportService;
+import com.itq.docservice.service.DocumentIngestService;
 import com.itq.docservice.service.DocumentService;
+import com.itq.docservice.service.DocumentStatsService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -16,12 +21,18 @@ import org.springframework.data.domain.*;
 import org.springframework.data.web.config.EnableSpringDataWebSupport;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.OutputStream;
+import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 import static org.mockito.ArgumentMatchers.*;
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
@@ -37,6 +48,9 @@ class DocumentControllerTest {
 
     @MockBean private DocumentService documentService;
     @MockBean private ConcurrentApprovalService concurrentApprovalService;
+    @MockBean private DocumentStatsService statsService;
+    @MockBean private DocumentExportService exportService;
+    @MockBean private DocumentIngestService ingestService;
 
     private DocumentResponse buildResponse(Long id, DocumentStatus status) {
         DocumentResponse r = new DocumentResponse();
@@ -105,7 +119,7 @@ class DocumentControllerTest {
     @Test
     void getDocument_exists_returns200WithHistory() throws Exception {
         DocumentResponse response = buildResponse(1L, DocumentStatus.APPROVED);
-        when(documentService.getDocumentWithHistory(1L)).thenReturn(response);
+        when(documentService.getDocumentWithHistory(eq(1L), isNull())).thenReturn(response);
 
         mockMvc.perform(get("/api/documents/1"))
                 .andDo(print())
@@ -117,7 +131,7 @@ class DocumentControllerTest {
 
     @Test
     void getDocument_notFound_returns404() throws Exception {
-        when(documentService.getDocumentWithHistory(999L))
+        when(documentService.getDocumentWithHistory(eq(999L), isNull()))
                 .thenThrow(new DocumentNotFoundException(999L));
 
         mockMvc.perform(get("/api/documents/999"))
@@ -126,13 +140,49 @@ class DocumentControllerTest {
                 .andExpect(jsonPath("$.code").value("NOT_FOUND"));
     }
 
+    @Test
+    void getDocument_withHistoryLimit_passesLimitToService() throws Exception {
+        when(documentService.getDocumentWithHistory(1L, 5)).thenReturn(buildResponse(1L, DocumentStatus.APPROVED));
+
+        mockMvc.perform(get("/api/documents/1?historyLimit=5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1));
+    }
+
+    // ── GET /api/documents/{id}/history ───────────────────────────────────────
+
+    @Test
+    void getHistory_returnsPageWithCursor() throws Exception {
+        HistoryEntryResponse entry = new HistoryEntryResponse();
+        entry.setId(7L);
+        entry.setPerformedBy("bob");
+        when(documentService.getHistoryPage(1L, "abc", 1))
+                .thenReturn(new HistoryPageResponse(List.of(entry), "next", true));
+
+        mockMvc.perform(get("/api/documents/1/history?cursor=abc&limit=1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(7))
+                .andExpect(jsonPath("$.nextCursor").value("next"))
+                .andExpect(jsonPath("$.hasMore").value(true));
+    }
+
+    @Test
+    void getHistory_invalidCursor_returns400() throws Exception {
+        when(documentService.getHistoryPage(eq(1L), eq("bad"), anyInt()))
+                .thenThrow(new InvalidCursorException("bad"));
+
+        mockMvc.perform(get("/api/documents/1/history?cursor=bad"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("INVALID_CURSOR"));
+    }
+
     // ── GET /api/documents ────────────────────────────────────────────────────
 
     @Test
     void getDocuments_paged_returns200() throws Exception {
         DocumentResponse doc = buildResponse(1L, DocumentStatus.DRAFT);
         Page<DocumentResponse> page = new PageImpl<>(List.of(doc));
-        when(documentService.getDocumentsPaged(isNull(), any(Pageable.class))).thenReturn(page);
+        when(documentService.getDocumentsPaged(isNull(), eq(false), any(Pageable.class))).thenReturn(page);
 
         mockMvc.perform(get("/api/documents?page=0&size=10"))
                 .andDo(print())
@@ -145,7 +195,7 @@ class DocumentControllerTest {
     void getDocuments_withIds_returns200() throws Exception {
         DocumentResponse doc = buildResponse(1L, DocumentStatus.DRAFT);
         Page<DocumentResponse> page = new PageImpl<>(List.of(doc));
-        when(documentService.getDocumentsPaged(eq(List.of(1L, 2L)), any(Pageable.class))).thenReturn(page);
+        when(documentService.getDocumentsPaged(eq(List.of(1L, 2L)), eq(false), any(Pageable.class))).thenReturn(page);
 
         mockMvc.perform(get("/api/documents?ids=1,2"))
                 .andDo(print())
@@ -153,6 +203,86 @@ class DocumentControllerTest {
                 .andExpect(jsonPath("$.content[0].id").value(1));
     }
 
+    @Test
+    void getDocuments_includeHistory_passesFlagToService() throws Exception {
+        DocumentResponse doc = buildResponse(1L, DocumentStatus.SUBMITTED);
+        Page<DocumentResponse> page = new PageImpl<>(List.of(doc));
+        when(documentService.getDocumentsPaged(eq(List.of(1L)), eq(true), any(Pageable.class))).thenReturn(page);
+
+        mockMvc.perform(get("/api/documents?ids=1&includeHistory=true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].history").isArray());
+    }
+
+    // ── POST /api/documents/batch ─────────────────────────────────────────────
+
+    @Test
+    void batchCreate_returnsPerItemResults() throws Exception {
+        when(documentService.batchCreate(any())).thenReturn(List.of(
+                new BatchCreateResult(0, BatchCreateResult.ResultCode.CREATED, buildResponse(1L, DocumentStatus.DRAFT), null),
+                new BatchCreateResult(1, BatchCreateResult.ResultCode.VALIDATION_ERROR, null, "Title must not be blank")));
+
+        mockMvc.perform(post("/api/documents/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"documents":[{"author":"a","title":"t"},{"author":"b","title":""}]}
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].result").value("CREATED"))
+                .andExpect(jsonPath("$[0].document.id").value(1))
+                .andExpect(jsonPath("$[0].message").doesNotExist())
+                .andExpect(jsonPath("$[1].result").value("VALIDATION_ERROR"))
+                .andExpect(jsonPath("$[1].document").doesNotExist());
+    }
+
+    @Test
+    void batchCreate_tooManyItems_returns400() throws Exception {
+        String items = String.join(",", Collections.nCopies(501, "{\"author\":\"a\",\"title\":\"t\"}"));
+
+        mockMvc.perform(post("/api/documents/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"documents\":[" + items + "]}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("VALIDATION_ERROR"));
+    }
+
+    // ── POST /api/documents/bulk ──────────────────────────────────────────────
+
+    @Test
+    void bulk_ndjsonBody_returnsChunkReport() throws Exception {
+        BulkIngestResponse report = new BulkIngestResponse(2, 2, 0, 5, 400, List.of(
+                new BulkChunkResult(0, 1, 2, 2, 0, BulkChunkResult.ResultCode.SUCCESS, List.of(), 5)));
+        when(ingestService.ingest(any(), eq(FileFormat.NDJSON), eq(500))).thenReturn(report);
+
+        mockMvc.perform(post("/api/documents/bulk")
+                        .param("chunkSize", "500")
+                        .contentType("application/x-ndjson")
+                        .content("{\"author\":\"a\",\"title\":\"t\"}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.inserted").value(2))
+                .andExpect(jsonPath("$.chunks[0].result").value("SUCCESS"));
+    }
+
+    @Test
+    void bulk_csvWithCharset_isAccepted() throws Exception {
+        when(ingestService.ingest(any(), eq(FileFormat.CSV), isNull()))
+                .thenReturn(new BulkIngestResponse(0, 0, 0, 0, 0, List.of()));
+
+        mockMvc.perform(post("/api/documents/bulk")
+                        .contentType("text/csv;charset=UTF-8")
+                        .content("author,title\n"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void bulk_unsupportedContentType_returns400() throws Exception {
+        mockMvc.perform(post("/api/documents/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("INVALID_INPUT"));
+    }
+
     // ── POST /api/documents/submit ────────────────────────────────────────────
 
     @Test
@@ -243,7 +373,7 @@ class DocumentControllerTest {
     void search_byStatus_returns200() throws Exception {
         DocumentResponse doc = buildResponse(1L, DocumentStatus.DRAFT);
         Page<DocumentResponse> page = new PageImpl<>(List.of(doc));
-        when(documentService.search(any(), any(Pageable.class))).thenReturn(page);
+        when(documentService.search(any(), eq(false), any(Pageable.class))).thenReturn(page);
 
         mockMvc.perform(get("/api/documents/search?status=DRAFT"))
                 .andExpect(status().isOk())
@@ -253,13 +383,116 @@ class DocumentControllerTest {
     @Test
     void search_noFilters_returnsAll() throws Exception {
         Page<DocumentResponse> page = new PageImpl<>(List.of(buildResponse(1L, DocumentStatus.APPROVED)));
-        when(documentService.search(any(), any(Pageable.class))).thenReturn(page);
+        when(documentService.search(any(), eq(false), any(Pageable.class))).thenReturn(page);
 
         mockMvc.perform(get("/api/documents/search"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.totalElements").value(1));
     }
 
+    @Test
+    void search_includeHistory_passesFlagToService() throws Exception {
+        Page<DocumentResponse> page = new PageImpl<>(List.of(buildResponse(1L, DocumentStatus.APPROVED)));
+        when(documentService.search(any(), eq(true), any(Pageable.class))).thenReturn(page);
+
+        mockMvc.perform(get("/api/documents/search?status=APPROVED&includeHistory=true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(1));
+    }
+
+    @Test
+    void search_tooLongTextQuery_returns400() throws Exception {
+        mockMvc.perform(get("/api/documents/search").param("q", "x".repeat(201)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("VALIDATION_ERROR"));
+    }
+
+    @Test
+    void search_withoutSortOrText_defaultsToNewestFirst() throws Exception {
+        when(documentService.search(any(), eq(false), any(Pageable.class))).thenReturn(new PageImpl<>(List.of()));
+
+        mockMvc.perform(get("/api/documents/search?status=DRAFT")).andExpect(status().isOk());
+
+        verify(documentService).search(any(), eq(false),
+                eq(PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "createdAt"))));
+    }
+
+    @Test
+    void search_withText_passesUnsortedPageForRelevanceOrder() throws Exception {
+        when(documentService.search(any(), eq(false), any(Pageable.class))).thenReturn(new PageImpl<>(List.of()));
+
+        mockMvc.perform(get("/api/documents/search").param("q", "contract")).andExpect(status().isOk());
+
+        verify(documentService).search(any(), eq(false), eq(PageRequest.of(0, 20)));
+    }
+
+    @Test
+    void search_withTextAndSort_returns400() throws Exception {
+        when(documentService.search(any(), eq(false), any(Pageable.class)))
+                .thenThrow(new InvalidSearchException("sort cannot be combined with q"));
+
+        mockMvc.perform(get("/api/documents/search").param("q", "contract").param("sort", "title,asc"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("INVALID_SEARCH"));
+    }
+
+    // ── GET /api/documents/export ─────────────────────────────────────────────
+
+    @Test
+    void export_streamsServiceOutputAsAttachment() throws Exception {
+        when(exportService.export(any(), eq(FileFormat.NDJSON), eq(false), any())).thenAnswer(inv -> {
+            inv.getArgument(3, OutputStream.class).write("{\"id\":1}\n".getBytes());
+            return 1L;
+        });
+
+        MvcResult async = mockMvc.perform(get("/api/documents/export")
+                        .param("status", "APPROVED")
+                        .param("format", "NDJSON"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(async))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/x-ndjson"))
+                .andExpect(header().string("Content-Disposition", containsString("documents.ndjson")))
+                .andExpect(content().string("{\"id\":1}\n"));
+        verify(exportService).export(argThat(r -> r.getStatus() == DocumentStatus.APPROVED),
+                eq(FileFormat.NDJSON), eq(false), any());
+    }
+
+    @Test
+    void export_gzip_usesGzipContentTypeAndFilename() throws Exception {
+        mockMvc.perform(get("/api/documents/export").param("gzip", "true"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/gzip"))
+                .andExpect(header().string("Content-Disposition", containsString("documents.csv.gz")));
+    }
+
+    // ── GET /api/documents/stats ──────────────────────────────────────────────
+
+    @Test
+    void stats_groupedByStatusAndDay_returnsEntriesWithoutAuthor() throws Exception {
+        when(statsService.query(eq(Set.of(StatsDimension.STATUS, StatsDimension.DAY)),
+                eq(LocalDate.of(2024, 7, 1)), isNull()))
+                .thenReturn(List.of(new DocumentStatsEntry(DocumentStatus.DRAFT, null, LocalDate.of(2024, 7, 1), 3)));
+
+        mockMvc.perform(get("/api/documents/stats")
+                        .param("groupBy", "STATUS,DAY")
+                        .param("from", "2024-07-01"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("DRAFT"))
+                .andExpect(jsonPath("$[0].day").value("2024-07-01"))
+                .andExpect(jsonPath("$[0].count").value(3))
+                .andExpect(jsonPath("$[0].author").doesNotExist());
+    }
+
+    @Test
+    void stats_unknownDimension_returns400() throws Exception {
+        mockMvc.perform(get("/api/documents/stats").param("groupBy", "TITLE"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("VALIDATION_ERROR"));
+    }
+
     // ── POST /api/documents/{id}/concurrent-approval-test ────────────────────
 
     @Test
@@ -0,0 +1,100 @@
+package com.itq.docservice.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SnowflakeSequenceTest {
+
+    private static final long T0 = SnowflakeSequence.EPOCH.toEpochMilli() + 1_000_000;
+
+    private final AtomicLong clock = new AtomicLong(T0);
+    private final SnowflakeSequence sequence = new SnowflakeSequence(42, clock::get);
+
+    @Test
+    void next_encodesTimestampAndNode() {
+        long id = sequence.next();
+
+        assertThat(id).isPositive();
+        assertThat(SnowflakeSequence.nodeOf(id)).isEqualTo(42);
+        assertThat(SnowflakeSequence.instantOf(id).toEpochMilli()).isEqualTo(T0);
+    }
+
+    @Test
+    void next_increasesWithinAndAcrossMilliseconds() {
+        long first = sequence.next();
+        long second = sequence.next();
+        clock.incrementAndGet();
+        long third = sequence.next();
+
+        assertThat(second).isEqualTo(first + 1);
+        assertThat(third).isGreaterThan(second);
+        assertThat(SnowflakeSequence.instantOf(third).toEpochMilli()).isEqualTo(T0 + 1);
+    }
+
+    @Test
+    void next_sequenceOverflow_borrowsNextMillisecond() {
+        long last = 0;
+        for (int i = 0; i <= 4096; i++) {
+            last = sequence.next();
+        }
+
+        assertThat(SnowflakeSequence.instantOf(last).toEpochMilli()).isEqualTo(T0 + 1);
+        assertThat(SnowflakeSequence.nodeOf(last)).isEqualTo(42);
+    }
+
+    @Test
+    void next_clockStepsBack_staysMonotonic() {
+        long before = sequence.next();
+        clock.addAndGet(-5_000);
+
+        assertThat(sequence.next()).isGreaterThan(before);
+    }
+
+    @Test
+    void differentNodes_neverCollide() {
+        SnowflakeSequence other = new SnowflakeSequence(43, clock::get);
+
+        assertThat(sequence.next()).isNotEqualTo(other.next());
+    }
+
+    @Test
+    void nodeIdOutOfRange_isRejected() {
+        assertThatThrownBy(() -> new SnowflakeSequence(SnowflakeSequence.MAX_NODE_ID + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new SnowflakeSequence(-1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void next_concurrentCallers_getUniqueIds() throws Exception {
+        SnowflakeSequence realClock = new SnowflakeSequence(1);
+        int threads = 8;
+        int perThread = 20_000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        ids.add(realClock.next());
+                    }
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(ids).hasSize(threads * perThread);
+    }
+}
@@ -0,0 +1,116 @@
+package com.itq.docservice.monitoring;
+
+import com.itq.docservice.entity.DocumentStatus;
+import com.itq.docservice.repository.DocumentRepository;
+import com.itq.docservice.scheduler.WorkerActivity;
+import com.itq.docservice.scheduler.WorkerScheduler;
+import com.itq.docservice.service.DocumentMetrics;
+import com.itq.docservice.service.DocumentStatsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.actuate.info.Info;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PipelineHealthIndicatorTest {
+
+    @Mock private DocumentStatsService statsService;
+    @Mock private DocumentRepository documentRepository;
+    @Mock private WorkerScheduler workerScheduler;
+
+    private final WorkerActivity activity = new WorkerActivity();
+    private PipelineStatus pipelineStatus;
+
+    @BeforeEach
+    void setUp() {
+        pipelineStatus = new PipelineStatus(statsService, documentRepository, activity, workerScheduler);
+        ReflectionTestUtils.setField(pipelineStatus, "maxBacklog", 100L);
+        ReflectionTestUtils.setField(pipelineStatus, "maxOldestAgeS", 600L);
+        ReflectionTestUtils.setField(pipelineStatus, "maxSinceSuccessS", 300L);
+    }
+
+    @Test
+    void emptyPipeline_isUpWithoutProbingQueues() {
+        Health health = new PipelineHealthIndicator(pipelineStatus).health();
+
+        assertThat(health.getStatus()).isEqualTo(Status.UP);
+        assertThat(health.getDetails()).containsKeys(DocumentMetrics.SUBMIT, DocumentMetrics.APPROVE)
+                .doesNotContainKey("problems");
+        verify(documentRepository, never()).findQueueHeadSince(any(), any());
+    }
+
+    @Test
+    void recentProgressWithinThresholds_isUp() {
+        when(statsService.countByStatus(DocumentStatus.DRAFT)).thenReturn(40L);
+        when(documentRepository.findQueueHeadSince(eq(DocumentStatus.DRAFT), any()))
+                .thenReturn(List.of(OffsetDateTime.now().minusSeconds(30)));
+        activity.batchFinished(DocumentMetrics.SUBMIT, 50, 50, 250);
+
+        Health health = new PipelineHealthIndicator(pipelineStatus).health();
+
+        assertThat(health.getStatus()).isEqualTo(Status.UP);
+        @SuppressWarnings("unchecked")
+        Map<String, Object> submit = (Map<String, Object>) health.getDetails().get(DocumentMetrics.SUBMIT);
+        assertThat(submit).containsEntry("backlog", 40L).containsKey("lastBatch");
+        assertThat((Long) submit.get("oldestAgeS")).isBetween(30L, 40L);
+    }
+
+    @Test
+    void backlogAndOldestAgeOverThreshold_isDegraded() {
+        when(statsService.countByStatus(DocumentStatus.DRAFT)).thenReturn(0L);
+        when(statsService.countByStatus(DocumentStatus.SUBMITTED)).thenReturn(500L);
+        when(documentRepository.findQueueHeadSince(eq(DocumentStatus.SUBMITTED), any()))
+                .thenReturn(List.of(OffsetDateTime.now().minusMinutes(30)));
+        activity.batchFinished(DocumentMetrics.APPROVE, 50, 50, 250);
+
+        Health health = new PipelineHealthIndicator(pipelineStatus).health();
+
+        assertThat(health.getStatus()).isEqualTo(PipelineHealthIndicator.DEGRADED);
+        assertThat((List<?>) health.getDetails().get("problems")).hasSize(2)
+                .allSatisfy(problem -> assertThat(problem.toString()).startsWith(DocumentMetrics.APPROVE));
+    }
+
+    @Test
+    void noSuccessfulBatchForTooLong_isDegraded_unlessWorkerPaused() {
+        when(statsService.countByStatus(DocumentStatus.DRAFT)).thenReturn(5L);
+        when(documentRepository.findQueueHeadSince(eq(DocumentStatus.DRAFT), any()))
+                .thenReturn(List.of(OffsetDateTime.now()));
+        ReflectionTestUtils.setField(pipelineStatus, "maxSinceSuccessS", -1L);
+
+        assertThat(new PipelineHealthIndicator(pipelineStatus).health().getStatus())
+                .isEqualTo(PipelineHealthIndicator.DEGRADED);
+
+        when(workerScheduler.isPaused(DocumentMetrics.SUBMIT)).thenReturn(true);
+        assertThat(new PipelineHealthIndicator(pipelineStatus).health().getStatus()).isEqualTo(Status.UP);
+    }
+
+    @Test
+    void infoContributor_reportsLastBatchThroughput() {
+        activity.batchFinished(DocumentMetrics.APPROVE, 50, 40, 2000);
+        Info.Builder builder = new Info.Builder();
+
+        new PipelineInfoContributor(pipelineStatus).contribute(builder);
+
+        @SuppressWarnings("unchecked")
+        Map<String, Map<String, Object>> pipeline = (Map<String, Map<String, Object>>) builder.build().get("pipeline");
+        @SuppressWarnings("unchecked")
+        Map<String, Object> lastBatch = (Map<String, Object>) pipeline.get(DocumentMetrics.APPROVE).get("lastBatch");
+        assertThat(lastBatch).containsEntry("succeeded", 40).containsEntry("throughput", 20.0);
+    }
+}
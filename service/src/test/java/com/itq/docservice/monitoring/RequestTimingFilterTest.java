@@ -0,0 +1,40 @@
+package com.itq.docservice.monitoring;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@ExtendWith(OutputCaptureExtension.class)
+class RequestTimingFilterTest {
+
+    private final RequestTimingFilter filter = new RequestTimingFilter(true);
+
+    @Test
+    void accessLog_recordsResponseStatus(CapturedOutput output) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/documents/missing");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> response.setStatus(404));
+
+        assertThat(output).contains("method=GET uri=/api/documents/missing status=404");
+        assertThat(response.getHeader(RequestTimingFilter.HEADER)).startsWith("db;dur=");
+    }
+
+    @Test
+    void exceptionEscapingTheChain_isLoggedAs500(CapturedOutput output) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/documents/submit");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThatThrownBy(() -> filter.doFilter(request, response, (req, res) -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(output).contains("method=POST uri=/api/documents/submit status=500");
+    }
+}
@@ -0,0 +1,100 @@
+package com.itq.docservice.monitoring;
+
+import com.itq.docservice.dto.SlowQueryEntry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SlowQueryLogTest {
+
+    private final Connection connection = mock(Connection.class);
+    private final List<Runnable> closeTasks = new ArrayList<>();
+
+    // Every capture is explained, and with ANALYZE whenever the statement allows it
+    private final SlowQueryLog log = new SlowQueryLog(Duration.ofMillis(10), 10, true, 1.0, Duration.ofMinutes(1));
+
+    @BeforeEach
+    void setUp() throws Exception {
+        PreparedStatement explain = mock(PreparedStatement.class);
+        ResultSet plan = mock(ResultSet.class);
+        when(connection.getAutoCommit()).thenReturn(true);
+        when(connection.prepareStatement(anyString())).thenReturn(explain);
+        when(explain.executeQuery()).thenReturn(plan);
+        when(plan.next()).thenReturn(true, false);
+        when(plan.getString(1)).thenReturn("Seq Scan on document");
+    }
+
+    @Test
+    void isReadOnlySelect_rejectsSequenceCallsAndRowLocks() {
+        assertThat(SlowQueryLog.isReadOnlySelect("select * from document where status = ?")).isTrue();
+        assertThat(SlowQueryLog.isReadOnlySelect("  SELECT id FROM document_history")).isTrue();
+
+        assertThat(SlowQueryLog.isReadOnlySelect("SELECT nextval('document_number_seq')")).isFalse();
+        assertThat(SlowQueryLog.isReadOnlySelect("select setval ('document_number_seq', 1)")).isFalse();
+        assertThat(SlowQueryLog.isReadOnlySelect("select * from document where id = ? for update")).isFalse();
+        assertThat(SlowQueryLog.isReadOnlySelect("select * from document for no key update skip locked")).isFalse();
+        assertThat(SlowQueryLog.isReadOnlySelect("select * from document FOR SHARE")).isFalse();
+        assertThat(SlowQueryLog.isReadOnlySelect("update document set status = ?")).isFalse();
+    }
+
+    @Test
+    void sideEffectingSelect_isExplainedWithoutAnalyze() throws Exception {
+        execute("select nextval('document_number_seq')");
+
+        verify(connection).prepareStatement("EXPLAIN select nextval('document_number_seq')");
+        assertThat(log.entries().get(0).isAnalyzed()).isFalse();
+    }
+
+    @Test
+    void readOnlySelect_isExplainedWithAnalyze() throws Exception {
+        execute("select * from document");
+
+        verify(connection).prepareStatement("EXPLAIN (ANALYZE, BUFFERS) select * from document");
+        assertThat(log.entries().get(0).isAnalyzed()).isTrue();
+    }
+
+    @Test
+    void sameSqlWithinCooldown_isExplainedOnce() throws Exception {
+        execute("select * from document");
+        execute("select * from document");
+
+        verify(connection, times(1)).prepareStatement(anyString());
+        assertThat(log.captured()).isEqualTo(2);
+    }
+
+    @Test
+    void entries_areSnapshotsNotLiveObjects() {
+        log.executed(statement("select * from document"));
+        SlowQueryEntry before = log.entries().get(0);
+
+        closeTasks.forEach(Runnable::run);
+
+        assertThat(before.getPlan()).isNull();
+        assertThat(log.entries().get(0).getPlan()).isEqualTo("Seq Scan on document");
+    }
+
+    private void execute(String sql) {
+        log.executed(statement(sql));
+        closeTasks.forEach(Runnable::run);
+        closeTasks.clear();
+    }
+
+    private ExecutedStatement statement(String sql) {
+        return new ExecutedStatement(sql, new HashMap<>(), Duration.ofMillis(50).toNanos(), false, null,
+                connection, closeTasks);
+    }
+}
@@ -0,0 +1,176 @@
+package com.itq.docservice.repository;
+
+import com.itq.docservice.dto.DocumentSearchRequest;
+import com.itq.docservice.entity.DocumentStatus;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Seeds a skewed dataset, runs the real repository calls, captures the SQL Hibernate emits
+ * and asserts on its EXPLAIN plan — so a spec change that defeats an index fails here.
+ */
+@SpringBootTest(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.itq.docservice.repository.DocumentSearchPlanTest$CapturingInspector")
+@Tag("integration")
+class DocumentSearchPlanTest {
+
+    static PostgreSQLContainer<?> postgres;
+
+    static {
+        boolean dockerAvailable;
+        try {
+            org.testcontainers.DockerClientFactory.instance().client();
+            dockerAvailable = true;
+        } catch (Throwable e) {
+            dockerAvailable = false;
+        }
+        if (dockerAvailable) {
+            postgres = new PostgreSQLContainer<>("postgres:15-alpine")
+                    .withDatabaseName("itq_plan_test")
+                    .withUsername("itq")
+                    .withPassword("itq_pass");
+            postgres.start();
+        }
+    }
+
+    @DynamicPropertySource
+    static void configureDataSource(DynamicPropertyRegistry registry) {
+        if (postgres != null && postgres.isRunning()) {
+            registry.add("spring.datasource.url", postgres::getJdbcUrl);
+            registry.add("spring.datasource.username", postgres::getUsername);
+            registry.add("spring.datasource.password", postgres::getPassword);
+            registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        }
+    }
+
+    @BeforeAll
+    static void requireDocker() {
+        assumeTrue(postgres != null && postgres.isRunning(),
+                "Docker unavailable — skipping plan tests");
+    }
+
+    public static class CapturingInspector implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+
+    private static final int ROWS = 50_000;
+    private static final OffsetDateTime NOW = OffsetDateTime.parse("2024-07-01T00:00:00Z");
+    private static boolean seeded;
+
+    @Autowired private DocumentRepository documentRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        if (!seeded) {
+            jdbcTemplate.execute("TRUNCATE approval_registry, document_history, documents CASCADE");
+            // 5% DRAFT, 15% SUBMITTED, 80% APPROVED; 500 mixed-case authors; one year of creation dates
+            jdbcTemplate.update("""
+                    INSERT INTO documents (number, author, title, status, created_at, updated_at)
+                    SELECT 'PLAN-' || g,
+                           'Author-' || (g % 500),
+                           'Plan document ' || g || CASE WHEN g % 1000 = 0 THEN ' quarterly report' ELSE '' END,
+                           CASE WHEN g % 20 = 0 THEN 'DRAFT' WHEN g % 20 < 4 THEN 'SUBMITTED' ELSE 'APPROVED' END,
+                           ?::timestamptz - (g % 365) * interval '1 day' - (g % 1440) * interval '1 minute',
+                           ?::timestamptz
+                    FROM generate_series(1, ?) g
+                    """, NOW, NOW, ROWS);
+            // VACUUM sets the visibility map so index-only scans are costed realistically
+            jdbcTemplate.execute("VACUUM ANALYZE documents");
+            seeded = true;
+        }
+        CapturingInspector.STATEMENTS.clear();
+    }
+
+    @Test
+    void searchByStatus_usesStatusCreatedAtIndex() {
+        DocumentSearchRequest req = new DocumentSearchRequest();
+        req.setStatus(DocumentStatus.DRAFT);
+        documentRepository.findAll(DocumentSpecification.matching(req), firstPage());
+
+        assertThat(explain(lastSelect(), "DRAFT", 0, 20)).contains("idx_documents_status_created_at");
+    }
+
+    @Test
+    void searchByStatusAndDateRange_usesStatusCreatedAtIndex() {
+        DocumentSearchRequest req = new DocumentSearchRequest();
+        req.setStatus(DocumentStatus.SUBMITTED);
+        req.setFrom(NOW.minusDays(30));
+        req.setTo(NOW.minusDays(1));
+        documentRepository.findAll(DocumentSpecification.matching(req), firstPage());
+
+        String plan = explain(lastSelect(), "SUBMITTED", req.getFrom(), req.getTo(), 0, 20);
+        assertThat(plan).contains("idx_documents_status_created_at");
+        assertThat(plan).doesNotContain("Seq Scan");
+    }
+
+    @Test
+    void searchByAuthor_caseInsensitive_usesLowerAuthorIndex() {
+        DocumentSearchRequest req = new DocumentSearchRequest();
+        req.setAuthor("AUTHOR-7");
+        documentRepository.findAll(DocumentSpecification.matching(req), firstPage());
+
+        assertThat(explain(lastSelect(), "author-7", 0, 20)).contains("idx_documents_author_lower_created_at");
+    }
+
+    @Test
+    void searchByTitle_usesGinIndex() {
+        DocumentSearchRequest req = new DocumentSearchRequest();
+        req.setQ("quarterly report");
+        documentRepository.findAll(DocumentSpecification.matching(req)
+                .and(DocumentSpecification.orderedByRelevance(req.getQ())), PageRequest.of(0, 20));
+
+        String sql = lastSelect();
+        // title_tsv is read from the searched row itself, not from a self-join of documents
+        assertThat(sql.split("\\bdocuments\\b", -1)).hasSize(2);
+        String plan = explain(sql, req.getQ(), req.getQ(), 0, 20);
+        assertThat(plan).contains("idx_documents_title_tsv");
+        assertThat(plan).doesNotContain("Seq Scan");
+    }
+
+    @Test
+    void workerIdsByStatus_isIndexOnlyScan() {
+        documentRepository.findBatchIdsByStatus(DocumentStatus.DRAFT, PageRequest.of(0, 50));
+
+        // Oldest first: the (status, created_at DESC) index is walked backwards
+        assertThat(explain(lastSelect(), "DRAFT", 0, 50))
+                .contains("Index Only Scan Backward using idx_documents_status_created_at");
+    }
+
+    private PageRequest firstPage() {
+        return PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "createdAt"));
+    }
+
+    private String lastSelect() {
+        return CapturingInspector.STATEMENTS.stream()
+                .filter(sql -> !sql.contains("count("))
+                .reduce((first, second) -> second)
+                .orElseThrow();
+    }
+
+    private String explain(String sql, Object... params) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, params));
+    }
+}
@@ -0,0 +1,133 @@
+package com.itq.docservice.scheduler;
+
+import com.itq.docservice.dto.WorkerState;
+import com.itq.docservice.exception.WorkerNotFoundException;
+import com.itq.docservice.service.DocumentMetrics;
+import com.itq.docservice.service.DocumentStatsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class WorkerSchedulerTest {
+
+    /** Records the batch size of every run. */
+    private static final class RecordingWorker implements BatchWorker {
+
+        final BlockingQueue<Integer> runs = new LinkedBlockingQueue<>();
+
+        @Override
+        public String name() {
+            return DocumentMetrics.SUBMIT;
+        }
+
+        @Override
+        public void process(int batchSize) {
+            runs.add(batchSize);
+        }
+    }
+
+    private final RecordingWorker worker = new RecordingWorker();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ThreadPoolTaskScheduler taskScheduler = new ThreadPoolTaskScheduler();
+    private final MockEnvironment env = new MockEnvironment()
+            .withProperty("app.batch-size", "50")
+            .withProperty("app.workers.submit.fixed-delay-ms", "60000");
+
+    @BeforeEach
+    void setUp() {
+        taskScheduler.initialize();
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskScheduler.shutdown();
+    }
+
+    private WorkerScheduler scheduler() {
+        DocumentMetrics metrics = new DocumentMetrics(registry, mock(DocumentStatsService.class));
+        return new WorkerScheduler(List.of(worker), taskScheduler, metrics, new WorkerActivity(), env);
+    }
+
+    @Test
+    void start_runsImmediatelyThenWaitsForFixedDelay() throws Exception {
+        WorkerScheduler scheduler = scheduler();
+
+        scheduler.start();
+
+        assertThat(worker.runs.poll(5, TimeUnit.SECONDS)).isEqualTo(50);
+        assertThat(worker.runs.poll(200, TimeUnit.MILLISECONDS)).isNull();
+        WorkerState state = scheduler.state(DocumentMetrics.SUBMIT);
+        assertThat(state.isPaused()).isFalse();
+        assertThat(state.getNextRunAt()).isNotNull();
+        assertThat(state.getLastRunAt()).isNotNull();
+    }
+
+    @Test
+    void disabledInConfig_startsPaused_andTriggerRunsOnce() throws Exception {
+        env.setProperty("app.workers.submit.enabled", "false");
+        WorkerScheduler scheduler = scheduler();
+
+        scheduler.start();
+        assertThat(worker.runs.poll(200, TimeUnit.MILLISECONDS)).isNull();
+
+        scheduler.trigger(DocumentMetrics.SUBMIT);
+
+        assertThat(worker.runs.poll(5, TimeUnit.SECONDS)).isEqualTo(50);
+        assertThat(worker.runs.poll(200, TimeUnit.MILLISECONDS)).isNull();
+        assertThat(scheduler.state(DocumentMetrics.SUBMIT).isPaused()).isTrue();
+        assertThat(scheduler.state(DocumentMetrics.SUBMIT).getNextRunAt()).isNull();
+    }
+
+    @Test
+    void update_appliesBatchSizeAndReschedulesWithNewDelay() throws Exception {
+        WorkerScheduler scheduler = scheduler();
+        scheduler.start();
+        worker.runs.poll(5, TimeUnit.SECONDS);
+
+        scheduler.update(DocumentMetrics.SUBMIT, 7, 100L);
+
+        // The pending run moves from 60s to 100ms after the previous one
+        assertThat(worker.runs.poll(5, TimeUnit.SECONDS)).isEqualTo(7);
+        assertThat(registry.get("documents.worker.batch.size").tag("worker", "submit").gauge().value()).isEqualTo(7);
+        assertThat(registry.get("documents.worker.delay").tag("worker", "submit").timeGauge()
+                .value(TimeUnit.MILLISECONDS)).isEqualTo(100);
+    }
+
+    @Test
+    void pause_cancelsPendingRun_resumeRunsOverdueWorker() throws Exception {
+        env.setProperty("app.workers.submit.fixed-delay-ms", "300");
+        WorkerScheduler scheduler = scheduler();
+        scheduler.start();
+        worker.runs.poll(5, TimeUnit.SECONDS);
+
+        WorkerState paused = scheduler.pause(DocumentMetrics.SUBMIT);
+
+        assertThat(paused.isPaused()).isTrue();
+        assertThat(registry.get("documents.worker.paused").tag("worker", "submit").gauge().value()).isEqualTo(1);
+        assertThat(worker.runs.poll(600, TimeUnit.MILLISECONDS)).isNull();
+
+        scheduler.resume(DocumentMetrics.SUBMIT);
+
+        assertThat(worker.runs.poll(5, TimeUnit.SECONDS)).isEqualTo(50);
+        assertThat(registry.get("documents.worker.paused").tag("worker", "submit").gauge().value()).isZero();
+    }
+
+    @Test
+    void unknownWorker_throwsNotFound() {
+        WorkerScheduler scheduler = scheduler();
+
+        assertThatThrownBy(() -> scheduler.pause("archive")).isInstanceOf(WorkerNotFoundException.class);
+    }
+}
@@ -3,21 +3,22 @@ package com.itq.docservice.scheduler;
 import com.itq.docservice.dto.BatchStatusResult;
 import com.itq.docservice.entity.DocumentStatus;
 import com.itq.docservice.repository.DocumentRepository;
+import com.itq.docservice.service.DocumentMetrics;
 import com.itq.docservice.service.DocumentService;
+import com.itq.docservice.service.DocumentStatsService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -26,59 +27,58 @@ class WorkerTest {
 
     @Mock private DocumentRepository documentRepository;
     @Mock private DocumentService documentService;
+    @Mock private DocumentStatsService statsService;
+    @Mock private WorkerActivity activity;
 
     @InjectMocks private SubmitWorker submitWorker;
     @InjectMocks private ApproveWorker approveWorker;
 
     @Test
     void submitWorker_noDraftDocs_doesNotCallBatchSubmit() {
-        ReflectionTestUtils.setField(submitWorker, "batchSize", 50);
-        when(documentRepository.findIdsByStatus(eq(DocumentStatus.DRAFT), any()))
-                .thenReturn(new PageImpl<>(List.of()));
+        when(documentRepository.findBatchIdsByStatus(eq(DocumentStatus.DRAFT), any()))
+                .thenReturn(List.of());
 
-        submitWorker.process();
+        submitWorker.process(50);
 
-        verifyNoInteractions(documentService);
+        verifyNoInteractions(documentService, statsService);
     }
 
     @Test
     void submitWorker_withDraftDocs_callsBatchSubmitWithCorrectIds() {
-        ReflectionTestUtils.setField(submitWorker, "batchSize", 50);
         List<Long> ids = List.of(1L, 2L, 3L);
-        when(documentRepository.findIdsByStatus(eq(DocumentStatus.DRAFT), any()))
-                .thenReturn(new PageImpl<>(ids));
+        when(documentRepository.findBatchIdsByStatus(eq(DocumentStatus.DRAFT), any()))
+                .thenReturn(ids);
         when(documentService.batchSubmit(any())).thenReturn(
                 ids.stream().map(id -> new BatchStatusResult(id, BatchStatusResult.ResultCode.SUCCESS, "ok")).toList()
         );
 
-        submitWorker.process();
+        submitWorker.process(50);
 
         ArgumentCaptor<com.itq.docservice.dto.BatchStatusRequest> captor =
                 ArgumentCaptor.forClass(com.itq.docservice.dto.BatchStatusRequest.class);
         verify(documentService).batchSubmit(captor.capture());
         assertThat(captor.getValue().getIds()).containsExactlyInAnyOrderElementsOf(ids);
         assertThat(captor.getValue().getInitiator()).isEqualTo("submit-worker");
+        verify(statsService).countByStatus(DocumentStatus.DRAFT);
     }
 
     @Test
     void submitWorker_respectsBatchSize() {
-        ReflectionTestUtils.setField(submitWorker, "batchSize", 10);
-        when(documentRepository.findIdsByStatus(eq(DocumentStatus.DRAFT), any()))
-                .thenReturn(new PageImpl<>(List.of()));
+        when(documentRepository.findBatchIdsByStatus(eq(DocumentStatus.DRAFT), any()))
+                .thenReturn(List.of());
 
-        submitWorker.process();
+        submitWorker.process(10);
 
         ArgumentCaptor<PageRequest> pageCaptor = ArgumentCaptor.forClass(PageRequest.class);
-        verify(documentRepository).findIdsByStatus(eq(DocumentStatus.DRAFT), pageCaptor.capture());
+        verify(documentRepository).findBatchIdsByStatus(eq(DocumentStatus.DRAFT), pageCaptor.capture());
         assertThat(pageCaptor.getValue().getPageSize()).isEqualTo(10);
     }
 
     @Test
     void submitWorker_partialFailures_doNotStopProcessing() {
-        ReflectionTestUtils.setField(submitWorker, "batchSize", 50);
         List<Long> ids = List.of(1L, 2L, 3L);
-        when(documentRepository.findIdsByStatus(eq(DocumentStatus.DRAFT), any()))
-                .thenReturn(new PageImpl<>(ids));
+        when(documentRepository.findBatchIdsByStatus(eq(DocumentStatus.DRAFT), any()))
+                .thenReturn(ids);
         when(documentService.batchSubmit(any())).thenReturn(List.of(
                 new BatchStatusResult(1L, BatchStatusResult.ResultCode.SUCCESS, "ok"),
                 new BatchStatusResult(2L, BatchStatusResult.ResultCode.CONFLICT, "conflict"),
@@ -86,33 +86,32 @@ class WorkerTest {
         ));
 
         // Should not throw
-        submitWorker.process();
+        submitWorker.process(50);
 
         verify(documentService).batchSubmit(any());
+        verify(activity).batchFinished(eq(DocumentMetrics.SUBMIT), eq(3), eq(1), anyLong());
     }
 
     @Test
     void approveWorker_noSubmittedDocs_doesNotCallBatchApprove() {
-        ReflectionTestUtils.setField(approveWorker, "batchSize", 50);
-        when(documentRepository.findIdsByStatus(eq(DocumentStatus.SUBMITTED), any()))
-                .thenReturn(new PageImpl<>(List.of()));
+        when(documentRepository.findBatchIdsByStatus(eq(DocumentStatus.SUBMITTED), any()))
+                .thenReturn(List.of());
 
-        approveWorker.process();
+        approveWorker.process(50);
 
         verifyNoInteractions(documentService);
     }
 
     @Test
     void approveWorker_withSubmittedDocs_callsBatchApproveWithCorrectIds() {
-        ReflectionTestUtils.setField(approveWorker, "batchSize", 50);
         List<Long> ids = List.of(10L, 20L);
-        when(documentRepository.findIdsByStatus(eq(DocumentStatus.SUBMITTED), any()))
-                .thenReturn(new PageImpl<>(ids));
+        when(documentRepository.findBatchIdsByStatus(eq(DocumentStatus.SUBMITTED), any()))
+                .thenReturn(ids);
         when(documentService.batchApprove(any())).thenReturn(
                 ids.stream().map(id -> new BatchStatusResult(id, BatchStatusResult.ResultCode.SUCCESS, "ok")).toList()
         );
 
-        approveWorker.process();
+        approveWorker.process(50);
 
         ArgumentCaptor<com.itq.docservice.dto.BatchStatusRequest> captor =
                 ArgumentCaptor.forClass(com.itq.docservice.dto.BatchStatusRequest.class);
@@ -123,15 +122,14 @@ class WorkerTest {
 
     @Test
     void approveWorker_exceptionFromService_doesNotPropagate() {
-        ReflectionTestUtils.setField(approveWorker, "batchSize", 50);
         List<Long> ids = List.of(1L);
-        when(documentRepository.findIdsByStatus(eq(DocumentStatus.SUBMITTED), any()))
-                .thenReturn(new PageImpl<>(ids));
+        when(documentRepository.findBatchIdsByStatus(eq(DocumentStatus.SUBMITTED), any()))
+                .thenReturn(ids);
         when(documentService.batchApprove(any())).thenReturn(
                 List.of(new BatchStatusResult(1L, BatchStatusResult.ResultCode.REGISTRY_ERROR, "fail"))
         );
 
         // Should not throw even if there's an error in results
-        approveWorker.process();
+        approveWorker.process(50);
     }
 }
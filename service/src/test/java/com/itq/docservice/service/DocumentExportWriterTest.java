@@ -0,0 +1,73 @@
+package com.itq.docservice.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.itq.docservice.dto.DocumentExportRow;
+import com.itq.docservice.dto.FileFormat;
+import com.itq.docservice.entity.DocumentStatus;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DocumentExportWriterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private static final OffsetDateTime TS = OffsetDateTime.parse("2024-07-01T10:00:00Z");
+
+    private DocumentExportRow row(long id, String title) {
+        return new DocumentExportRow(id, "DOC-" + id, "alice", title, DocumentStatus.DRAFT, TS, TS);
+    }
+
+    private String export(FileFormat format, DocumentExportRow... rows) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DocumentExportWriter writer = DocumentExportWriter.create(format, out, objectMapper);
+        for (DocumentExportRow r : rows) {
+            writer.write(r);
+        }
+        writer.finish();
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void csv_writesHeaderAndOneLinePerRow() throws IOException {
+        String csv = export(FileFormat.CSV, row(1, "Plain"), row(2, "Другой"));
+
+        assertThat(csv.split("\n")).containsExactly(
+                DocumentExportWriter.CSV_HEADER,
+                "1,DOC-1,alice,Plain,DRAFT,2024-07-01T10:00Z,2024-07-01T10:00Z",
+                "2,DOC-2,alice,Другой,DRAFT,2024-07-01T10:00Z,2024-07-01T10:00Z");
+    }
+
+    @Test
+    void csv_quotesFieldsWithDelimitersQuotesAndLineBreaks() {
+        assertThat(DocumentExportWriter.Csv.escape("a,b")).isEqualTo("\"a,b\"");
+        assertThat(DocumentExportWriter.Csv.escape("say \"hi\"")).isEqualTo("\"say \"\"hi\"\"\"");
+        assertThat(DocumentExportWriter.Csv.escape("two\nlines")).isEqualTo("\"two\nlines\"");
+        assertThat(DocumentExportWriter.Csv.escape("plain")).isEqualTo("plain");
+        assertThat(DocumentExportWriter.Csv.escape(null)).isEmpty();
+    }
+
+    @Test
+    void ndjson_writesOneNewlineTerminatedObjectPerRow() throws IOException {
+        String ndjson = export(FileFormat.NDJSON, row(1, "First"), row(2, "Second, \"quoted\""));
+
+        assertThat(ndjson).endsWith("\n");
+        String[] lines = ndjson.split("\n");
+        assertThat(lines).hasSize(2);
+        JsonNode second = objectMapper.readTree(lines[1]);
+        assertThat(second.get("id").asLong()).isEqualTo(2);
+        assertThat(second.get("title").asText()).isEqualTo("Second, \"quoted\"");
+        assertThat(second.get("status").asText()).isEqualTo("DRAFT");
+    }
+
+    @Test
+    void ndjson_emptyResult_writesNothing() throws IOException {
+        assertThat(export(FileFormat.NDJSON)).isEmpty();
+    }
+}
@@ -0,0 +1,88 @@
+package com.itq.docservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.itq.docservice.dto.FileFormat;
+import com.itq.docservice.exception.InvalidBulkInputException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DocumentIngestReaderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private List<DocumentIngestReader.Row> readAll(FileFormat format, String body) throws IOException {
+        DocumentIngestReader reader = DocumentIngestReader.create(format,
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), objectMapper);
+        List<DocumentIngestReader.Row> rows = new ArrayList<>();
+        DocumentIngestReader.Row row;
+        while ((row = reader.next()) != null) {
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    // ── NDJSON ────────────────────────────────────────────────────────────────
+
+    @Test
+    void ndjson_parsesRowsSkipsBlankLinesAndReportsMalformedOnes() throws IOException {
+        List<DocumentIngestReader.Row> rows = readAll(FileFormat.NDJSON, """
+                {"author":"alice","title":"One"}
+
+                {"author":"bob",
+                {"author":"carol","title":"Three"}
+                """);
+
+        assertThat(rows).extracting(DocumentIngestReader.Row::line).containsExactly(1L, 3L, 4L);
+        assertThat(rows.get(0).request().getTitle()).isEqualTo("One");
+        assertThat(rows.get(1).error()).startsWith("Malformed JSON");
+        assertThat(rows.get(2).request().getAuthor()).isEqualTo("carol");
+    }
+
+    // ── CSV ───────────────────────────────────────────────────────────────────
+
+    @Test
+    void csv_mapsColumnsByHeaderAndHandlesQuotesAndCrlf() throws IOException {
+        List<DocumentIngestReader.Row> rows = readAll(FileFormat.CSV,
+                "title,extra,Author\r\n"
+                        + "Plain,x,alice\r\n"
+                        + "\"Comma, and \"\"quotes\"\"\",,bob\r\n");
+
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(0).request().getAuthor()).isEqualTo("alice");
+        assertThat(rows.get(0).request().getTitle()).isEqualTo("Plain");
+        assertThat(rows.get(1).request().getTitle()).isEqualTo("Comma, and \"quotes\"");
+        assertThat(rows.get(1).line()).isEqualTo(3);
+    }
+
+    @Test
+    void csv_quotedLineBreak_keepsLineNumbersOfLaterRows() throws IOException {
+        List<DocumentIngestReader.Row> rows = readAll(FileFormat.CSV,
+                "author,title\nalice,\"two\nlines\"\nbob,short\n");
+
+        assertThat(rows.get(0).request().getTitle()).isEqualTo("two\nlines");
+        assertThat(rows.get(1).line()).isEqualTo(4);
+    }
+
+    @Test
+    void csv_shortRowAndUnterminatedQuote_areRowErrors() throws IOException {
+        List<DocumentIngestReader.Row> rows = readAll(FileFormat.CSV, "author,title\nalice\nbob,\"open");
+
+        assertThat(rows).extracting(DocumentIngestReader.Row::error)
+                .containsExactly("Expected at least 2 columns, got 1", "Unterminated quoted field");
+    }
+
+    @Test
+    void csv_missingRequiredHeader_isRejectedUpFront() {
+        assertThatThrownBy(() -> readAll(FileFormat.CSV, "name,title\nalice,One\n"))
+                .isInstanceOf(InvalidBulkInputException.class)
+                .hasMessageContaining("author");
+    }
+}
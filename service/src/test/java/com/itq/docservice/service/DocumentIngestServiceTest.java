@@ -0,0 +1,146 @@
+package com.itq.docservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.itq.docservice.dto.BulkChunkResult;
+import com.itq.docservice.dto.BulkIngestResponse;
+import com.itq.docservice.dto.CreateDocumentRequest;
+import com.itq.docservice.dto.FileFormat;
+import com.itq.docservice.entity.Document;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DocumentIngestServiceTest {
+
+    @Mock private DocumentTransactionService txService;
+
+    private DocumentIngestService ingestService;
+
+    @BeforeEach
+    void setUp() {
+        ingestService = new DocumentIngestService(txService,
+                Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper());
+        ReflectionTestUtils.setField(ingestService, "defaultChunkSize", 2);
+        ReflectionTestUtils.setField(ingestService, "maxChunkSize", 3);
+    }
+
+    private static List<Document> ids(List<CreateDocumentRequest> requests) {
+        return requests.stream().map(r -> new Document()).toList();
+    }
+
+    private BulkIngestResponse ingest(String body, Integer chunkSize) throws IOException {
+        return ingestService.ingest(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)),
+                FileFormat.NDJSON, chunkSize);
+    }
+
+    private static String rows(int count) {
+        return IntStream.rangeClosed(1, count)
+                .mapToObj(i -> "{\"author\":\"a\",\"title\":\"T" + i + "\"}")
+                .collect(Collectors.joining("\n"));
+    }
+
+    @Test
+    void ingest_splitsIntoChunksOfConfiguredSize() throws IOException {
+        when(txService.createDrafts(anyList())).thenAnswer(inv -> ids(inv.getArgument(0)));
+
+        BulkIngestResponse response = ingest(rows(5), null);
+
+        assertThat(response.getTotalRows()).isEqualTo(5);
+        assertThat(response.getInserted()).isEqualTo(5);
+        assertThat(response.getChunks()).extracting(BulkChunkResult::getInserted).containsExactly(2, 2, 1);
+        assertThat(response.getChunks()).extracting(BulkChunkResult::getFirstLine).containsExactly(1L, 3L, 5L);
+        verify(txService, times(3)).createDrafts(anyList());
+    }
+
+    @Test
+    void ingest_chunkSizeParam_isCappedAtMax() throws IOException {
+        when(txService.createDrafts(anyList())).thenAnswer(inv -> ids(inv.getArgument(0)));
+
+        BulkIngestResponse response = ingest(rows(5), 100);
+
+        assertThat(response.getChunks()).extracting(BulkChunkResult::getInserted).containsExactly(3, 2);
+    }
+
+    @Test
+    void ingest_invalidRows_areRejectedWithoutReachingTheDatabase() throws IOException {
+        when(txService.createDrafts(anyList())).thenAnswer(inv -> ids(inv.getArgument(0)));
+
+        BulkIngestResponse response = ingest("""
+                {"author":"a","title":"ok"}
+                {"author":"","title":"no author"}
+                """, null);
+
+        BulkChunkResult chunk = response.getChunks().get(0);
+        assertThat(chunk.getResult()).isEqualTo(BulkChunkResult.ResultCode.PARTIAL);
+        assertThat(chunk.getRejected()).isEqualTo(1);
+        assertThat(chunk.getErrors()).containsExactly("line 2: Author must not be blank");
+        verify(txService).createDrafts(argThat(list -> list.size() == 1));
+    }
+
+    @Test
+    void ingest_configuredChunkSizeOfZero_isClampedToOne() throws IOException {
+        ReflectionTestUtils.setField(ingestService, "defaultChunkSize", 0);
+        when(txService.createDrafts(anyList())).thenAnswer(inv -> ids(inv.getArgument(0)));
+
+        BulkIngestResponse response = ingest(rows(3), null);
+
+        assertThat(response.getChunks()).extracting(BulkChunkResult::getInserted).containsExactly(1, 1, 1);
+    }
+
+    @Test
+    void ingest_nullLine_isRejectedAsRowError() throws IOException {
+        when(txService.createDrafts(anyList())).thenAnswer(inv -> ids(inv.getArgument(0)));
+
+        BulkIngestResponse response = ingest("""
+                {"author":"a","title":"ok"}
+                null
+                {"author":"a","title":"later"}
+                """, null);
+
+        assertThat(response.getInserted()).isEqualTo(2);
+        assertThat(response.getRejected()).isEqualTo(1);
+        assertThat(response.getChunks().get(0).getErrors()).containsExactly("line 2: Row is not a JSON object");
+    }
+
+    @Test
+    void ingest_failedChunk_isReportedAndLaterChunksStillRun() throws IOException {
+        when(txService.createDrafts(anyList()))
+                .thenThrow(new DataIntegrityViolationException("duplicate number"))
+                .thenAnswer(inv -> ids(inv.getArgument(0)));
+
+        BulkIngestResponse response = ingest(rows(4), null);
+
+        assertThat(response.getChunks()).extracting(BulkChunkResult::getResult)
+                .containsExactly(BulkChunkResult.ResultCode.FAILED, BulkChunkResult.ResultCode.SUCCESS);
+        assertThat(response.getInserted()).isEqualTo(2);
+        assertThat(response.getRejected()).isEqualTo(2);
+        assertThat(response.getChunks().get(0).getErrors()).singleElement()
+                .satisfies(e -> assertThat(e).startsWith("chunk failed"));
+    }
+
+    @Test
+    void ingest_emptyBody_returnsEmptyReport() throws IOException {
+        BulkIngestResponse response = ingest("", null);
+
+        assertThat(response.getTotalRows()).isZero();
+        assertThat(response.getChunks()).isEmpty();
+        verifyNoInteractions(txService);
+    }
+}
@@ -88,4 +88,21 @@ class DocumentMapperTest {
 
         assertThat(resp.getHistory()).isEmpty();
     }
+
+    @Test
+    void toResponse_withExplicitHistorySlice_doesNotTouchLazyCollection() {
+        Document doc = buildDoc();
+        doc.setHistory(null);
+        DocumentHistory h = new DocumentHistory();
+        h.setId(5L);
+        h.setDocument(doc);
+        h.setPerformedBy("dave");
+        h.setAction(DocumentAction.APPROVE);
+        h.setPerformedAt(OffsetDateTime.now());
+
+        DocumentResponse resp = mapper.toResponse(doc, List.of(h));
+
+        assertThat(resp.getHistory()).hasSize(1);
+        assertThat(resp.getHistory().get(0).getId()).isEqualTo(5L);
+    }
 }
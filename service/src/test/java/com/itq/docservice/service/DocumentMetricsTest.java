@@ -0,0 +1,91 @@
+package com.itq.docservice.service;
+
+import com.itq.docservice.dto.BatchStatusResult;
+import com.itq.docservice.entity.DocumentStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DocumentMetricsTest {
+
+    @Mock private DocumentStatsService statsService;
+
+    private SimpleMeterRegistry registry;
+    private DocumentMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        metrics = new DocumentMetrics(registry, statsService);
+    }
+
+    @Test
+    void transition_recordsTimerTaggedWithResultCode() {
+        metrics.transition(DocumentMetrics.SUBMIT,
+                () -> new BatchStatusResult(1L, BatchStatusResult.ResultCode.SUCCESS, "Submitted"));
+        metrics.transition(DocumentMetrics.SUBMIT,
+                () -> new BatchStatusResult(2L, BatchStatusResult.ResultCode.CONFLICT, "Conflict"));
+        metrics.transition(DocumentMetrics.SUBMIT,
+                () -> new BatchStatusResult(3L, BatchStatusResult.ResultCode.SUCCESS, "Submitted"));
+
+        assertThat(registry.get("documents.transition").tags("action", "submit", "result", "SUCCESS")
+                .timer().count()).isEqualTo(2);
+        assertThat(registry.get("documents.transition").tags("action", "submit", "result", "CONFLICT")
+                .timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void transition_exception_recordedAndRethrown() {
+        assertThatThrownBy(() -> metrics.transition(DocumentMetrics.APPROVE, () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(registry.get("documents.transition").tags("action", "approve", "result", "EXCEPTION")
+                .timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void recordBatch_recordsSizeAndDuration() {
+        metrics.recordBatch(DocumentMetrics.APPROVE, 50, TimeUnit.MILLISECONDS.toNanos(120));
+
+        assertThat(registry.get("documents.batch.size").tag("action", "approve").summary().totalAmount())
+                .isEqualTo(50);
+        assertThat(registry.get("documents.batch.duration").tag("action", "approve").timer()
+                .totalTime(TimeUnit.MILLISECONDS)).isEqualTo(120);
+    }
+
+    @Test
+    void workerLag_negativeClampedToZero() {
+        metrics.recordWorkerLag(DocumentMetrics.SUBMIT, -5_000);
+
+        assertThat(registry.get("documents.worker.lag").tag("worker", "submit").timer().max(TimeUnit.NANOSECONDS))
+                .isZero();
+    }
+
+    @Test
+    void backlogGauges_readStatusCounters() {
+        when(statsService.countByStatus(DocumentStatus.DRAFT)).thenReturn(7L);
+        when(statsService.countByStatus(DocumentStatus.SUBMITTED)).thenReturn(3L);
+
+        assertThat(registry.get("documents.backlog").tag("status", "DRAFT").gauge().value()).isEqualTo(7);
+        assertThat(registry.get("documents.backlog").tag("status", "SUBMITTED").gauge().value()).isEqualTo(3);
+    }
+
+    @Test
+    void recordCreated_incrementsCounter() {
+        metrics.recordCreated(1);
+        metrics.recordCreated(25);
+
+        assertThat(registry.get("documents.created").counter().count()).isEqualTo(26);
+    }
+}
@@ -3,15 +3,23 @@ package com.itq.docservice.service;
 import com.itq.docservice.dto.*;
 import com.itq.docservice.entity.*;
 import com.itq.docservice.exception.DocumentNotFoundException;
+import com.itq.docservice.exception.InvalidCursorException;
+import com.itq.docservice.exception.InvalidSearchException;
 import com.itq.docservice.repository.*;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.*;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.OffsetDateTime;
 import java.util.List;
@@ -25,9 +33,14 @@ import static org.mockito.Mockito.*;
 class DocumentServiceTest {
 
     @Mock private DocumentRepository documentRepository;
+    @Mock private DocumentHistoryRepository historyRepository;
     @Mock private DocumentMapper mapper;
     @Mock private NumberGenerator numberGenerator;
     @Mock private DocumentTransactionService txService;
+    @Mock private DocumentStatsService statsService;
+    @Spy private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+    @Spy private DocumentMetrics metrics =
+            new DocumentMetrics(new SimpleMeterRegistry(), mock(DocumentStatsService.class));
 
     @InjectMocks
     private DocumentService documentService;
@@ -74,6 +87,65 @@ class DocumentServiceTest {
                 d.getTitle().equals("Test Doc") &&
                 d.getStatus() == DocumentStatus.DRAFT
         ));
+        verify(statsService).recordCreated(sampleDraft);
+    }
+
+    // ── batchCreate ───────────────────────────────────────────────────────────
+
+    private static CreateDocumentRequest item(String author, String title) {
+        CreateDocumentRequest req = new CreateDocumentRequest();
+        req.setAuthor(author);
+        req.setTitle(title);
+        return req;
+    }
+
+    private static BatchCreateRequest batch(CreateDocumentRequest... items) {
+        BatchCreateRequest req = new BatchCreateRequest();
+        req.setDocuments(List.of(items));
+        return req;
+    }
+
+    @Test
+    void batchCreate_invalidItemsReportedInPlace_validOnesInsertedInOneCall() {
+        CreateDocumentRequest a = item("alice", "A");
+        CreateDocumentRequest c = item("carol", "C");
+        when(txService.createDrafts(List.of(a, c))).thenReturn(List.of(sampleDraft, sampleDraft));
+        when(mapper.toResponse(sampleDraft, false)).thenReturn(sampleResponse);
+
+        List<BatchCreateResult> results = documentService.batchCreate(batch(a, item("bob", " "), c));
+
+        assertThat(results).extracting(BatchCreateResult::getIndex, BatchCreateResult::getResult).containsExactly(
+                tuple(0, BatchCreateResult.ResultCode.CREATED),
+                tuple(1, BatchCreateResult.ResultCode.VALIDATION_ERROR),
+                tuple(2, BatchCreateResult.ResultCode.CREATED));
+        assertThat(results.get(1).getMessage()).isEqualTo("Title must not be blank");
+        assertThat(results.get(0).getDocument()).isSameAs(sampleResponse);
+        verify(txService, times(1)).createDrafts(anyList());
+    }
+
+    @Test
+    void batchCreate_chunked_failedChunkOnlyFailsItsOwnItems() {
+        ReflectionTestUtils.setField(documentService, "batchCreateChunkSize", 1);
+        CreateDocumentRequest a = item("alice", "A");
+        CreateDocumentRequest b = item("bob", "B");
+        when(txService.createDrafts(List.of(a))).thenThrow(new DataIntegrityViolationException("duplicate number"));
+        when(txService.createDrafts(List.of(b))).thenReturn(List.of(sampleDraft));
+        when(mapper.toResponse(sampleDraft, false)).thenReturn(sampleResponse);
+
+        List<BatchCreateResult> results = documentService.batchCreate(batch(a, b));
+
+        assertThat(results).extracting(BatchCreateResult::getResult).containsExactly(
+                BatchCreateResult.ResultCode.FAILED, BatchCreateResult.ResultCode.CREATED);
+        assertThat(results.get(0).getMessage()).contains("duplicate number");
+    }
+
+    @Test
+    void batchCreate_allInvalid_neverOpensATransaction() {
+        List<BatchCreateResult> results = documentService.batchCreate(batch(item("", "A")));
+
+        assertThat(results).singleElement()
+                .extracting(BatchCreateResult::getResult).isEqualTo(BatchCreateResult.ResultCode.VALIDATION_ERROR);
+        verifyNoInteractions(txService);
     }
 
     // ── getDocumentWithHistory ────────────────────────────────────────────────
@@ -98,6 +170,90 @@ class DocumentServiceTest {
                 .hasMessageContaining("999");
     }
 
+    @Test
+    void getDocumentWithHistory_withLimit_embedsLatestEntriesInChronologicalOrder() {
+        DocumentHistory older = history(10L, OffsetDateTime.now().minusMinutes(5));
+        DocumentHistory newer = history(11L, OffsetDateTime.now());
+        when(documentRepository.findById(1L)).thenReturn(Optional.of(sampleDraft));
+        when(historyRepository.findLatest(eq(1L), any(Pageable.class))).thenReturn(List.of(newer, older));
+        when(mapper.toResponse(eq(sampleDraft), anyList())).thenReturn(sampleResponse);
+
+        documentService.getDocumentWithHistory(1L, 2);
+
+        verify(historyRepository).findLatest(1L, PageRequest.ofSize(2));
+        verify(mapper).toResponse(sampleDraft, List.of(older, newer));
+    }
+
+    @Test
+    void getDocumentWithHistory_withNullLimit_embedsFullHistory() {
+        when(documentRepository.findById(1L)).thenReturn(Optional.of(sampleDraft));
+        when(mapper.toResponse(sampleDraft, true)).thenReturn(sampleResponse);
+
+        documentService.getDocumentWithHistory(1L, null);
+
+        verify(mapper).toResponse(sampleDraft, true);
+        verifyNoInteractions(historyRepository);
+    }
+
+    // ── getHistoryPage ────────────────────────────────────────────────────────
+
+    @Test
+    void getHistoryPage_firstPage_returnsCursorWhenMoreRowsExist() {
+        OffsetDateTime t = OffsetDateTime.parse("2024-05-01T10:00:00Z");
+        when(documentRepository.existsById(1L)).thenReturn(true);
+        when(historyRepository.findFirstPage(1L, PageRequest.ofSize(3)))
+                .thenReturn(List.of(history(1L, t), history(2L, t.plusSeconds(1)), history(3L, t.plusSeconds(2))));
+
+        HistoryPageResponse page = documentService.getHistoryPage(1L, null, 2);
+
+        assertThat(page.isHasMore()).isTrue();
+        assertThat(page.getNextCursor()).isNotBlank();
+        verify(mapper).toHistoryResponses(argThat(list -> list.size() == 2));
+    }
+
+    @Test
+    void getHistoryPage_withCursor_continuesAfterLastEntry() {
+        OffsetDateTime t = OffsetDateTime.parse("2024-05-01T10:00:00Z");
+        String cursor = HistoryCursor.of(history(2L, t)).encode();
+        when(documentRepository.existsById(1L)).thenReturn(true);
+        when(historyRepository.findPageAfter(eq(1L), any(), eq(2L), any(Pageable.class)))
+                .thenReturn(List.of(history(3L, t.plusSeconds(1))));
+
+        HistoryPageResponse page = documentService.getHistoryPage(1L, cursor, 2);
+
+        assertThat(page.isHasMore()).isFalse();
+        assertThat(page.getNextCursor()).isNull();
+        verify(historyRepository).findPageAfter(
+                eq(1L), argThat(ts -> ts.isEqual(t)), eq(2L), eq(PageRequest.ofSize(3)));
+    }
+
+    @Test
+    void getHistoryPage_invalidCursor_throws() {
+        when(documentRepository.existsById(1L)).thenReturn(true);
+
+        assertThatThrownBy(() -> documentService.getHistoryPage(1L, "not-a-cursor", 10))
+                .isInstanceOf(InvalidCursorException.class);
+    }
+
+    @Test
+    void getHistoryPage_unknownDocument_throws() {
+        when(documentRepository.existsById(999L)).thenReturn(false);
+
+        assertThatThrownBy(() -> documentService.getHistoryPage(999L, null, 10))
+                .isInstanceOf(DocumentNotFoundException.class);
+        verifyNoInteractions(historyRepository);
+    }
+
+    private DocumentHistory history(Long id, OffsetDateTime performedAt) {
+        DocumentHistory h = new DocumentHistory();
+        h.setId(id);
+        h.setDocument(sampleDraft);
+        h.setPerformedBy("bob");
+        h.setAction(DocumentAction.SUBMIT);
+        h.setPerformedAt(performedAt);
+        return h;
+    }
+
     // ── getDocumentsByIds ─────────────────────────────────────────────────────
 
     @Test
@@ -139,6 +295,37 @@ class DocumentServiceTest {
         verify(documentRepository).findAll(any(Specification.class), eq(pageable));
     }
 
+    @Test
+    void getDocumentsPaged_includeHistory_loadsHistoryForWholePageInOneQuery() {
+        Document second = new Document();
+        second.setId(2L);
+        second.setStatus(DocumentStatus.DRAFT);
+        DocumentHistory h1 = history(10L, OffsetDateTime.now());
+        DocumentHistory h2 = history(11L, OffsetDateTime.now());
+        Pageable pageable = PageRequest.of(0, 10);
+        when(documentRepository.findAll(pageable)).thenReturn(new PageImpl<>(List.of(sampleDraft, second), pageable, 2));
+        when(historyRepository.findAllByDocumentIds(List.of(1L, 2L))).thenReturn(List.of(h1, h2));
+        when(mapper.toResponse(any(Document.class), anyList())).thenReturn(sampleResponse);
+
+        Page<DocumentResponse> result = documentService.getDocumentsPaged(null, true, pageable);
+
+        assertThat(result.getContent()).hasSize(2);
+        assertThat(result.getTotalElements()).isEqualTo(2);
+        verify(historyRepository, times(1)).findAllByDocumentIds(anyCollection());
+        verify(mapper).toResponse(sampleDraft, List.of(h1, h2));
+        verify(mapper).toResponse(second, List.of());
+    }
+
+    @Test
+    void getDocumentsByIds_withoutHistory_doesNotQueryHistory() {
+        when(documentRepository.findAllByIdIn(List.of(1L))).thenReturn(List.of(sampleDraft));
+        when(mapper.toResponse(sampleDraft, false)).thenReturn(sampleResponse);
+
+        documentService.getDocumentsByIds(List.of(1L));
+
+        verifyNoInteractions(historyRepository);
+    }
+
     // ── batchSubmit ───────────────────────────────────────────────────────────
 
     @Test
@@ -197,4 +384,42 @@ class DocumentServiceTest {
 
         assertThat(result.getContent()).hasSize(1);
     }
+
+    @Test
+    void search_withTextQuery_keepsPageAndOrdersByRelevance() {
+        Pageable unsorted = PageRequest.of(2, 10);
+        when(documentRepository.findAll(any(Specification.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of()));
+
+        DocumentSearchRequest searchReq = new DocumentSearchRequest();
+        searchReq.setQ("contract");
+        documentService.search(searchReq, unsorted);
+
+        verify(documentRepository).findAll(any(Specification.class), eq(unsorted));
+    }
+
+    @Test
+    void search_withTextQueryAndExplicitSort_isRejected() {
+        DocumentSearchRequest searchReq = new DocumentSearchRequest();
+        searchReq.setQ("contract");
+
+        assertThatThrownBy(() -> documentService.search(searchReq, PageRequest.of(0, 10, Sort.by("createdAt"))))
+                .isInstanceOf(InvalidSearchException.class)
+                .hasMessageContaining("ordered by relevance");
+        verifyNoInteractions(documentRepository);
+    }
+
+    @Test
+    void search_includeHistory_batchesHistoryLookup() {
+        Pageable pageable = PageRequest.of(0, 10);
+        when(documentRepository.findAll(any(Specification.class), eq(pageable)))
+                .thenReturn(new PageImpl<>(List.of(sampleDraft), pageable, 1));
+        when(historyRepository.findAllByDocumentIds(List.of(1L))).thenReturn(List.of());
+        when(mapper.toResponse(sampleDraft, List.of())).thenReturn(sampleResponse);
+
+        Page<DocumentResponse> result = documentService.search(new DocumentSearchRequest(), true, pageable);
+
+        assertThat(result.getContent()).containsExactly(sampleResponse);
+        verify(historyRepository).findAllByDocumentIds(List.of(1L));
+    }
 }
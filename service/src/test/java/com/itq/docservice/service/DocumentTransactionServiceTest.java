@@ -1,20 +1,35 @@
 package com.itq.docservice.service;
 
 import com.itq.docservice.dto.BatchStatusResult;
+import com.itq.docservice.dto.CreateDocumentRequest;
 import com.itq.docservice.entity.*;
+import com.itq.docservice.monitoring.jfr.TransitionEvent;
 import com.itq.docservice.repository.*;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.dao.DataIntegrityViolationException;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -23,6 +38,11 @@ class DocumentTransactionServiceTest {
     @Mock private DocumentRepository documentRepository;
     @Mock private DocumentHistoryRepository historyRepository;
     @Mock private ApprovalRegistryRepository registryRepository;
+    @Mock private DocumentStatsService statsService;
+    @Mock private DocumentBulkWriter bulkWriter;
+    @Mock private NumberGenerator numberGenerator;
+    @Mock private DocumentMetrics metrics;
+    @Mock private ObjectProvider<SnowflakeSequence> snowflakeSequence;
 
     @InjectMocks
     private DocumentTransactionService txService;
@@ -51,6 +71,60 @@ class DocumentTransactionServiceTest {
         submittedDoc.setUpdatedAt(OffsetDateTime.now());
     }
 
+    // ── createDrafts ──────────────────────────────────────────────────────────
+
+    @Test
+    void createDrafts_numbersFromOneBlock_returnsDocumentsInRequestOrder() {
+        CreateDocumentRequest a = new CreateDocumentRequest();
+        a.setAuthor("alice");
+        a.setTitle("A");
+        CreateDocumentRequest b = new CreateDocumentRequest();
+        b.setAuthor("bob");
+        b.setTitle("B");
+        List<String> numbers = List.of("DOC-1", "DOC-2");
+        when(numberGenerator.generate(2)).thenReturn(numbers);
+        // RETURNING order is not guaranteed to follow the input
+        when(bulkWriter.insertDrafts(isNull(), eq(numbers), eq(List.of(a, b)), any()))
+                .thenReturn(Map.of("DOC-2", 11L, "DOC-1", 10L));
+
+        List<Document> created = txService.createDrafts(List.of(a, b));
+
+        assertThat(created).extracting(Document::getId, Document::getNumber, Document::getAuthor, Document::getStatus)
+                .containsExactly(
+                        tuple(10L, "DOC-1", "alice", DocumentStatus.DRAFT),
+                        tuple(11L, "DOC-2", "bob", DocumentStatus.DRAFT));
+        assertThat(created.get(0).getCreatedAt()).isNotNull();
+        verify(statsService).recordCreated(eq(List.of("alice", "bob")), any());
+        verify(numberGenerator, never()).generate();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void createDrafts_snowflakeMode_insertsAssignedTimeOrderedIds() {
+        CreateDocumentRequest a = new CreateDocumentRequest();
+        a.setAuthor("alice");
+        a.setTitle("A");
+        CreateDocumentRequest b = new CreateDocumentRequest();
+        b.setAuthor("bob");
+        b.setTitle("B");
+        List<String> numbers = List.of("DOC-1", "DOC-2");
+        when(numberGenerator.generate(2)).thenReturn(numbers);
+        when(snowflakeSequence.getIfAvailable()).thenReturn(new SnowflakeSequence(5));
+        when(bulkWriter.insertDrafts(anyList(), eq(numbers), eq(List.of(a, b)), any()))
+                .thenAnswer(inv -> {
+                    List<Long> ids = inv.getArgument(0);
+                    return Map.of("DOC-1", ids.get(0), "DOC-2", ids.get(1));
+                });
+
+        List<Document> created = txService.createDrafts(List.of(a, b));
+
+        ArgumentCaptor<List<Long>> ids = ArgumentCaptor.forClass(List.class);
+        verify(bulkWriter).insertDrafts(ids.capture(), eq(numbers), eq(List.of(a, b)), any());
+        assertThat(ids.getValue()).hasSize(2).isSorted()
+                .allSatisfy(id -> assertThat(SnowflakeSequence.nodeOf(id)).isEqualTo(5));
+        assertThat(created).extracting(Document::getId).containsExactlyElementsOf(ids.getValue());
+    }
+
     // ── submitOne ─────────────────────────────────────────────────────────────
 
     @Test
@@ -66,6 +140,7 @@ class DocumentTransactionServiceTest {
                 h.getPerformedBy().equals("bob") &&
                 "go".equals(h.getComment())
         ));
+        verify(statsService).recordTransition(draftDoc, DocumentStatus.DRAFT, DocumentStatus.SUBMITTED);
     }
 
     @Test
@@ -86,7 +161,7 @@ class DocumentTransactionServiceTest {
 
         assertThat(result.getResult()).isEqualTo(BatchStatusResult.ResultCode.CONFLICT);
         assertThat(result.getMessage()).contains("SUBMITTED");
-        verifyNoInteractions(historyRepository);
+        verifyNoInteractions(historyRepository, statsService);
     }
 
     @Test
@@ -128,6 +203,7 @@ class DocumentTransactionServiceTest {
                 r.getDocumentId().equals(2L) &&
                 r.getApprovedBy().equals("carol")
         ));
+        verify(statsService).recordTransition(submittedDoc, DocumentStatus.SUBMITTED, DocumentStatus.APPROVED);
     }
 
     @Test
@@ -148,7 +224,7 @@ class DocumentTransactionServiceTest {
 
         assertThat(result.getResult()).isEqualTo(BatchStatusResult.ResultCode.CONFLICT);
         assertThat(result.getMessage()).contains("DRAFT");
-        verifyNoInteractions(historyRepository, registryRepository);
+        verifyNoInteractions(historyRepository, registryRepository, statsService);
     }
 
     @Test
@@ -175,4 +251,53 @@ class DocumentTransactionServiceTest {
 
         assertThat(result.getResult()).isEqualTo(BatchStatusResult.ResultCode.REGISTRY_ERROR);
     }
+
+    // ── JFR ───────────────────────────────────────────────────────────────────
+
+    @Test
+    void transitions_emitJfrEventsWithOutcome() throws Exception {
+        when(documentRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(draftDoc));
+        when(documentRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(submittedDoc));
+        Path file = Files.createTempFile("transitions", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(TransitionEvent.NAME).withoutThreshold();
+            recording.start();
+            txService.submitOne(1L, "bob", null);
+            txService.submitOne(2L, "bob", null);
+            recording.stop();
+            recording.dump(file);
+
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            assertThat(events).extracting(e -> e.getLong("documentId"), e -> e.getString("action"),
+                            e -> e.getString("result"))
+                    .containsExactly(
+                            tuple(1L, "SUBMIT", "SUCCESS"),
+                            tuple(2L, "SUBMIT", "CONFLICT"));
+            assertThat(events.get(0).getDuration("lockWait")).isPositive();
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void transitionThatThrows_emitsJfrEventWithExceptionResult() throws Exception {
+        when(documentRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(draftDoc));
+        when(historyRepository.save(any())).thenThrow(new IllegalStateException("boom"));
+        Path file = Files.createTempFile("transitions", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(TransitionEvent.NAME).withoutThreshold();
+            recording.start();
+            assertThatThrownBy(() -> txService.submitOne(1L, "bob", null))
+                    .isInstanceOf(IllegalStateException.class);
+            recording.stop();
+            recording.dump(file);
+
+            assertThat(RecordingFile.readAllEvents(file))
+                    .extracting(e -> e.getLong("documentId"), e -> e.getString("action"),
+                            e -> e.getString("result"))
+                    .containsExactly(tuple(1L, "SUBMIT", TransitionEvent.EXCEPTION));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
 }
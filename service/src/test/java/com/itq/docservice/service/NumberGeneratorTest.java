@@ -2,16 +2,34 @@ package com.itq.docservice.service;
 
 import org.junit.jupiter.api.Test;
 
+import java.time.Clock;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 class NumberGeneratorTest {
 
-    private final NumberGenerator generator = new NumberGenerator();
+    /** Stands in for document_number_seq: each call reserves the next block. */
+    private final AtomicLong sequence = new AtomicLong(1);
+    private final AtomicInteger blockFetches = new AtomicInteger();
+    private final LongSupplier blockSource = () -> {
+        blockFetches.incrementAndGet();
+        return sequence.getAndAdd(NumberGenerator.BLOCK_SIZE);
+    };
+
+    private final NumberGenerator generator = new NumberGenerator(blockSource, Clock.systemDefaultZone());
 
     @Test
     void generate_startsWithDocPrefix() {
@@ -41,4 +59,100 @@ class NumberGeneratorTest {
         // Expected: DOC-yyyyMMdd-<number>
         assertThat(number).matches("DOC-\\d{8}-\\d+");
     }
+
+    @Test
+    void generateBlock_returnsConsecutiveNumbersNotOverlappingSingles() {
+        String before = generator.generate();
+        List<String> block = generator.generate(3);
+        String after = generator.generate();
+
+        long first = sequenceOf(block.get(0));
+        assertThat(block).extracting(NumberGeneratorTest::sequenceOf).containsExactly(first, first + 1, first + 2);
+        assertThat(sequenceOf(before)).isLessThan(first);
+        assertThat(sequenceOf(after)).isGreaterThan(first + 2);
+    }
+
+    @Test
+    void generate_fetchesANewBlockOnlyWhenTheCurrentOneIsExhausted() {
+        for (int i = 0; i < NumberGenerator.BLOCK_SIZE; i++) {
+            generator.generate();
+        }
+        assertThat(blockFetches).hasValue(1);
+
+        assertThat(sequenceOf(generator.generate())).isEqualTo(NumberGenerator.BLOCK_SIZE + 1);
+        assertThat(blockFetches).hasValue(2);
+    }
+
+    @Test
+    void generateBlock_spanningABlockBoundary_stillReturnsRequestedCountOfUniqueNumbers() {
+        generator.generate();
+        List<String> numbers = generator.generate(NumberGenerator.BLOCK_SIZE + 10);
+
+        assertThat(numbers).hasSize(NumberGenerator.BLOCK_SIZE + 10).doesNotHaveDuplicates();
+        assertThat(blockFetches).hasValue(2);
+    }
+
+    @Test
+    void generatorsSharingASequence_neverCollide() throws Exception {
+        // Two replicas backed by the same DB sequence, hammered concurrently
+        NumberGenerator other = new NumberGenerator(blockSource, Clock.systemDefaultZone());
+        Set<String> numbers = ConcurrentHashMap.newKeySet();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                NumberGenerator g = t % 2 == 0 ? generator : other;
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < 5_000; i++) {
+                        numbers.add(g.generate());
+                    }
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(numbers).hasSize(40_000);
+    }
+
+    @Test
+    void generate_rollsDayPrefixOverAtMidnight() {
+        MutableClock clock = new MutableClock(Instant.parse("2024-07-01T23:59:59.999Z"));
+        NumberGenerator g = new NumberGenerator(blockSource, clock);
+
+        assertThat(g.generate()).startsWith("DOC-20240701-");
+        clock.now = Instant.parse("2024-07-02T00:00:00Z");
+        assertThat(g.generate()).startsWith("DOC-20240702-");
+        clock.now = Instant.parse("2024-07-01T12:00:00Z");
+        assertThat(g.generate()).startsWith("DOC-20240701-");
+    }
+
+    private static final class MutableClock extends Clock {
+        volatile Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+
+    private static long sequenceOf(String number) {
+        return Long.parseLong(number.substring(number.lastIndexOf('-') + 1));
+    }
 }
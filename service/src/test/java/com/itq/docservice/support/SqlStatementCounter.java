@@ -0,0 +1,170 @@
+package com.itq.docservice.support;
+
+import org.junit.jupiter.api.function.ThrowingSupplier;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Counts the JDBC statements a piece of code sends to the database, including those that bypass
+ * Hibernate (JdbcTemplate, native queries). Tests {@code @Import(SqlStatementCounter.Config.class)},
+ * which routes the application DataSource through a counting wrapper, and then declare budgets:
+ * <pre>
+ * assertStatements(2, () -> documentService.search(req, pageable));
+ * assertAtMostStatements(5 * n + 1, () -> documentService.batchSubmit(req));
+ * </pre>
+ * Only statements executed on the calling thread while the call runs are counted; a JDBC batch
+ * ({@code executeBatch}) counts as one round trip.
+ */
+public final class SqlStatementCounter {
+
+    private static final ThreadLocal<List<String>> RECORDING = new ThreadLocal<>();
+
+    private SqlStatementCounter() {
+    }
+
+    /** What a call returned and the SQL of every statement it executed, in order. */
+    public record Recorded<T>(T result, List<String> statements) {
+
+        public int count() {
+            return statements.size();
+        }
+    }
+
+    public static <T> Recorded<T> record(ThrowingSupplier<T> call) throws Throwable {
+        List<String> outer = RECORDING.get();
+        List<String> statements = new ArrayList<>();
+        RECORDING.set(statements);
+        try {
+            return new Recorded<>(call.get(), List.copyOf(statements));
+        } finally {
+            if (outer != null) {
+                outer.addAll(statements);
+                RECORDING.set(outer);
+            } else {
+                RECORDING.remove();
+            }
+        }
+    }
+
+    public static <T> T assertStatements(int expected, ThrowingSupplier<T> call) throws Throwable {
+        Recorded<T> recorded = record(call);
+        assertThat(recorded.count())
+                .withFailMessage(() -> describe("Expected " + expected, recorded))
+                .isEqualTo(expected);
+        return recorded.result();
+    }
+
+    public static <T> T assertAtMostStatements(int budget, ThrowingSupplier<T> call) throws Throwable {
+        Recorded<T> recorded = record(call);
+        assertThat(recorded.count())
+                .withFailMessage(() -> describe("Budget of " + budget, recorded))
+                .isLessThanOrEqualTo(budget);
+        return recorded.result();
+    }
+
+    private static String describe(String expectation, Recorded<?> recorded) {
+        StringBuilder message = new StringBuilder(expectation)
+                .append(" SQL statements, but ").append(recorded.count()).append(" were executed:");
+        recorded.statements().forEach(sql -> message.append("\n  ").append(sql));
+        return message.toString();
+    }
+
+    private static void count(String sql) {
+        List<String> statements = RECORDING.get();
+        if (statements != null) {
+            statements.add(sql == null ? "<unknown>" : sql.replaceAll("\\s+", " ").strip());
+        }
+    }
+
+    @TestConfiguration(proxyBeanMethods = false)
+    public static class Config {
+
+        @Bean
+        static BeanPostProcessor countingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource && !(bean instanceof CountingDataSource)
+                            ? new CountingDataSource(dataSource)
+                            : bean;
+                }
+            };
+        }
+    }
+
+    static class CountingDataSource extends DelegatingDataSource {
+
+        CountingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return connection(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return connection(super.getConnection(username, password));
+        }
+
+        private static Connection connection(Connection target) {
+            return proxy(Connection.class, target, (method, args, proceed) -> {
+                Object result = proceed.call();
+                return switch (method.getName()) {
+                    case "prepareStatement" -> statement(PreparedStatement.class, result, (String) args[0]);
+                    case "prepareCall" -> statement(CallableStatement.class, result, (String) args[0]);
+                    case "createStatement" -> statement(Statement.class, result, null);
+                    default -> result;
+                };
+            });
+        }
+
+        private static <S extends Statement> S statement(Class<S> type, Object target, String sql) {
+            return proxy(type, type.cast(target), (method, args, proceed) -> {
+                String name = method.getName();
+                if (name.equals("executeBatch") || name.equals("executeLargeBatch")) {
+                    count(sql == null ? "<batch>" : sql + " [batch]");
+                } else if (name.startsWith("execute")) {
+                    count(args != null && args.length > 0 && args[0] instanceof String s ? s : sql);
+                }
+                return proceed.call();
+            });
+        }
+
+        private interface Interceptor {
+            Object intercept(Method method, Object[] args, Proceed proceed) throws Throwable;
+        }
+
+        private interface Proceed {
+            Object call() throws Throwable;
+        }
+
+        private static <T> T proxy(Class<T> type, T target, Interceptor interceptor) {
+            return type.cast(Proxy.newProxyInstance(SqlStatementCounter.class.getClassLoader(), new Class<?>[]{type},
+                    (proxy, method, args) -> interceptor.intercept(method, args, () -> {
+                        try {
+                            return method.invoke(target, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    })));
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.itq.docservice.trace;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class AccessTraceFilterTest {
+
+    private final AccessTraceWriter writer = mock(AccessTraceWriter.class);
+    private final AccessTraceFilter filter = new AccessTraceFilter(writer);
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void recordsStatusPatternAndItemCount() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/documents/submit");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> {
+            RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+            request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/documents/submit");
+            RequestItems.record(25);
+            response.setStatus(200);
+        });
+
+        verify(writer).append(anyLong(), anyLong(), eq(200), eq("POST"), eq("/api/documents/submit"),
+                eq("/api/documents/submit"), eq(25));
+    }
+
+    @Test
+    void exceptionEscapingTheChain_isRecordedAs500() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/documents/7");
+        request.setQueryString("includeHistory=true");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThatThrownBy(() -> filter.doFilter(request, response, (req, res) -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        verify(writer).append(anyLong(), anyLong(), eq(500), eq("GET"), eq("unmatched"),
+                eq("/api/documents/7?includeHistory=true"), eq(-1));
+    }
+}
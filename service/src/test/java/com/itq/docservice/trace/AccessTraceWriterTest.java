@@ -0,0 +1,107 @@
+package com.itq.docservice.trace;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AccessTraceWriterTest {
+
+    @TempDir
+    Path dir;
+
+    /** Decodes a segment into "method endpoint uri status items epochMicros" lines. */
+    private static List<String> read(Path segment) throws IOException {
+        ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(segment));
+        assertThat(in.getInt()).isEqualTo(AccessTraceWriter.MAGIC);
+        assertThat(in.getShort()).isEqualTo(AccessTraceWriter.VERSION);
+        in.getShort();
+        Map<Short, String> endpoints = new HashMap<>();
+        List<String> records = new ArrayList<>();
+        while (in.hasRemaining()) {
+            byte type = in.get();
+            if (type == AccessTraceWriter.END) {
+                break;
+            }
+            if (type == AccessTraceWriter.ENDPOINT) {
+                short id = in.getShort();
+                endpoints.put(id, string(in));
+                continue;
+            }
+            long micros = in.getLong();
+            in.getInt();
+            short status = in.getShort();
+            String method = AccessTraceWriter.METHODS.get(in.get());
+            String endpoint = endpoints.get(in.getShort());
+            int items = in.getInt();
+            records.add(method + " " + endpoint + " " + string(in) + " " + status + " " + items + " " + micros);
+        }
+        return records;
+    }
+
+    private static String string(ByteBuffer in) {
+        byte[] bytes = new byte[in.getShort()];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.sorted().toList();
+        }
+    }
+
+    @Test
+    void append_writesRecordsWithSharedEndpointDefinitions() throws IOException {
+        AccessTraceWriter writer = new AccessTraceWriter(dir, 1 << 16, 4);
+        writer.append(1_000, 50, 200, "GET", "/api/documents/{id}", "/api/documents/7", -1);
+        writer.append(2_000, 60, 404, "GET", "/api/documents/{id}", "/api/documents/8", -1);
+        writer.append(3_000, 70, 200, "POST", "/api/documents/submit", "/api/documents/submit", 25);
+        writer.close();
+
+        assertThat(segments()).hasSize(1);
+        assertThat(read(segments().get(0))).containsExactly(
+                "GET /api/documents/{id} /api/documents/7 200 -1 1000",
+                "GET /api/documents/{id} /api/documents/8 404 -1 2000",
+                "POST /api/documents/submit /api/documents/submit 200 25 3000");
+        assertThat(writer.written()).isEqualTo(3);
+    }
+
+    @Test
+    void append_rotatesSegmentsAndKeepsOnlyTheNewest() throws IOException {
+        AccessTraceWriter writer = new AccessTraceWriter(dir, 4096, 2);
+        String uri = "/api/documents/search?q=" + "x".repeat(200);
+        for (int i = 0; i < 100; i++) {
+            writer.append(i, 1, 200, "GET", "/api/documents/search", uri, -1);
+        }
+        writer.close();
+
+        List<Path> segments = segments();
+        assertThat(segments).hasSize(2);
+        // Every segment repeats the endpoint definitions it needs, so the newest one decodes on its own
+        List<String> newest = read(segments.get(1));
+        assertThat(newest).isNotEmpty().allMatch(r -> r.startsWith("GET /api/documents/search " + uri + " 200"));
+        assertThat(newest.get(newest.size() - 1)).endsWith(" 99");
+    }
+
+    @Test
+    void append_dropsRecordsLargerThanASegment() throws IOException {
+        AccessTraceWriter writer = new AccessTraceWriter(dir, 4096, 1);
+        writer.append(1, 1, 200, "GET", "/api/documents", "/api/documents?ids=" + "1,".repeat(4000), -1);
+        writer.close();
+
+        assertThat(writer.dropped()).isEqualTo(1);
+        assertThat(read(segments().get(0))).isEmpty();
+    }
+}